@@ -6,8 +6,11 @@ const https = require('https')
 
 const app = express()
 const port = process.env.PORT ? Number(process.env.PORT) : 3000
-const streamUrl = process.env.STREAM_URL || 'http://localhost:8000/video/feed'
 const backendBaseUrl = process.env.BACKEND_BASE_URL || 'http://localhost:8082'
+// The backend relays each camera over one upstream connection however many browsers watch; set STREAM_URL to
+// read a camera feed directly instead.
+const streamUrl =
+  process.env.STREAM_URL || new URL('/api/video/default', backendBaseUrl).toString()
 const streamTarget = new URL(streamUrl)
 const backendTarget = new URL(backendBaseUrl)
 
@@ -26,25 +29,41 @@ function chooseClient(target) {
   return target.protocol === 'https:' ? https : http
 }
 
-function proxyJson(res, targetPath) {
+function proxyJson(req, res, targetPath) {
   const targetUrl = new URL(targetPath, backendTarget)
+  // Pass ?waitFor=&timeout= through for long-polling.
+  const query = req.originalUrl.indexOf('?')
+  if (query >= 0) {
+    targetUrl.search = req.originalUrl.slice(query)
+  }
   const client = chooseClient(targetUrl)
+  const headers = { accept: 'application/json' }
+  if (req.headers['if-none-match']) {
+    headers['if-none-match'] = req.headers['if-none-match']
+  }
   const upstreamRequest = client.request(
-    buildRequestOptions(targetUrl, {
-      headers: {
-        accept: 'application/json',
-      },
-    }),
+    buildRequestOptions(targetUrl, { headers }),
     (upstreamResponse) => {
       const chunks = []
       upstreamResponse.on('data', (chunk) => chunks.push(chunk))
       upstreamResponse.on('end', () => {
-        if (!res.headersSent) {
-          res.status(upstreamResponse.statusCode || 502)
-          const contentType =
-            upstreamResponse.headers['content-type'] || 'application/json'
-          res.set('content-type', contentType)
+        if (res.headersSent) {
+          res.end()
+          return
+        }
+        res.status(upstreamResponse.statusCode || 502)
+        for (const name of ['etag', 'cache-control']) {
+          if (upstreamResponse.headers[name]) {
+            res.set(name, upstreamResponse.headers[name])
+          }
+        }
+        if (upstreamResponse.statusCode === 304) {
+          res.end()
+          return
         }
+        const contentType =
+          upstreamResponse.headers['content-type'] || 'application/json'
+        res.set('content-type', contentType)
         res.send(Buffer.concat(chunks))
       })
     }
@@ -59,6 +78,9 @@ function proxyJson(res, targetPath) {
     }
   })
 
+  // Long-polls can be abandoned by the browser; drop the upstream request with them.
+  res.on('close', () => upstreamRequest.destroy())
+
   upstreamRequest.end()
 }
 
@@ -73,12 +95,12 @@ app.get('/config.json', (_req, res) => {
   })
 })
 
-app.get('/api/detections/recent', (_req, res) => {
-  proxyJson(res, '/api/detections/recent')
+app.get('/api/detections/recent', (req, res) => {
+  proxyJson(req, res, '/api/detections/recent')
 })
 
-app.get('/api/detections/sprays/recent', (_req, res) => {
-  proxyJson(res, '/api/detections/sprays/recent')
+app.get('/api/detections/sprays/recent', (req, res) => {
+  proxyJson(req, res, '/api/detections/sprays/recent')
 })
 
 app.get('/reports/detections.xlsx', (req, res) => {
@@ -118,6 +140,11 @@ app.get('/reports/detections.xlsx', (req, res) => {
 
 app.get('/events', (req, res) => {
   const targetUrl = new URL('/api/detections/stream', backendTarget)
+  // Pass stream filters (streamId, pestType, minConfidence, sprayOnly, includeBoxes) through to the backend
+  const query = req.originalUrl.split('?')[1]
+  if (query) {
+    targetUrl.search = query
+  }
   const client = chooseClient(targetUrl)
 
   res.writeHead(200, {
@@ -0,0 +1,32 @@
+package com.pestvisionai.backend.analytics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Aggregate over detections with {@code from <= detectedAt < to}, optionally restricted to some streams and pest
+ * types, split into {@code bucket}-sized time slots (one slot for the whole range when {@code null}) and grouped by
+ * {@link GroupBy}.
+ */
+public record AnalyticsQuery(
+        Instant from,
+        Instant to,
+        Set<String> streamIds,
+        Set<String> pestTypes,
+        Duration bucket,
+        GroupBy groupBy
+) {
+
+    public enum GroupBy {
+        NONE, STREAM, PEST_TYPE;
+
+        public static GroupBy parse(String value) {
+            if (value == null || value.isBlank()) {
+                return NONE;
+            }
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.pestvisionai.backend.analytics;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dense codes for the distinct values of one string column. Codes fit in 16 bits; once {@link #MAX_CODES} values are
+ * known, further values share the last code ({@value #OVERFLOW}).
+ */
+final class CodeDictionary {
+
+    static final int MAX_CODES = 1 << 16;
+    static final String OVERFLOW = "(other)";
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[16];
+    private volatile int size;
+
+    int encode(String value) {
+        Integer code = codes.get(value);
+        return code != null ? code : add(value);
+    }
+
+    /**
+     * Code of {@code value}, or -1 if it was never encoded.
+     */
+    int lookup(String value) {
+        Integer code = codes.get(value);
+        return code == null ? -1 : code;
+    }
+
+    String name(int code) {
+        return names[code];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private synchronized int add(String value) {
+        Integer existing = codes.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        int code = size;
+        if (code == MAX_CODES - 1) {
+            value = OVERFLOW;
+        } else if (code == MAX_CODES) {
+            return MAX_CODES - 1;
+        }
+        String[] current = names;
+        if (code == current.length) {
+            current = Arrays.copyOf(current, Math.min(MAX_CODES, current.length * 2));
+        }
+        current[code] = value;
+        names = current;
+        codes.put(value, code);
+        size = code + 1;
+        return code;
+    }
+}
@@ -0,0 +1,52 @@
+package com.pestvisionai.backend.analytics;
+
+/**
+ * A fixed-size block of rows stored column by column in primitive arrays (16 bytes per row).
+ *
+ * <p>Only one thread appends at a time. Columns are written before {@link #size} is advanced, so a reader that reads
+ * {@code size} first sees complete rows up to it without locking.
+ */
+final class ColumnSegment {
+
+    static final int CAPACITY = 1 << 16;
+
+    /** Seconds since {@link DetectionColumnStore#EPOCH_BASE}. */
+    final int[] seconds = new int[CAPACITY];
+    /** Stream code in the low 16 bits, pest type code in the high 16 bits. */
+    final int[] keys = new int[CAPACITY];
+    final int[] pestCounts = new int[CAPACITY];
+    final float[] confidences = new float[CAPACITY];
+    private int minSecond = Integer.MAX_VALUE;
+    private int maxSecond = Integer.MIN_VALUE;
+    private volatile int size;
+
+    boolean isFull() {
+        return size == CAPACITY;
+    }
+
+    void append(int second, int key, int pestCount, float confidence) {
+        int row = size;
+        seconds[row] = second;
+        keys[row] = key;
+        pestCounts[row] = pestCount;
+        confidences[row] = confidence;
+        minSecond = Math.min(minSecond, second);
+        maxSecond = Math.max(maxSecond, second);
+        size = row + 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Lowest timestamp among the rows visible after the last {@link #size()} read.
+     */
+    int minSecond() {
+        return minSecond;
+    }
+
+    int maxSecond() {
+        return maxSecond;
+    }
+}
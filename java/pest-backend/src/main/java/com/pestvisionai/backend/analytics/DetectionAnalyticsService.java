@@ -0,0 +1,138 @@
+package com.pestvisionai.backend.analytics;
+
+import com.pestvisionai.backend.cluster.ClusterNode;
+import com.pestvisionai.backend.cluster.LiveEventBus;
+import com.pestvisionai.backend.config.PestVisionProperties;
+import com.pestvisionai.backend.dto.AnalyticsResultView;
+import com.pestvisionai.backend.dto.DetectionView;
+import com.pestvisionai.backend.repository.DetectionFacts;
+import com.pestvisionai.backend.repository.DetectionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the {@link DetectionColumnStore} in step with the database and answers aggregate queries from it.
+ *
+ * <p>Detections are appended after commit, locally from {@code DetectionService} and from the cluster bus for other
+ * replicas. On startup the window is reloaded from the database in the background. Detections up to the highest id
+ * present when the bean was created come from that reload and everything after it from ingest, so no row is counted
+ * twice; until the reload finishes, results are marked incomplete.
+ */
+@Service
+public class DetectionAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(DetectionAnalyticsService.class);
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private final DetectionRepository detectionRepository;
+    private final boolean enabled;
+    private final Duration window;
+    private final DetectionColumnStore store;
+    private final long reloadThroughId;
+    private final Timer queryTimer;
+    private volatile boolean complete;
+
+    public DetectionAnalyticsService(DetectionRepository detectionRepository, LiveEventBus liveEventBus,
+            ClusterNode clusterNode, MeterRegistry meterRegistry, PestVisionProperties properties) {
+        this.detectionRepository = detectionRepository;
+        PestVisionProperties.Analytics analytics = properties.getAnalytics();
+        this.enabled = analytics.isEnabled();
+        this.window = Duration.ofHours(Math.max(1, analytics.getWindowHours()));
+        this.store = new DetectionColumnStore(window, analytics.getMaxRows());
+        this.reloadThroughId = enabled ? detectionRepository.findMaxId() : 0;
+        this.complete = !enabled || reloadThroughId == 0;
+        this.queryTimer = Timer.builder("pestvision.analytics.query")
+                .description("Time to answer an analytics query from the column store")
+                .register(meterRegistry);
+        Gauge.builder("pestvision.analytics.rows", store, DetectionColumnStore::size)
+                .description("Detections held in the analytics column store")
+                .register(meterRegistry);
+        String nodeId = clusterNode.nodeId();
+        liveEventBus.subscribe(envelope -> {
+            if (!nodeId.equals(envelope.originNode()) && envelope.event().detection() != null) {
+                record(envelope.event().detection());
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Adds a committed detection.
+     */
+    public void record(DetectionView detection) {
+        if (!enabled || detection.id() == null || detection.id() <= reloadThroughId) {
+            return;
+        }
+        store.append(detection.detectedAt(), detection.streamId(), detection.pestType(), detection.pestCount(),
+                detection.maxConfidence());
+    }
+
+    /**
+     * Runs {@code query}; open ends default to the store's window ending now. Throws
+     * {@link IllegalArgumentException} when the query would produce too many buckets.
+     */
+    public AnalyticsResultView query(AnalyticsQuery query) {
+        Instant to = query.to() == null ? Instant.now() : query.to();
+        Instant from = query.from() == null ? to.minus(window) : query.from();
+        AnalyticsQuery bounded = new AnalyticsQuery(from, to, query.streamIds(), query.pestTypes(), query.bucket(),
+                query.groupBy());
+        AnalyticsResultView result = queryTimer.record(() -> store.query(bounded));
+        if (complete) {
+            return result;
+        }
+        return new AnalyticsResultView(result.from(), result.to(), result.rowsScanned(), result.scanMillis(), false,
+                result.buckets());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reloadInBackground() {
+        if (complete) {
+            return;
+        }
+        Thread loader = new Thread(this::reload, "analytics-reload");
+        loader.setDaemon(true);
+        loader.setPriority(Thread.MIN_PRIORITY);
+        loader.start();
+    }
+
+    private void reload() {
+        long started = System.nanoTime();
+        Instant from = Instant.now().minus(window);
+        long afterId = 0;
+        long loaded = 0;
+        try {
+            while (true) {
+                List<DetectionFacts> page = detectionRepository.findFacts(afterId, reloadThroughId, from,
+                        PageRequest.of(0, LOAD_PAGE_SIZE));
+                if (page.isEmpty()) {
+                    break;
+                }
+                for (DetectionFacts facts : page) {
+                    store.append(facts.detectedAt(), facts.streamId(), facts.pestType(), facts.pestCount(),
+                            facts.maxConfidence());
+                }
+                loaded += page.size();
+                afterId = page.get(page.size() - 1).id();
+            }
+            complete = true;
+            log.info("Analytics store loaded {} detections from the last {} in {} ms", loaded, window,
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException ex) {
+            log.warn("Analytics reload stopped after {} detections; results stay incomplete: {}", loaded,
+                    ex.getMessage());
+        }
+    }
+}
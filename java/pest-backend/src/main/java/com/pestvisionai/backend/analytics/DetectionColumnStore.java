@@ -0,0 +1,280 @@
+package com.pestvisionai.backend.analytics;
+
+import com.pestvisionai.backend.dto.AnalyticsBucketView;
+import com.pestvisionai.backend.dto.AnalyticsResultView;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Column-oriented copy of recent detections for ad-hoc aggregates.
+ *
+ * <p>Rows live in {@link ColumnSegment}s of primitive arrays: a timestamp in seconds, stream and pest type as
+ * dictionary codes packed into one int, the pest count and the confidence, 16 bytes per row. Appends are serialized
+ * by one lock on the store, held for a few array writes (and a segment allocation every {@value ColumnSegment#CAPACITY}
+ * rows); queries take a snapshot of the segment array and scan it without locking, split across the common fork-join
+ * pool. A scan allocates per query (one accumulator per worker), never per row, and skips segments entirely outside
+ * the requested time range. Whole segments are dropped when a new one is started, once they are older than the window
+ * or the store exceeds {@code maxRows}; since that may be long after they expired, queries apply the window
+ * themselves. A range reaching back past the window, or past rows evicted for {@code maxRows}, is answered for the
+ * part the store still covers and marked incomplete.
+ */
+public final class DetectionColumnStore {
+
+    /** Origin of the stored timestamps, 2020-01-01T00:00:00Z; also the grid that time buckets are aligned to. */
+    static final long EPOCH_BASE = 1_577_836_800L;
+    private static final int MAX_CELLS = 200_000;
+
+    private final long windowSeconds;
+    private final long maxRows;
+    private final CodeDictionary streams = new CodeDictionary();
+    private final CodeDictionary pestTypes = new CodeDictionary();
+    private volatile ColumnSegment[] segments = new ColumnSegment[0];
+    /** Newest timestamp among rows dropped for {@code maxRows} while still inside the window. */
+    private volatile int evictedThroughSecond = -1;
+
+    public DetectionColumnStore(Duration window, long maxRows) {
+        this.windowSeconds = Math.max(1, window.toSeconds());
+        this.maxRows = Math.max(ColumnSegment.CAPACITY, maxRows);
+    }
+
+    public synchronized void append(Instant detectedAt, String streamId, String pestType, int pestCount,
+            double confidence) {
+        int key = streams.encode(streamId == null ? "" : streamId)
+                | pestTypes.encode(pestType == null ? "" : pestType) << 16;
+        ColumnSegment[] current = segments;
+        ColumnSegment tail = current.length == 0 ? null : current[current.length - 1];
+        if (tail == null || tail.isFull()) {
+            tail = new ColumnSegment();
+            ColumnSegment[] retained = retained(current);
+            ColumnSegment[] next = Arrays.copyOf(retained, retained.length + 1);
+            next[retained.length] = tail;
+            segments = next;
+        }
+        tail.append(toSecond(detectedAt), key, pestCount, (float) confidence);
+    }
+
+    /**
+     * Rows currently held.
+     */
+    public long size() {
+        ColumnSegment[] current = segments;
+        long rows = 0;
+        for (ColumnSegment segment : current) {
+            rows += segment.size();
+        }
+        return rows;
+    }
+
+    public AnalyticsResultView query(AnalyticsQuery query) {
+        long started = System.nanoTime();
+        int fromSecond = toSecond(query.from());
+        int toSecond = toSecond(query.to());
+        if (toSecond <= fromSecond) {
+            return result(query, 0, started, true, List.of());
+        }
+        int heldFromSecond = Math.max(toSecond(Instant.now()) - (int) Math.min(Integer.MAX_VALUE, windowSeconds),
+                evictedThroughSecond + 1);
+        boolean complete = fromSecond >= heldFromSecond;
+        if (toSecond <= heldFromSecond) {
+            return result(query, 0, started, false, List.of());
+        }
+        boolean[] streamMask = mask(streams, query.streamIds());
+        boolean[] pestMask = mask(pestTypes, query.pestTypes());
+        if ((streamMask != null && streamMask.length == 0) || (pestMask != null && pestMask.length == 0)) {
+            return result(query, 0, started, complete, List.of());
+        }
+        AnalyticsQuery.GroupBy groupBy = query.groupBy() == null ? AnalyticsQuery.GroupBy.NONE : query.groupBy();
+        int groups = switch (groupBy) {
+            case NONE -> 1;
+            case STREAM -> streams.size();
+            case PEST_TYPE -> pestTypes.size();
+        };
+        // Buckets are aligned to EPOCH_BASE (so hours and days start on the hour and at midnight UTC); without a
+        // bucket size the whole range is one bucket.
+        int bucketSeconds = query.bucket() == null
+                ? toSecond - fromSecond
+                : (int) Math.max(1, Math.min(Integer.MAX_VALUE, query.bucket().toSeconds()));
+        int origin = query.bucket() == null ? fromSecond : 0;
+        int firstBucket = (fromSecond - origin) / bucketSeconds;
+        long bucketCount = (toSecond - 1 - origin) / bucketSeconds - firstBucket + 1;
+        if (bucketCount * Math.max(1, groups) > MAX_CELLS) {
+            throw new IllegalArgumentException("Query would produce more than " + MAX_CELLS
+                    + " buckets; use a larger bucket or a shorter range");
+        }
+        // Buckets follow the requested range; only the rows scanned are limited to what the store is meant to hold.
+        Scan scan = new Scan(Math.max(fromSecond, heldFromSecond), toSecond, streamMask, pestMask, groupBy,
+                Math.max(1, groups), origin, bucketSeconds, firstBucket, (int) bucketCount);
+
+        ColumnSegment[] snapshot = segments;
+        int tasks = Math.max(1, Math.min(snapshot.length, ForkJoinPool.getCommonPoolParallelism()));
+        Accumulator total = IntStream.range(0, tasks)
+                .parallel()
+                .mapToObj(task -> scan.run(snapshot, snapshot.length * task / tasks,
+                        snapshot.length * (task + 1) / tasks))
+                .reduce(Accumulator::merge)
+                .orElseGet(() -> new Accumulator(scan.cells()));
+
+        List<AnalyticsBucketView> buckets = new ArrayList<>();
+        for (int cell = 0; cell < total.count.length; cell++) {
+            if (total.count[cell] == 0) {
+                continue;
+            }
+            int bucket = cell / scan.groups();
+            int group = cell % scan.groups();
+            long bucketStart = EPOCH_BASE + origin + (long) (firstBucket + bucket) * bucketSeconds;
+            String groupName = switch (groupBy) {
+                case NONE -> null;
+                case STREAM -> streams.name(group);
+                case PEST_TYPE -> pestTypes.name(group);
+            };
+            buckets.add(new AnalyticsBucketView(
+                    Instant.ofEpochSecond(bucketStart),
+                    groupName,
+                    total.count[cell],
+                    total.pests[cell],
+                    total.confidenceSum[cell] / total.count[cell],
+                    total.confidenceMax[cell]));
+        }
+        return result(query, total.rowsScanned, started, complete, buckets);
+    }
+
+    private ColumnSegment[] retained(ColumnSegment[] current) {
+        int cutoff = toSecond(Instant.now()) - (int) Math.min(Integer.MAX_VALUE, windowSeconds);
+        int first = 0;
+        long rows = (long) current.length * ColumnSegment.CAPACITY;
+        while (first < current.length
+                && (current[first].maxSecond() < cutoff || rows + ColumnSegment.CAPACITY > maxRows)) {
+            if (current[first].maxSecond() >= cutoff) {
+                evictedThroughSecond = Math.max(evictedThroughSecond, current[first].maxSecond());
+            }
+            rows -= ColumnSegment.CAPACITY;
+            first++;
+        }
+        return first == 0 ? current : Arrays.copyOfRange(current, first, current.length);
+    }
+
+    /**
+     * Lookup table by code for a filter on {@code values}: {@code null} when there is no filter, empty when none of
+     * the values was ever seen.
+     */
+    private static boolean[] mask(CodeDictionary dictionary, Set<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        boolean[] mask = new boolean[CodeDictionary.MAX_CODES];
+        boolean any = false;
+        for (String value : values) {
+            int code = dictionary.lookup(value);
+            if (code >= 0) {
+                mask[code] = true;
+                any = true;
+            }
+        }
+        return any ? mask : new boolean[0];
+    }
+
+    private static AnalyticsResultView result(AnalyticsQuery query, long rowsScanned, long startedNanos,
+            boolean complete, List<AnalyticsBucketView> buckets) {
+        return new AnalyticsResultView(query.from(), query.to(), rowsScanned,
+                (System.nanoTime() - startedNanos) / 1e6, complete, buckets);
+    }
+
+    static int toSecond(Instant instant) {
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, instant.getEpochSecond() - EPOCH_BASE));
+    }
+
+    private record Scan(
+            int fromSecond,
+            int toSecond,
+            boolean[] streamMask,
+            boolean[] pestMask,
+            AnalyticsQuery.GroupBy groupBy,
+            int groups,
+            int origin,
+            int bucketSeconds,
+            int firstBucket,
+            int bucketCount) {
+
+        int cells() {
+            return bucketCount * groups;
+        }
+
+        Accumulator run(ColumnSegment[] segments, int fromSegment, int toSegment) {
+            Accumulator accumulator = new Accumulator(cells());
+            boolean byStream = groupBy == AnalyticsQuery.GroupBy.STREAM;
+            boolean byPest = groupBy == AnalyticsQuery.GroupBy.PEST_TYPE;
+            boolean singleBucket = bucketCount == 1;
+            for (int s = fromSegment; s < toSegment; s++) {
+                ColumnSegment segment = segments[s];
+                int rows = segment.size();
+                if (rows == 0 || segment.maxSecond() < fromSecond || segment.minSecond() >= toSecond) {
+                    continue;
+                }
+                accumulator.rowsScanned += rows;
+                int[] seconds = segment.seconds;
+                int[] keys = segment.keys;
+                int[] pestCounts = segment.pestCounts;
+                float[] confidences = segment.confidences;
+                for (int i = 0; i < rows; i++) {
+                    int second = seconds[i];
+                    if (second < fromSecond || second >= toSecond) {
+                        continue;
+                    }
+                    int key = keys[i];
+                    int stream = key & 0xFFFF;
+                    int pest = key >>> 16;
+                    if ((streamMask != null && !streamMask[stream]) || (pestMask != null && !pestMask[pest])) {
+                        continue;
+                    }
+                    int group = byStream ? stream : byPest ? pest : 0;
+                    if (group >= groups) {
+                        // Code created after the query started.
+                        continue;
+                    }
+                    int cell = singleBucket ? group : ((second - origin) / bucketSeconds - firstBucket) * groups + group;
+                    float confidence = confidences[i];
+                    accumulator.count[cell]++;
+                    accumulator.pests[cell] += pestCounts[i];
+                    accumulator.confidenceSum[cell] += confidence;
+                    if (confidence > accumulator.confidenceMax[cell]) {
+                        accumulator.confidenceMax[cell] = confidence;
+                    }
+                }
+            }
+            return accumulator;
+        }
+    }
+
+    private static final class Accumulator {
+
+        private final long[] count;
+        private final long[] pests;
+        private final double[] confidenceSum;
+        private final float[] confidenceMax;
+        private long rowsScanned;
+
+        private Accumulator(int cells) {
+            this.count = new long[cells];
+            this.pests = new long[cells];
+            this.confidenceSum = new double[cells];
+            this.confidenceMax = new float[cells];
+        }
+
+        private Accumulator merge(Accumulator other) {
+            for (int cell = 0; cell < count.length; cell++) {
+                count[cell] += other.count[cell];
+                pests[cell] += other.pests[cell];
+                confidenceSum[cell] += other.confidenceSum[cell];
+                confidenceMax[cell] = Math.max(confidenceMax[cell], other.confidenceMax[cell]);
+            }
+            rowsScanned += other.rowsScanned;
+            return this;
+        }
+    }
+}
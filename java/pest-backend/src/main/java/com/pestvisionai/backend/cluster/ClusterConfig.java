@@ -0,0 +1,63 @@
+package com.pestvisionai.backend.cluster;
+
+import com.pestvisionai.backend.config.PestVisionProperties;
+import com.pestvisionai.backend.repository.SprayLeaseRepository;
+import com.pestvisionai.backend.service.LeaseSprayCooldownGate;
+import com.pestvisionai.backend.service.LocalSprayCooldownGate;
+import com.pestvisionai.backend.service.SprayCooldownGate;
+import java.util.Locale;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Wires single-node or multi-node mode from {@code pestvision.cluster.*}. The choice is made when the beans are
+ * created rather than through conditional bean definitions, so the same build works for either mode.
+ */
+@Configuration
+public class ClusterConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterConfig.class);
+
+    @Bean
+    public ClusterNode clusterNode(PestVisionProperties properties) {
+        PestVisionProperties.Cluster cluster = properties.getCluster();
+        String nodeId = StringUtils.hasText(cluster.getNodeId())
+                ? cluster.getNodeId().trim()
+                : "node-" + UUID.randomUUID().toString().substring(0, 8);
+        if (cluster.isEnabled()) {
+            log.info("Cluster mode enabled as {} using the {} bus", nodeId, cluster.getBus());
+        }
+        return new ClusterNode(nodeId, cluster.isEnabled());
+    }
+
+    @Bean
+    public SprayCooldownGate sprayCooldownGate(
+            ClusterNode clusterNode,
+            SprayLeaseRepository leaseRepository,
+            PlatformTransactionManager transactionManager) {
+        if (clusterNode.enabled()) {
+            return new LeaseSprayCooldownGate(leaseRepository, transactionManager, clusterNode.nodeId());
+        }
+        return new LocalSprayCooldownGate();
+    }
+
+    @Bean
+    public LiveEventBus liveEventBus(ClusterNode clusterNode, PestVisionProperties properties, WebClient.Builder builder) {
+        PestVisionProperties.Cluster cluster = properties.getCluster();
+        if (!clusterNode.enabled()) {
+            return LiveEventBus.none();
+        }
+        String bus = cluster.getBus() == null ? "loopback" : cluster.getBus().toLowerCase(Locale.ROOT);
+        return switch (bus) {
+            case "loopback" -> new LoopbackLiveEventBus(cluster.getLoopbackChannel());
+            case "http" -> new HttpLiveEventBus(builder, cluster.getPeers(), cluster.getSharedSecret());
+            default -> throw new IllegalStateException("Unknown cluster bus '" + cluster.getBus() + "'");
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.pestvisionai.backend.cluster;
+
+import com.pestvisionai.backend.dto.LiveEventDto;
+
+/**
+ * Live event relayed between replicas, tagged with the node that produced it so it is not re-emitted there.
+ */
+public record ClusterEnvelope(
+        String originNode,
+        LiveEventDto event
+) {
+}
@@ -0,0 +1,35 @@
+package com.pestvisionai.backend.cluster;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Receiving side of {@link HttpLiveEventBus}.
+ */
+@RestController
+public class ClusterEventController {
+
+    private final LiveEventBus liveEventBus;
+
+    public ClusterEventController(LiveEventBus liveEventBus) {
+        this.liveEventBus = liveEventBus;
+    }
+
+    @PostMapping(HttpLiveEventBus.EVENTS_PATH)
+    public ResponseEntity<Void> receive(
+            @RequestHeader(value = HttpLiveEventBus.SECRET_HEADER, required = false) String secret,
+            @RequestBody ClusterEnvelope envelope) {
+        if (!(liveEventBus instanceof HttpLiveEventBus httpBus)) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!httpBus.acceptsSecret(secret)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        httpBus.deliver(envelope);
+        return ResponseEntity.accepted().build();
+    }
+}
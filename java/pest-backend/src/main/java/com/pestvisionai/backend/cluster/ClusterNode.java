@@ -0,0 +1,10 @@
+package com.pestvisionai.backend.cluster;
+
+/**
+ * Identity of this backend instance within a multi-node deployment.
+ */
+public record ClusterNode(
+        String nodeId,
+        boolean enabled
+) {
+}
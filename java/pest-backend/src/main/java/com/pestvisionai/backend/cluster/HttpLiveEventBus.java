@@ -0,0 +1,72 @@
+package com.pestvisionai.backend.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Relays events by posting them to {@code /internal/cluster/events} on every configured peer. Delivery is best
+ * effort and fire-and-forget: a slow or unreachable peer only loses its copy of the event. Peers authenticate with a
+ * shared secret, which is therefore required.
+ */
+public class HttpLiveEventBus implements LiveEventBus {
+
+    public static final String SECRET_HEADER = "X-PestVision-Cluster-Secret";
+    static final String EVENTS_PATH = "/internal/cluster/events";
+
+    private static final Logger log = LoggerFactory.getLogger(HttpLiveEventBus.class);
+    private static final Duration PEER_TIMEOUT = Duration.ofSeconds(2);
+
+    private final List<WebClient> peers;
+    private final String sharedSecret;
+    private final List<Consumer<ClusterEnvelope>> listeners = new CopyOnWriteArrayList<>();
+
+    public HttpLiveEventBus(WebClient.Builder builder, List<String> peerUrls, String sharedSecret) {
+        this.peers = peerUrls.stream()
+                .map(url -> builder.clone().baseUrl(url).build())
+                .toList();
+        if (!StringUtils.hasText(sharedSecret)) {
+            throw new IllegalStateException("pestvision.cluster.shared-secret must be set for the http cluster bus");
+        }
+        this.sharedSecret = sharedSecret;
+    }
+
+    @Override
+    public void publish(ClusterEnvelope envelope) {
+        // Local listeners first, then every peer; mirrors the loopback bus where the sender also hears itself.
+        deliver(envelope);
+        for (WebClient peer : peers) {
+            peer.post()
+                    .uri(EVENTS_PATH)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(SECRET_HEADER, sharedSecret)
+                    .bodyValue(envelope)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(PEER_TIMEOUT)
+                    .subscribe(ignored -> { }, ex -> log.debug("Relaying live event to peer failed: {}", ex.getMessage()));
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ClusterEnvelope> listener) {
+        listeners.add(listener);
+    }
+
+    boolean acceptsSecret(String presented) {
+        return presented != null && MessageDigest.isEqual(
+                sharedSecret.getBytes(StandardCharsets.UTF_8), presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    void deliver(ClusterEnvelope envelope) {
+        listeners.forEach(listener -> listener.accept(envelope));
+    }
+}
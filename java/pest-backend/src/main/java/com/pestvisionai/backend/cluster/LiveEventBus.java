@@ -0,0 +1,38 @@
+package com.pestvisionai.backend.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Relays live events between backend replicas so that SSE clients see events ingested on any node.
+ */
+public interface LiveEventBus extends AutoCloseable {
+
+    /**
+     * Sends {@code envelope} to every node on the bus. Implementations must not block the caller on remote I/O.
+     */
+    void publish(ClusterEnvelope envelope);
+
+    /**
+     * Registers a listener for envelopes published on the bus, including the ones this node published.
+     */
+    void subscribe(Consumer<ClusterEnvelope> listener);
+
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Bus for single-node deployments: nothing leaves the JVM and nothing arrives.
+     */
+    static LiveEventBus none() {
+        return new LiveEventBus() {
+            @Override
+            public void publish(ClusterEnvelope envelope) {
+            }
+
+            @Override
+            public void subscribe(Consumer<ClusterEnvelope> listener) {
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.pestvisionai.backend.cluster;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-JVM bus connecting every backend context started in the same JVM on the same channel. Used by the multi-node
+ * probes in {@code pest-loadtest} to run several replicas in one process.
+ */
+public class LoopbackLiveEventBus implements LiveEventBus {
+
+    private static final Map<String, List<Consumer<ClusterEnvelope>>> CHANNELS = new ConcurrentHashMap<>();
+
+    private final String channel;
+    private final List<Consumer<ClusterEnvelope>> ownListeners = new CopyOnWriteArrayList<>();
+
+    public LoopbackLiveEventBus(String channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public void publish(ClusterEnvelope envelope) {
+        CHANNELS.getOrDefault(channel, List.of()).forEach(listener -> listener.accept(envelope));
+    }
+
+    @Override
+    public void subscribe(Consumer<ClusterEnvelope> listener) {
+        ownListeners.add(listener);
+        CHANNELS.computeIfAbsent(channel, ignored -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public void close() {
+        List<Consumer<ClusterEnvelope>> listeners = CHANNELS.get(channel);
+        if (listeners != null) {
+            listeners.removeAll(ownListeners);
+        }
+        ownListeners.clear();
+    }
+}
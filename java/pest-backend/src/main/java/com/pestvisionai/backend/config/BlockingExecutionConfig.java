@@ -0,0 +1,38 @@
+package com.pestvisionai.backend.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.reactive.config.BlockingExecutionConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Runs controller methods with blocking signatures (JPA, Gemini, report generation) on a dedicated pool instead of
+ * the Netty event loop. Reactor refuses {@code block()} on event-loop threads, and blocking there would stall every
+ * other connection served by the same loop.
+ */
+@Configuration
+public class BlockingExecutionConfig implements WebFluxConfigurer, DisposableBean {
+
+    private final ThreadPoolTaskExecutor blockingRequestExecutor;
+
+    public BlockingExecutionConfig(PestVisionProperties properties) {
+        int threads = Math.max(1, properties.getWeb().getBlockingThreads());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("blocking-http-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.initialize();
+        this.blockingRequestExecutor = executor;
+    }
+
+    @Override
+    public void destroy() {
+        blockingRequestExecutor.shutdown();
+    }
+
+    @Override
+    public void configureBlockingExecution(BlockingExecutionConfigurer configurer) {
+        configurer.setExecutor(blockingRequestExecutor);
+    }
+}
@@ -1,5 +1,9 @@
 package com.pestvisionai.backend.config;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "pestvision")
@@ -8,6 +12,12 @@ public class PestVisionProperties {
     private final Vision vision = new Vision();
     private final Spray spray = new Spray();
     private final Ai ai = new Ai();
+    private final Web web = new Web();
+    private final Cluster cluster = new Cluster();
+    private final Ingest ingest = new Ingest();
+    private final Reports reports = new Reports();
+    private final Analytics analytics = new Analytics();
+    private final Surge surge = new Surge();
 
     public Vision getVision() {
         return vision;
@@ -21,8 +31,34 @@ public class PestVisionProperties {
         return ai;
     }
 
+    public Web getWeb() {
+        return web;
+    }
+
+    public Cluster getCluster() {
+        return cluster;
+    }
+
+    public Ingest getIngest() {
+        return ingest;
+    }
+
+    public Reports getReports() {
+        return reports;
+    }
+
+    public Analytics getAnalytics() {
+        return analytics;
+    }
+
+    public Surge getSurge() {
+        return surge;
+    }
+
     public static class Vision {
         private String streamUrl = "http://localhost:8000/video/feed";
+        private Map<String, String> cameras = new HashMap<>();
+        private final Relay relay = new Relay();
 
         public String getStreamUrl() {
             return streamUrl;
@@ -31,11 +67,80 @@ public class PestVisionProperties {
         public void setStreamUrl(String streamUrl) {
             this.streamUrl = streamUrl;
         }
+
+        public Map<String, String> getCameras() {
+            return cameras;
+        }
+
+        public void setCameras(Map<String, String> cameras) {
+            this.cameras = cameras;
+        }
+
+        public Relay getRelay() {
+            return relay;
+        }
+
+        public static class Relay {
+            private boolean enabled = true;
+            private long idleSeconds = 10;
+            private long reconnectMillis = 1000;
+            private long stallTimeoutMillis = 10_000;
+            private int maxFrameKilobytes = 4096;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public long getIdleSeconds() {
+                return idleSeconds;
+            }
+
+            public void setIdleSeconds(long idleSeconds) {
+                this.idleSeconds = idleSeconds;
+            }
+
+            public long getReconnectMillis() {
+                return reconnectMillis;
+            }
+
+            public void setReconnectMillis(long reconnectMillis) {
+                this.reconnectMillis = reconnectMillis;
+            }
+
+            public long getStallTimeoutMillis() {
+                return stallTimeoutMillis;
+            }
+
+            public void setStallTimeoutMillis(long stallTimeoutMillis) {
+                this.stallTimeoutMillis = stallTimeoutMillis;
+            }
+
+            public int getMaxFrameKilobytes() {
+                return maxFrameKilobytes;
+            }
+
+            public void setMaxFrameKilobytes(int maxFrameKilobytes) {
+                this.maxFrameKilobytes = maxFrameKilobytes;
+            }
+        }
     }
 
     public static class Spray {
         private double confidenceThreshold = 0.75;
         private long cooldownSeconds = 30;
+        private String cooldownScope = "global";
+        private String defaultDevice = "sprayer-1";
+        private Map<String, String> streamDevices = new HashMap<>();
+        private Map<String, Device> devices = new HashMap<>();
+        private int queueCapacity = 64;
+        private long ackTimeoutMillis = 2000;
+        private int maxAttempts = 3;
+        private long retryBackoffMillis = 250;
+        private long sprayDurationMillis = 1500;
 
         public double getConfidenceThreshold() {
             return confidenceThreshold;
@@ -52,6 +157,520 @@ public class PestVisionProperties {
         public void setCooldownSeconds(long cooldownSeconds) {
             this.cooldownSeconds = cooldownSeconds;
         }
+
+        public String getCooldownScope() {
+            return cooldownScope;
+        }
+
+        public void setCooldownScope(String cooldownScope) {
+            this.cooldownScope = cooldownScope;
+        }
+
+        public String getDefaultDevice() {
+            return defaultDevice;
+        }
+
+        public void setDefaultDevice(String defaultDevice) {
+            this.defaultDevice = defaultDevice;
+        }
+
+        public Map<String, String> getStreamDevices() {
+            return streamDevices;
+        }
+
+        public void setStreamDevices(Map<String, String> streamDevices) {
+            this.streamDevices = streamDevices;
+        }
+
+        public Map<String, Device> getDevices() {
+            return devices;
+        }
+
+        public void setDevices(Map<String, Device> devices) {
+            this.devices = devices;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public long getAckTimeoutMillis() {
+            return ackTimeoutMillis;
+        }
+
+        public void setAckTimeoutMillis(long ackTimeoutMillis) {
+            this.ackTimeoutMillis = ackTimeoutMillis;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getRetryBackoffMillis() {
+            return retryBackoffMillis;
+        }
+
+        public void setRetryBackoffMillis(long retryBackoffMillis) {
+            this.retryBackoffMillis = retryBackoffMillis;
+        }
+
+        public long getSprayDurationMillis() {
+            return sprayDurationMillis;
+        }
+
+        public void setSprayDurationMillis(long sprayDurationMillis) {
+            this.sprayDurationMillis = sprayDurationMillis;
+        }
+
+        public static class Device {
+            private String transport = "simulated";
+            private String address;
+            private long simulatedLatencyMillis = 50;
+            private double simulatedFailureRate = 0.0;
+
+            public String getTransport() {
+                return transport;
+            }
+
+            public void setTransport(String transport) {
+                this.transport = transport;
+            }
+
+            public String getAddress() {
+                return address;
+            }
+
+            public void setAddress(String address) {
+                this.address = address;
+            }
+
+            public long getSimulatedLatencyMillis() {
+                return simulatedLatencyMillis;
+            }
+
+            public void setSimulatedLatencyMillis(long simulatedLatencyMillis) {
+                this.simulatedLatencyMillis = simulatedLatencyMillis;
+            }
+
+            public double getSimulatedFailureRate() {
+                return simulatedFailureRate;
+            }
+
+            public void setSimulatedFailureRate(double simulatedFailureRate) {
+                this.simulatedFailureRate = simulatedFailureRate;
+            }
+        }
+    }
+
+    public static class Cluster {
+        private boolean enabled = false;
+        private String nodeId = "";
+        private String bus = "loopback";
+        private String loopbackChannel = "default";
+        private List<String> peers = new ArrayList<>();
+        private String sharedSecret = "";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public void setNodeId(String nodeId) {
+            this.nodeId = nodeId;
+        }
+
+        public String getBus() {
+            return bus;
+        }
+
+        public void setBus(String bus) {
+            this.bus = bus;
+        }
+
+        public String getLoopbackChannel() {
+            return loopbackChannel;
+        }
+
+        public void setLoopbackChannel(String loopbackChannel) {
+            this.loopbackChannel = loopbackChannel;
+        }
+
+        public List<String> getPeers() {
+            return peers;
+        }
+
+        public void setPeers(List<String> peers) {
+            this.peers = peers;
+        }
+
+        public String getSharedSecret() {
+            return sharedSecret;
+        }
+
+        public void setSharedSecret(String sharedSecret) {
+            this.sharedSecret = sharedSecret;
+        }
+    }
+
+    public static class Ingest {
+        private String mode = "direct";
+        private int partitions = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 1024;
+        private int batchMaxItems = 64;
+        private long batchMaxWaitMillis = 5;
+        private int streamWindow = 64;
+        private final Admission admission = new Admission();
+        private final Dedup dedup = new Dedup();
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        public int getPartitions() {
+            return partitions;
+        }
+
+        public void setPartitions(int partitions) {
+            this.partitions = partitions;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchMaxItems() {
+            return batchMaxItems;
+        }
+
+        public void setBatchMaxItems(int batchMaxItems) {
+            this.batchMaxItems = batchMaxItems;
+        }
+
+        public long getBatchMaxWaitMillis() {
+            return batchMaxWaitMillis;
+        }
+
+        public void setBatchMaxWaitMillis(long batchMaxWaitMillis) {
+            this.batchMaxWaitMillis = batchMaxWaitMillis;
+        }
+
+        public int getStreamWindow() {
+            return streamWindow;
+        }
+
+        public void setStreamWindow(int streamWindow) {
+            this.streamWindow = streamWindow;
+        }
+
+        public Admission getAdmission() {
+            return admission;
+        }
+
+        public Dedup getDedup() {
+            return dedup;
+        }
+
+        public static class Admission {
+            private boolean enabled = true;
+            private int initialLimit = 32;
+            private int minLimit = 4;
+            private int maxLimit = 512;
+            private double priorityReserve = 0.2;
+            private long maxQueueMillis = 500;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getInitialLimit() {
+                return initialLimit;
+            }
+
+            public void setInitialLimit(int initialLimit) {
+                this.initialLimit = initialLimit;
+            }
+
+            public int getMinLimit() {
+                return minLimit;
+            }
+
+            public void setMinLimit(int minLimit) {
+                this.minLimit = minLimit;
+            }
+
+            public int getMaxLimit() {
+                return maxLimit;
+            }
+
+            public void setMaxLimit(int maxLimit) {
+                this.maxLimit = maxLimit;
+            }
+
+            public double getPriorityReserve() {
+                return priorityReserve;
+            }
+
+            public void setPriorityReserve(double priorityReserve) {
+                this.priorityReserve = priorityReserve;
+            }
+
+            public long getMaxQueueMillis() {
+                return maxQueueMillis;
+            }
+
+            public void setMaxQueueMillis(long maxQueueMillis) {
+                this.maxQueueMillis = maxQueueMillis;
+            }
+        }
+
+        public static class Dedup {
+            private boolean enabled = true;
+            private int expectedKeys = 1_000_000;
+            private double falsePositiveRate = 0.01;
+            private int recentKeys = 16_384;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getExpectedKeys() {
+                return expectedKeys;
+            }
+
+            public void setExpectedKeys(int expectedKeys) {
+                this.expectedKeys = expectedKeys;
+            }
+
+            public double getFalsePositiveRate() {
+                return falsePositiveRate;
+            }
+
+            public void setFalsePositiveRate(double falsePositiveRate) {
+                this.falsePositiveRate = falsePositiveRate;
+            }
+
+            public int getRecentKeys() {
+                return recentKeys;
+            }
+
+            public void setRecentKeys(int recentKeys) {
+                this.recentKeys = recentKeys;
+            }
+        }
+    }
+
+    public static class Analytics {
+        private boolean enabled = true;
+        private int windowHours = 168;
+        private int maxRows = 5_000_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getWindowHours() {
+            return windowHours;
+        }
+
+        public void setWindowHours(int windowHours) {
+            this.windowHours = windowHours;
+        }
+
+        public int getMaxRows() {
+            return maxRows;
+        }
+
+        public void setMaxRows(int maxRows) {
+            this.maxRows = maxRows;
+        }
+    }
+
+    public static class Surge {
+        private boolean enabled = true;
+        private double smoothing = 0.05;
+        private double threshold = 4.0;
+        private int warmupSamples = 30;
+        private double minPestCountDeviation = 1.0;
+        private double minConfidenceDeviation = 0.05;
+        private long cooldownSeconds = 300;
+        private int maxKeys = 65_536;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public void setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+        }
+
+        public double getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(double threshold) {
+            this.threshold = threshold;
+        }
+
+        public int getWarmupSamples() {
+            return warmupSamples;
+        }
+
+        public void setWarmupSamples(int warmupSamples) {
+            this.warmupSamples = warmupSamples;
+        }
+
+        public double getMinPestCountDeviation() {
+            return minPestCountDeviation;
+        }
+
+        public void setMinPestCountDeviation(double minPestCountDeviation) {
+            this.minPestCountDeviation = minPestCountDeviation;
+        }
+
+        public double getMinConfidenceDeviation() {
+            return minConfidenceDeviation;
+        }
+
+        public void setMinConfidenceDeviation(double minConfidenceDeviation) {
+            this.minConfidenceDeviation = minConfidenceDeviation;
+        }
+
+        public long getCooldownSeconds() {
+            return cooldownSeconds;
+        }
+
+        public void setCooldownSeconds(long cooldownSeconds) {
+            this.cooldownSeconds = cooldownSeconds;
+        }
+
+        public int getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+    }
+
+    public static class Reports {
+        private String cacheDir = System.getProperty("java.io.tmpdir") + "/pestvision-reports";
+        private long cacheMaxMegabytes = 512;
+        private int maxParallel = 1;
+        private int queueCapacity = 16;
+        private int maxRows = 200_000;
+
+        public String getCacheDir() {
+            return cacheDir;
+        }
+
+        public void setCacheDir(String cacheDir) {
+            this.cacheDir = cacheDir;
+        }
+
+        public long getCacheMaxMegabytes() {
+            return cacheMaxMegabytes;
+        }
+
+        public void setCacheMaxMegabytes(long cacheMaxMegabytes) {
+            this.cacheMaxMegabytes = cacheMaxMegabytes;
+        }
+
+        public int getMaxParallel() {
+            return maxParallel;
+        }
+
+        public void setMaxParallel(int maxParallel) {
+            this.maxParallel = maxParallel;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getMaxRows() {
+            return maxRows;
+        }
+
+        public void setMaxRows(int maxRows) {
+            this.maxRows = maxRows;
+        }
+    }
+
+    public static class Web {
+        private int blockingThreads = 64;
+        private int longPollMaxSeconds = 60;
+        private int recentFeedMaxAgeSeconds = 30;
+
+        public int getBlockingThreads() {
+            return blockingThreads;
+        }
+
+        public void setBlockingThreads(int blockingThreads) {
+            this.blockingThreads = blockingThreads;
+        }
+
+        public int getLongPollMaxSeconds() {
+            return longPollMaxSeconds;
+        }
+
+        public void setLongPollMaxSeconds(int longPollMaxSeconds) {
+            this.longPollMaxSeconds = longPollMaxSeconds;
+        }
+
+        public int getRecentFeedMaxAgeSeconds() {
+            return recentFeedMaxAgeSeconds;
+        }
+
+        public void setRecentFeedMaxAgeSeconds(int recentFeedMaxAgeSeconds) {
+            this.recentFeedMaxAgeSeconds = recentFeedMaxAgeSeconds;
+        }
     }
 
     public static class Ai {
@@ -64,6 +683,12 @@ public class PestVisionProperties {
         public static class Gemini {
             private String apiKey = "";
             private String model = "gemini-2.5-flash";
+            private String baseUrl = "https://generativelanguage.googleapis.com";
+            private long timeoutMillis = 5000;
+            private int maxConcurrentCalls = 8;
+            private int failureThreshold = 5;
+            private long openSeconds = 30;
+            private long hedgeDelayMillis = 0;
 
             public String getApiKey() {
                 return apiKey;
@@ -80,6 +705,54 @@ public class PestVisionProperties {
             public void setModel(String model) {
                 this.model = model;
             }
+
+            public String getBaseUrl() {
+                return baseUrl;
+            }
+
+            public void setBaseUrl(String baseUrl) {
+                this.baseUrl = baseUrl;
+            }
+
+            public long getTimeoutMillis() {
+                return timeoutMillis;
+            }
+
+            public void setTimeoutMillis(long timeoutMillis) {
+                this.timeoutMillis = timeoutMillis;
+            }
+
+            public int getMaxConcurrentCalls() {
+                return maxConcurrentCalls;
+            }
+
+            public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+                this.maxConcurrentCalls = maxConcurrentCalls;
+            }
+
+            public int getFailureThreshold() {
+                return failureThreshold;
+            }
+
+            public void setFailureThreshold(int failureThreshold) {
+                this.failureThreshold = failureThreshold;
+            }
+
+            public long getOpenSeconds() {
+                return openSeconds;
+            }
+
+            public void setOpenSeconds(long openSeconds) {
+                this.openSeconds = openSeconds;
+            }
+
+            public long getHedgeDelayMillis() {
+                return hedgeDelayMillis;
+            }
+
+            public void setHedgeDelayMillis(long hedgeDelayMillis) {
+                this.hedgeDelayMillis = hedgeDelayMillis;
+            }
         }
     }
 }
@@ -0,0 +1,31 @@
+package com.pestvisionai.backend.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stamps each request with the {@link System#nanoTime()} at which it reached the application, so handlers running on
+ * the blocking pool can tell how long they waited for a thread.
+ */
+@Component
+public class RequestArrivalFilter implements WebFilter {
+
+    public static final String ARRIVAL_NANOS = RequestArrivalFilter.class.getName() + ".arrivalNanos";
+
+    /**
+     * Nanoseconds since {@code exchange} arrived, or zero when it was not stamped.
+     */
+    public static long waitedNanos(ServerWebExchange exchange) {
+        Long arrival = exchange.getAttribute(ARRIVAL_NANOS);
+        return arrival == null ? 0 : System.nanoTime() - arrival;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        exchange.getAttributes().put(ARRIVAL_NANOS, System.nanoTime());
+        return chain.filter(exchange);
+    }
+}
@@ -0,0 +1,21 @@
+package com.pestvisionai.backend.config;
+
+import com.pestvisionai.backend.controller.DetectionStreamHandler;
+import java.util.Map;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+/**
+ * Maps the WebSocket endpoints. The handler adapter is registered by WebFlux itself.
+ */
+@Configuration
+public class WebSocketConfig {
+
+    @Bean
+    public HandlerMapping webSocketHandlerMapping(DetectionStreamHandler detectionStreamHandler) {
+        return new SimpleUrlHandlerMapping(Map.of("/ws/detections", detectionStreamHandler), Ordered.HIGHEST_PRECEDENCE);
+    }
+}
@@ -0,0 +1,50 @@
+package com.pestvisionai.backend.controller;
+
+import com.pestvisionai.backend.analytics.AnalyticsQuery;
+import com.pestvisionai.backend.analytics.DetectionAnalyticsService;
+import com.pestvisionai.backend.dto.AnalyticsResultView;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private final DetectionAnalyticsService analyticsService;
+
+    public AnalyticsController(DetectionAnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    /**
+     * Aggregates over recent detections, e.g. {@code ?streamId=camera-3&pestType=aphid&bucket=PT1H} for the hourly
+     * average confidence of aphids on one camera. {@code from}/{@code to} default to the configured window ending now;
+     * {@code groupBy} is {@code none}, {@code stream} or {@code pest-type}.
+     */
+    @GetMapping("/detections")
+    public ResponseEntity<AnalyticsResultView> detections(
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(name = "streamId", required = false) Set<String> streamIds,
+            @RequestParam(name = "pestType", required = false) Set<String> pestTypes,
+            @RequestParam(required = false) Duration bucket,
+            @RequestParam(required = false) String groupBy) {
+        if (!analyticsService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        try {
+            AnalyticsQuery query = new AnalyticsQuery(from, to, streamIds, pestTypes, bucket,
+                    AnalyticsQuery.GroupBy.parse(groupBy));
+            return ResponseEntity.ok(analyticsService.query(query));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
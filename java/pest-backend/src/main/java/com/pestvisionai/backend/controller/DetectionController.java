@@ -1,56 +1,166 @@
 package com.pestvisionai.backend.controller;
 
+import com.pestvisionai.backend.config.PestVisionProperties;
+import com.pestvisionai.backend.config.RequestArrivalFilter;
 import com.pestvisionai.backend.dto.DetectionEnvelopeDto;
 import com.pestvisionai.backend.dto.DetectionView;
 import com.pestvisionai.backend.dto.LiveEventDto;
 import com.pestvisionai.backend.dto.SprayEventView;
 import com.pestvisionai.backend.service.DetectionEventPublisher;
+import com.pestvisionai.backend.service.DetectionIngestService;
 import com.pestvisionai.backend.service.DetectionProcessingResult;
-import com.pestvisionai.backend.service.DetectionService;
+import com.pestvisionai.backend.service.IngestOverloadedException;
+import com.pestvisionai.backend.service.LiveEventFilter;
+import com.pestvisionai.backend.service.RecentFeedService;
+import com.pestvisionai.backend.service.RecentFeedService.RecentFeed;
 import jakarta.validation.Valid;
 import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/detections")
 public class DetectionController {
 
-    private final DetectionService detectionService;
+    private final DetectionIngestService ingestService;
     private final DetectionEventPublisher eventPublisher;
+    private final RecentFeedService recentFeedService;
+    private final int longPollMaxSeconds;
 
-    public DetectionController(DetectionService detectionService, DetectionEventPublisher eventPublisher) {
-        this.detectionService = detectionService;
+    public DetectionController(DetectionIngestService ingestService, DetectionEventPublisher eventPublisher,
+            RecentFeedService recentFeedService, PestVisionProperties properties) {
+        this.ingestService = ingestService;
         this.eventPublisher = eventPublisher;
+        this.recentFeedService = recentFeedService;
+        this.longPollMaxSeconds = properties.getWeb().getLongPollMaxSeconds();
     }
 
+    /**
+     * Records one detection and answers 201 with its location. A frame that was already recorded (same
+     * {@code serviceName}, {@code streamId} and {@code frameId}) is answered 200 with the original's location. Answers
+     * 429 with {@code Retry-After} when admission control sheds it and 503 when the ingest queue is full.
+     */
     @PostMapping
-    public ResponseEntity<Void> ingestDetection(@Valid @RequestBody DetectionEnvelopeDto envelope) {
-        DetectionProcessingResult result = detectionService.recordDetection(envelope);
-        return ResponseEntity.created(URI.create("/api/detections/" + result.detection().getId())).build();
+    public ResponseEntity<Void> ingestDetection(@Valid @RequestBody DetectionEnvelopeDto envelope,
+            ServerWebExchange exchange) {
+        DetectionProcessingResult result;
+        try {
+            result = ingestService.submit(envelope, RequestArrivalFilter.waitedNanos(exchange)).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof IngestOverloadedException overloaded) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, Long.toString(overloaded.retryAfterSeconds()))
+                        .build();
+            }
+            if (ex.getCause() instanceof RejectedExecutionException) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+        URI location = URI.create("/api/detections/" + result.detection().getId());
+        if (result.duplicate()) {
+            return ResponseEntity.ok().location(location).build();
+        }
+        return ResponseEntity.created(location).build();
     }
 
+    /**
+     * The 20 most recent detections. Honours {@code If-None-Match}; with {@code waitFor=<etag>} the request is held
+     * (without a thread) until the list changes or {@code timeout} seconds pass, then answered 200 or 304.
+     */
     @GetMapping("/recent")
-    public ResponseEntity<List<DetectionView>> recentDetections() {
-        List<DetectionView> detections = detectionService.fetchRecentViews(20);
-        return ResponseEntity.ok(detections);
+    public Mono<ResponseEntity<List<DetectionView>>> recentDetections(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(required = false) String waitFor,
+            @RequestParam(defaultValue = "30") int timeout) {
+        return conditional(recentFeedService.detections(), ifNoneMatch, waitFor, timeout);
     }
 
+    /**
+     * The 20 most recent spray events, with the same conditional and long-poll behaviour as {@code /recent}.
+     */
     @GetMapping("/sprays/recent")
-    public ResponseEntity<List<SprayEventView>> recentSprays() {
-        List<SprayEventView> sprays = detectionService.fetchRecentSprays(20);
-        return ResponseEntity.ok(sprays);
+    public Mono<ResponseEntity<List<SprayEventView>>> recentSprays(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(required = false) String waitFor,
+            @RequestParam(defaultValue = "30") int timeout) {
+        return conditional(recentFeedService.sprays(), ifNoneMatch, waitFor, timeout);
     }
 
+    /**
+     * Live events, optionally filtered on the server. {@code streamId} and {@code pestType} accept several values
+     * (repeated or comma separated); {@code surgeOnly=true} keeps only detections that raised a surge alert and
+     * {@code includeBoxes=false} drops the bounding boxes from every event.
+     */
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<LiveEventDto> liveStream() {
-        return eventPublisher.stream();
+    public Flux<LiveEventDto> liveStream(
+            @RequestParam(name = "streamId", required = false) Set<String> streamIds,
+            @RequestParam(name = "pestType", required = false) Set<String> pestTypes,
+            @RequestParam(defaultValue = "0") double minConfidence,
+            @RequestParam(defaultValue = "false") boolean sprayOnly,
+            @RequestParam(defaultValue = "false") boolean surgeOnly,
+            @RequestParam(defaultValue = "true") boolean includeBoxes) {
+        return eventPublisher.stream(
+                new LiveEventFilter(streamIds, pestTypes, minConfidence, sprayOnly, surgeOnly, includeBoxes));
+    }
+
+    private <T> Mono<ResponseEntity<List<T>>> conditional(RecentFeed<T> feed, String ifNoneMatch, String waitFor,
+            int timeoutSeconds) {
+        String known = ifNoneMatch;
+        Mono<Void> ready = Mono.empty();
+        if (waitFor != null && !waitFor.isBlank()) {
+            known = waitFor;
+            Duration timeout = Duration.ofSeconds(Math.max(0, Math.min(timeoutSeconds, longPollMaxSeconds)));
+            ready = feed.awaitChange(unquote(waitFor.trim()), timeout);
+        }
+        String expected = known;
+        return ready.then(Mono.defer(feed::snapshot)).map(snapshot -> matches(expected, snapshot.etag())
+                ? ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(snapshot.etag())
+                        .cacheControl(CacheControl.noCache())
+                        .<List<T>>build()
+                : ResponseEntity.ok()
+                        .eTag(snapshot.etag())
+                        .cacheControl(CacheControl.noCache())
+                        .body(snapshot.items()));
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || unquote(value).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String unquote(String value) {
+        String tag = value.startsWith("W/") ? value.substring(2) : value;
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            return tag.substring(1, tag.length() - 1);
+        }
+        return tag;
     }
 }
@@ -0,0 +1,196 @@
+package com.pestvisionai.backend.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pestvisionai.backend.config.PestVisionProperties;
+import com.pestvisionai.backend.dto.DetectionEnvelopeDto;
+import com.pestvisionai.backend.dto.IngestStreamReply;
+import com.pestvisionai.backend.dto.IngestStreamRequest;
+import com.pestvisionai.backend.model.SprayEvent;
+import com.pestvisionai.backend.service.DetectionIngestService;
+import com.pestvisionai.backend.service.DetectionProcessingResult;
+import com.pestvisionai.backend.service.IngestOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Long-lived ingest channel at {@code /ws/detections}.
+ *
+ * <p>Producers send one {@link IngestStreamRequest} per text frame and may only send as many as the backend has
+ * granted through {@code demand} replies. The first grant is {@code pestvision.ingest.stream-window}; credits come
+ * back as detections are committed, and are held back while the partitioned ingest queues are short of room. Every
+ * request gets an asynchronous {@code ack} (detection id, spray decision) or {@code nack}, in completion order.
+ */
+@Component
+public class DetectionStreamHandler implements WebSocketHandler, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(DetectionStreamHandler.class);
+
+    private final DetectionIngestService ingestService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int window;
+    private final Scheduler ingestScheduler;
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final Counter acked;
+    private final Counter nacked;
+
+    public DetectionStreamHandler(
+            DetectionIngestService ingestService,
+            ObjectMapper objectMapper,
+            Validator validator,
+            MeterRegistry meterRegistry,
+            PestVisionProperties properties) {
+        this.ingestService = ingestService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.window = Math.max(1, properties.getIngest().getStreamWindow());
+        int threads = Math.max(1, properties.getWeb().getBlockingThreads());
+        // Enrichment and the direct-mode commit block, so they run off the event loop like blocking controllers do.
+        this.ingestScheduler = Schedulers.newBoundedElastic(threads, Integer.MAX_VALUE, "ws-ingest");
+        this.acked = Counter.builder("pestvision.ingest.stream.items")
+                .tag("outcome", "ack")
+                .register(meterRegistry);
+        this.nacked = Counter.builder("pestvision.ingest.stream.items")
+                .tag("outcome", "nack")
+                .register(meterRegistry);
+        meterRegistry.gauge("pestvision.ingest.stream.sessions", sessions);
+    }
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        Credits credits = new Credits(window);
+        Flux<IngestStreamReply> replies = session.receive()
+                .map(WebSocketMessage::getPayloadAsText)
+                // Twice the window so frames sent without credit are nacked rather than queued behind real work.
+                .flatMap(text -> process(credits, text), window * 2);
+        Flux<WebSocketMessage> outbound = Flux.concat(Mono.just(IngestStreamReply.demand(window)), replies)
+                .map(reply -> session.textMessage(encode(reply)));
+        return session.send(outbound)
+                .doOnSubscribe(ignored -> sessions.incrementAndGet())
+                .doFinally(ignored -> sessions.decrementAndGet());
+    }
+
+    private Flux<IngestStreamReply> process(Credits credits, String text) {
+        IngestStreamRequest request;
+        try {
+            request = objectMapper.readValue(text, IngestStreamRequest.class);
+        } catch (JsonProcessingException ex) {
+            nacked.increment();
+            return Flux.just(IngestStreamReply.nack(null, "Malformed request: " + ex.getOriginalMessage()));
+        }
+        long seq = request.seq();
+        if (request.envelope() == null) {
+            nacked.increment();
+            return Flux.just(IngestStreamReply.nack(seq, "Missing envelope"));
+        }
+        Set<ConstraintViolation<DetectionEnvelopeDto>> violations = validator.validate(request.envelope());
+        if (!violations.isEmpty()) {
+            ConstraintViolation<DetectionEnvelopeDto> first = violations.iterator().next();
+            nacked.increment();
+            return Flux.just(IngestStreamReply.nack(seq, first.getPropertyPath() + " " + first.getMessage()));
+        }
+        if (!credits.tryConsume()) {
+            nacked.increment();
+            return Flux.just(IngestStreamReply.nack(seq, "No demand granted"));
+        }
+        return Mono.fromCallable(() -> ingestService.submit(request.envelope()))
+                .subscribeOn(ingestScheduler)
+                .flatMap(future -> Mono.fromFuture(future))
+                .map(result -> ack(seq, result))
+                .onErrorResume(ex -> Mono.just(nack(seq, ex)))
+                .flatMapMany(reply -> {
+                    int grant = credits.release(ingestService.availableCapacity());
+                    return grant > 0 ? Flux.just(reply, IngestStreamReply.demand(grant)) : Flux.just(reply);
+                });
+    }
+
+    private IngestStreamReply ack(long seq, DetectionProcessingResult result) {
+        acked.increment();
+        Long sprayEventId = result.sprayEventOptional().map(SprayEvent::getId).orElse(null);
+        return IngestStreamReply.ack(seq, result.detection().getId(), sprayEventId, result.duplicate());
+    }
+
+    private IngestStreamReply nack(long seq, Throwable ex) {
+        nacked.increment();
+        Throwable cause = Exceptions.unwrap(ex);
+        if (cause instanceof IngestOverloadedException overloaded) {
+            return IngestStreamReply.nack(seq, "Overloaded, retry after " + overloaded.retryAfterSeconds() + "s");
+        }
+        if (cause instanceof RejectedExecutionException) {
+            return IngestStreamReply.nack(seq, "Ingest queue full");
+        }
+        log.warn("Streamed detection {} failed: {}", seq, cause.getMessage());
+        return IngestStreamReply.nack(seq, "Ingest failed");
+    }
+
+    private String encode(IngestStreamReply reply) {
+        try {
+            return objectMapper.writeValueAsString(reply);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to encode ingest reply", ex);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        ingestScheduler.dispose();
+    }
+
+    /**
+     * Demand bookkeeping for one connection. Returned credits are handed back in groups of a quarter window to keep
+     * the number of {@code demand} frames low, and only while the ingest queues have room for them.
+     */
+    private static final class Credits {
+
+        private final int regrantThreshold;
+        private int granted;
+        private int outstanding;
+        private int returned;
+
+        private Credits(int window) {
+            this.granted = window;
+            this.regrantThreshold = Math.max(1, window / 4);
+        }
+
+        synchronized boolean tryConsume() {
+            if (granted == 0) {
+                return false;
+            }
+            granted--;
+            outstanding++;
+            return true;
+        }
+
+        synchronized int release(int availableCapacity) {
+            outstanding--;
+            returned++;
+            // With nothing in flight no later ack would re-evaluate, so the credits must go out now.
+            boolean idle = outstanding == 0;
+            if (!idle && (returned < regrantThreshold || availableCapacity < returned)) {
+                return 0;
+            }
+            int grant = returned;
+            returned = 0;
+            granted += grant;
+            return grant;
+        }
+    }
+}
@@ -1,30 +1,116 @@
 package com.pestvisionai.backend.controller;
 
+import com.pestvisionai.backend.dto.ReportJobRequest;
+import com.pestvisionai.backend.dto.ReportJobView;
 import com.pestvisionai.backend.service.ReportExportService;
+import com.pestvisionai.backend.service.ReportJobService;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 
 @RestController
 @RequestMapping("/api/reports")
 public class ReportController {
 
+    private static final String XLSX_MEDIA_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
     private final ReportExportService reportExportService;
+    private final ReportJobService reportJobService;
 
-    public ReportController(ReportExportService reportExportService) {
+    public ReportController(ReportExportService reportExportService, ReportJobService reportJobService) {
         this.reportExportService = reportExportService;
+        this.reportJobService = reportJobService;
     }
 
-    @GetMapping(value = "/detections.xlsx", produces = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+    @GetMapping(value = "/detections.xlsx", produces = XLSX_MEDIA_TYPE)
     public ResponseEntity<byte[]> downloadDetectionsReport() {
         byte[] payload = reportExportService.exportRecentDetections(100);
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"detections.xlsx\"")
                 .contentLength(payload.length)
-                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .contentType(MediaType.parseMediaType(XLSX_MEDIA_TYPE))
                 .body(payload);
     }
+
+    /**
+     * Queues a report, or joins an identical one that is queued, running or already cached. Answers 200 when the
+     * report can be downloaded right away and 202 otherwise; poll the {@code Location} until {@code status} is
+     * {@code DONE}.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<ReportJobView> submitReport(@RequestBody ReportJobRequest request) {
+        ReportJobView job;
+        try {
+            job = reportJobService.submit(request);
+        } catch (RejectedExecutionException ex) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        HttpStatus status = "DONE".equals(job.status()) ? HttpStatus.OK : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status)
+                .location(URI.create("/api/reports/jobs/" + job.id()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ReportJobView> reportStatus(@PathVariable String id) {
+        return ResponseEntity.of(reportJobService.status(id));
+    }
+
+    /**
+     * The finished report. {@code If-None-Match} is evaluated by {@link ServerWebExchange#checkNotModified(String)},
+     * which also answers HEAD. The file is read only once the body is written, and stays pinned in the report cache
+     * until the download ends.
+     */
+    @GetMapping("/jobs/{id}/download")
+    public ResponseEntity<Flux<DataBuffer>> downloadReport(@PathVariable String id, ServerWebExchange exchange) {
+        Optional<Path> artifact = reportJobService.artifact(id);
+        long size = artifact.map(ReportController::sizeOf).orElse(-1L);
+        if (size < 0) {
+            return reportJobService.status(id).isPresent()
+                    ? ResponseEntity.status(HttpStatus.CONFLICT).build()
+                    : ResponseEntity.notFound().build();
+        }
+        // The job id covers the parameters and the data watermark, so it is a strong validator for the file.
+        String etag = "\"" + id + "\"";
+        if (exchange.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"detections-" + id + ".xlsx\"")
+                .contentType(MediaType.parseMediaType(XLSX_MEDIA_TYPE))
+                .contentLength(size);
+        if (HttpMethod.HEAD.equals(exchange.getRequest().getMethod())) {
+            return response.build();
+        }
+        return response.body(reportJobService.read(id, exchange.getResponse().bufferFactory()));
+    }
+
+    /**
+     * Size of a cached report, or -1 if it was evicted since it was looked up.
+     */
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException ex) {
+            return -1;
+        }
+    }
 }
@@ -0,0 +1,28 @@
+package com.pestvisionai.backend.controller;
+
+import com.pestvisionai.backend.dto.SurgeAlertView;
+import com.pestvisionai.backend.service.SurgeMonitor;
+import java.util.List;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/surges")
+public class SurgeController {
+
+    private final SurgeMonitor surgeMonitor;
+
+    public SurgeController(SurgeMonitor surgeMonitor) {
+        this.surgeMonitor = surgeMonitor;
+    }
+
+    /**
+     * The most recent surge alerts, newest first (at most 50).
+     */
+    @GetMapping("/recent")
+    public List<SurgeAlertView> recentSurges(@RequestParam(defaultValue = "20") int limit) {
+        return surgeMonitor.recent(limit);
+    }
+}
@@ -0,0 +1,44 @@
+package com.pestvisionai.backend.controller;
+
+import com.pestvisionai.backend.video.VideoRelayService;
+import java.util.Optional;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/video")
+public class VideoController {
+
+    private final VideoRelayService relayService;
+
+    public VideoController(VideoRelayService relayService) {
+        this.relayService = relayService;
+    }
+
+    /**
+     * The camera's MJPEG feed, relayed from one shared upstream connection. A client that cannot keep up skips to the
+     * newest frame; {@code fps} caps its frame rate further.
+     */
+    @GetMapping("/{cameraId}")
+    public Mono<Void> stream(@PathVariable String cameraId, @RequestParam(defaultValue = "0") double fps,
+            ServerHttpResponse response) {
+        Optional<Flux<DataBuffer>> frames = relayService.frames(cameraId, fps);
+        if (frames.isEmpty()) {
+            response.setStatusCode(HttpStatus.NOT_FOUND);
+            return response.setComplete();
+        }
+        response.getHeaders().setContentType(VideoRelayService.CONTENT_TYPE);
+        response.getHeaders().setCacheControl(CacheControl.noStore());
+        // One flush per frame, so a frame never waits in the response for the next one.
+        return response.writeAndFlushWith(frames.get().map(Flux::just));
+    }
+}
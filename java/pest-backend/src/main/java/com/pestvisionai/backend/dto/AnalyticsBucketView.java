@@ -0,0 +1,13 @@
+package com.pestvisionai.backend.dto;
+
+import java.time.Instant;
+
+public record AnalyticsBucketView(
+        Instant bucketStart,
+        String group,
+        long detections,
+        long pests,
+        double avgConfidence,
+        double maxConfidence
+) {
+}
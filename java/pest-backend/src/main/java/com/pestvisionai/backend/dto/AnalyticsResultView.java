@@ -0,0 +1,14 @@
+package com.pestvisionai.backend.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record AnalyticsResultView(
+        Instant from,
+        Instant to,
+        long rowsScanned,
+        double scanMillis,
+        boolean complete,
+        List<AnalyticsBucketView> buckets
+) {
+}
@@ -10,7 +10,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 public record DetectionEventDto(
-        @Min(0) long frameId,
+        @Min(0) Long frameId,
         @NotBlank String streamId,
         @NotNull Instant detectedAt,
         @NotBlank String pestType,
@@ -0,0 +1,40 @@
+package com.pestvisionai.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Message sent by the backend on the {@code /ws/detections} ingest stream.
+ *
+ * <ul>
+ *     <li>{@code demand}: the producer may send {@code n} more detections;</li>
+ *     <li>{@code ack}: detection {@code seq} was committed as {@code detectionId}; {@code sprayed} tells whether it
+ *     triggered spray event {@code sprayEventId}. {@code duplicate} is set when the frame had already been stored and
+ *     the ids are the original's;</li>
+ *     <li>{@code nack}: detection {@code seq} was not stored, see {@code error}.</li>
+ * </ul>
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record IngestStreamReply(
+        String type,
+        Long seq,
+        Integer n,
+        Long detectionId,
+        Boolean sprayed,
+        Long sprayEventId,
+        Boolean duplicate,
+        String error
+) {
+
+    public static IngestStreamReply demand(int n) {
+        return new IngestStreamReply("demand", null, n, null, null, null, null, null);
+    }
+
+    public static IngestStreamReply ack(long seq, long detectionId, Long sprayEventId, boolean duplicate) {
+        return new IngestStreamReply("ack", seq, null, detectionId, sprayEventId != null, sprayEventId,
+                duplicate ? Boolean.TRUE : null, null);
+    }
+
+    public static IngestStreamReply nack(Long seq, String error) {
+        return new IngestStreamReply("nack", seq, null, null, null, null, null, error);
+    }
+}
@@ -0,0 +1,11 @@
+package com.pestvisionai.backend.dto;
+
+/**
+ * One detection sent over the {@code /ws/detections} ingest stream. {@code seq} is chosen by the producer and echoed
+ * in the matching {@link IngestStreamReply}.
+ */
+public record IngestStreamRequest(
+        long seq,
+        DetectionEnvelopeDto envelope
+) {
+}
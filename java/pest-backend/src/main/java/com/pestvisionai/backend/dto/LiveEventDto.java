@@ -2,6 +2,7 @@ package com.pestvisionai.backend.dto;
 
 public record LiveEventDto(
         DetectionView detection,
-        SprayEventView sprayEvent
+        SprayEventView sprayEvent,
+        SurgeAlertView surge
 ) {
 }
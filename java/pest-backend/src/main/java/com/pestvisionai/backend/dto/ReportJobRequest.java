@@ -0,0 +1,15 @@
+package com.pestvisionai.backend.dto;
+
+import java.time.Instant;
+
+/**
+ * Parameters of a background report. {@code from}/{@code to} bound {@code detectedAt} (inclusive/exclusive) and may
+ * be omitted for an open range; {@code streamId} restricts the report to one camera; {@code limit} caps the rows.
+ */
+public record ReportJobRequest(
+        Instant from,
+        Instant to,
+        String streamId,
+        Integer limit
+) {
+}
@@ -0,0 +1,15 @@
+package com.pestvisionai.backend.dto;
+
+import java.time.Instant;
+
+public record ReportJobView(
+        String id,
+        String status,
+        Instant submittedAt,
+        Instant finishedAt,
+        Integer rows,
+        Long sizeBytes,
+        String error,
+        String downloadUrl
+) {
+}
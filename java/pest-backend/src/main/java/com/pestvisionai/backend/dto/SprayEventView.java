@@ -7,6 +7,11 @@ public record SprayEventView(
         Instant triggeredAt,
         String reason,
         double confidence,
-        Long detectionId
+        Long detectionId,
+        String deviceId,
+        String commandStatus,
+        int commandAttempts,
+        Instant acknowledgedAt,
+        Long actuationLatencyMillis
 ) {
 }
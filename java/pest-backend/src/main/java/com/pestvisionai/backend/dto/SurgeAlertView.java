@@ -0,0 +1,17 @@
+package com.pestvisionai.backend.dto;
+
+import java.time.Instant;
+
+public record SurgeAlertView(
+        Long id,
+        Instant raisedAt,
+        Long detectionId,
+        String streamId,
+        String pestType,
+        String metric,
+        double observed,
+        double baselineMean,
+        double baselineDeviation,
+        double score
+) {
+}
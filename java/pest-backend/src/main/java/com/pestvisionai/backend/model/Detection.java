@@ -13,9 +13,11 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
-@Table(name = "detections")
+@Table(name = "detections", uniqueConstraints = @UniqueConstraint(
+        name = "uk_detections_frame", columnNames = {"service_name", "stream_id", "frame_id"}))
 public class Detection {
 
     @Id
@@ -25,6 +27,7 @@ public class Detection {
     private Instant detectedAt;
     private String streamId;
     private String serviceName;
+    private Long frameId;
     private String pestType;
     private int pestCount;
     private double maxConfidence;
@@ -40,6 +43,10 @@ public class Detection {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public Instant getDetectedAt() {
         return detectedAt;
     }
@@ -64,6 +71,14 @@ public class Detection {
         this.serviceName = serviceName;
     }
 
+    public Long getFrameId() {
+        return frameId;
+    }
+
+    public void setFrameId(Long frameId) {
+        this.frameId = frameId;
+    }
+
     public String getPestType() {
         return pestType;
     }
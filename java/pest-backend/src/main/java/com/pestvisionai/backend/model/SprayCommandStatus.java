@@ -0,0 +1,17 @@
+package com.pestvisionai.backend.model;
+
+/**
+ * Lifecycle of the actuator command issued for a {@link SprayEvent}.
+ */
+public enum SprayCommandStatus {
+    /** Persisted with the spray event, waiting for the transaction to commit and the device queue to pick it up. */
+    QUEUED,
+    /** Written to the device transport, acknowledgement pending. */
+    SENT,
+    /** The device confirmed the command. */
+    ACKNOWLEDGED,
+    /** Every attempt timed out or was rejected by the device. */
+    FAILED,
+    /** The device queue was full; the command was never sent. */
+    DROPPED
+}
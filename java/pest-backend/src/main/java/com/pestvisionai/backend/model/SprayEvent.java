@@ -2,7 +2,10 @@ package com.pestvisionai.backend.model;
 
 import java.time.Instant;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -20,11 +23,25 @@ public class SprayEvent {
     private String reason;
     private double confidence;
     private Long detectionId;
+    private String deviceId;
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private SprayCommandStatus commandStatus;
+    private int commandAttempts;
+    private Instant commandSentAt;
+    private Instant acknowledgedAt;
+    private Long actuationLatencyMillis;
+    @Column(length = 512)
+    private String commandError;
 
     public Long getId() {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public Instant getTriggeredAt() {
         return triggeredAt;
     }
@@ -56,4 +73,60 @@ public class SprayEvent {
     public void setDetectionId(Long detectionId) {
         this.detectionId = detectionId;
     }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public SprayCommandStatus getCommandStatus() {
+        return commandStatus;
+    }
+
+    public void setCommandStatus(SprayCommandStatus commandStatus) {
+        this.commandStatus = commandStatus;
+    }
+
+    public int getCommandAttempts() {
+        return commandAttempts;
+    }
+
+    public void setCommandAttempts(int commandAttempts) {
+        this.commandAttempts = commandAttempts;
+    }
+
+    public Instant getCommandSentAt() {
+        return commandSentAt;
+    }
+
+    public void setCommandSentAt(Instant commandSentAt) {
+        this.commandSentAt = commandSentAt;
+    }
+
+    public Instant getAcknowledgedAt() {
+        return acknowledgedAt;
+    }
+
+    public void setAcknowledgedAt(Instant acknowledgedAt) {
+        this.acknowledgedAt = acknowledgedAt;
+    }
+
+    public Long getActuationLatencyMillis() {
+        return actuationLatencyMillis;
+    }
+
+    public void setActuationLatencyMillis(Long actuationLatencyMillis) {
+        this.actuationLatencyMillis = actuationLatencyMillis;
+    }
+
+    public String getCommandError() {
+        return commandError;
+    }
+
+    public void setCommandError(String commandError) {
+        this.commandError = commandError;
+    }
 }
@@ -0,0 +1,48 @@
+package com.pestvisionai.backend.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Cooldown lease shared by all backend replicas. A replica may trigger a spray for {@code streamKey} only after it
+ * moved {@code leaseUntil} forward with a conditional update, so at most one replica wins each cooldown window.
+ */
+@Entity
+@Table(name = "spray_leases")
+public class SprayLease {
+
+    @Id
+    @Column(length = 128)
+    private String streamKey;
+
+    private String holder;
+    private Instant leaseUntil;
+
+    public String getStreamKey() {
+        return streamKey;
+    }
+
+    public void setStreamKey(String streamKey) {
+        this.streamKey = streamKey;
+    }
+
+    public String getHolder() {
+        return holder;
+    }
+
+    public void setHolder(String holder) {
+        this.holder = holder;
+    }
+
+    public Instant getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public void setLeaseUntil(Instant leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+}
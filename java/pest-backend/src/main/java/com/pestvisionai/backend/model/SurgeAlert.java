@@ -0,0 +1,106 @@
+package com.pestvisionai.backend.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "surge_alerts")
+public class SurgeAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Instant raisedAt;
+    private Long detectionId;
+    private String streamId;
+    private String pestType;
+    @Column(length = 16)
+    private String metric;
+    private double observed;
+    private double baselineMean;
+    private double baselineDeviation;
+    private double score;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Instant getRaisedAt() {
+        return raisedAt;
+    }
+
+    public void setRaisedAt(Instant raisedAt) {
+        this.raisedAt = raisedAt;
+    }
+
+    public Long getDetectionId() {
+        return detectionId;
+    }
+
+    public void setDetectionId(Long detectionId) {
+        this.detectionId = detectionId;
+    }
+
+    public String getStreamId() {
+        return streamId;
+    }
+
+    public void setStreamId(String streamId) {
+        this.streamId = streamId;
+    }
+
+    public String getPestType() {
+        return pestType;
+    }
+
+    public void setPestType(String pestType) {
+        this.pestType = pestType;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+
+    public double getObserved() {
+        return observed;
+    }
+
+    public void setObserved(double observed) {
+        this.observed = observed;
+    }
+
+    public double getBaselineMean() {
+        return baselineMean;
+    }
+
+    public void setBaselineMean(double baselineMean) {
+        this.baselineMean = baselineMean;
+    }
+
+    public double getBaselineDeviation() {
+        return baselineDeviation;
+    }
+
+    public void setBaselineDeviation(double baselineDeviation) {
+        this.baselineDeviation = baselineDeviation;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
@@ -0,0 +1,16 @@
+package com.pestvisionai.backend.repository;
+
+import java.time.Instant;
+
+/**
+ * The scalar columns of a detection, without its boxes or text, for bulk loads that must not materialize entities.
+ */
+public record DetectionFacts(
+        long id,
+        Instant detectedAt,
+        String streamId,
+        String pestType,
+        int pestCount,
+        double maxConfidence
+) {
+}
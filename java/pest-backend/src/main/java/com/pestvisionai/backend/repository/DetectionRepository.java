@@ -1,12 +1,78 @@
 package com.pestvisionai.backend.repository;
 
 import com.pestvisionai.backend.model.Detection;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface DetectionRepository extends JpaRepository<Detection, Long> {
 
 	List<Detection> findTop50ByOrderByDetectedAtDesc();
+
+	@Query("""
+			select d.id from Detection d
+			where d.serviceName = :serviceName and d.streamId = :streamId and d.frameId = :frameId""")
+	Optional<Long> findIdByFrame(
+			@Param("serviceName") String serviceName,
+			@Param("streamId") String streamId,
+			@Param("frameId") long frameId);
+
+	@Query("""
+			select new com.pestvisionai.backend.repository.FrameStamp(
+			    d.id, d.serviceName, d.streamId, d.frameId, d.detectedAt)
+			from Detection d
+			where d.id < :beforeId and d.frameId is not null and d.serviceName is not null and d.streamId is not null
+			order by d.id desc""")
+	List<FrameStamp> findFramesBefore(@Param("beforeId") long beforeId, Pageable page);
+
+	@Query("""
+			select max(d.detectedAt) from Detection d
+			where d.id < :beforeId and d.frameId is not null""")
+	Instant findLatestFrameCaptureBefore(@Param("beforeId") long beforeId);
+
+	@Query("select coalesce(max(d.id), 0) from Detection d")
+	long findMaxId();
+
+	@Query("""
+			select d.id from Detection d
+			where d.detectedAt >= :from and d.detectedAt < :to
+			and (:streamId is null or d.streamId = :streamId)
+			order by d.detectedAt, d.id""")
+	List<Long> findReportIds(
+			@Param("from") Instant from,
+			@Param("to") Instant to,
+			@Param("streamId") String streamId,
+			Pageable page);
+
+	@Query("select d from Detection d left join fetch d.boxes where d.id in :ids")
+	List<Detection> findWithBoxesByIdIn(@Param("ids") Collection<Long> ids);
+
+	@Query("""
+			select new com.pestvisionai.backend.repository.ReportWatermark(coalesce(max(d.id), 0), count(d))
+			from Detection d
+			where d.detectedAt >= :from and d.detectedAt < :to
+			and (:streamId is null or d.streamId = :streamId)""")
+	ReportWatermark reportWatermark(
+			@Param("from") Instant from,
+			@Param("to") Instant to,
+			@Param("streamId") String streamId);
+
+	@Query("""
+			select new com.pestvisionai.backend.repository.DetectionFacts(
+			    d.id, d.detectedAt, d.streamId, d.pestType, d.pestCount, d.maxConfidence)
+			from Detection d
+			where d.id > :afterId and d.id <= :throughId and d.detectedAt >= :from
+			order by d.id""")
+	List<DetectionFacts> findFacts(
+			@Param("afterId") long afterId,
+			@Param("throughId") long throughId,
+			@Param("from") Instant from,
+			Pageable page);
 }
@@ -0,0 +1,15 @@
+package com.pestvisionai.backend.repository;
+
+import java.time.Instant;
+
+/**
+ * The frame key of a stored detection and when the frame was captured, for seeding the ingest deduplicator.
+ */
+public record FrameStamp(
+        long id,
+        String serviceName,
+        String streamId,
+        long frameId,
+        Instant detectedAt
+) {
+}
@@ -0,0 +1,11 @@
+package com.pestvisionai.backend.repository;
+
+/**
+ * Highest detection id and row count in a report's range. New or deleted detections change it, so it identifies a
+ * version of the report's data.
+ */
+public record ReportWatermark(
+        long maxId,
+        long count
+) {
+}
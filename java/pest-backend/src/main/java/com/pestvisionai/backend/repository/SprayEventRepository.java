@@ -1,12 +1,41 @@
 package com.pestvisionai.backend.repository;
 
+import com.pestvisionai.backend.model.SprayCommandStatus;
 import com.pestvisionai.backend.model.SprayEvent;
+import java.time.Instant;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface SprayEventRepository extends JpaRepository<SprayEvent, Long> {
 
 	List<SprayEvent> findTop50ByOrderByTriggeredAtDesc();
+
+	@Query("select min(s.id) from SprayEvent s where s.detectionId = :detectionId")
+	Long findFirstIdByDetectionId(@Param("detectionId") Long detectionId);
+
+	@Transactional
+	@Modifying
+	@Query("""
+			update SprayEvent s
+			set s.commandStatus = :status,
+			    s.commandAttempts = :attempts,
+			    s.commandSentAt = coalesce(:sentAt, s.commandSentAt),
+			    s.acknowledgedAt = :acknowledgedAt,
+			    s.actuationLatencyMillis = coalesce(:actuationLatencyMillis, s.actuationLatencyMillis),
+			    s.commandError = :error
+			where s.id = :id""")
+	int updateCommandState(
+			@Param("id") Long id,
+			@Param("status") SprayCommandStatus status,
+			@Param("attempts") int attempts,
+			@Param("sentAt") Instant sentAt,
+			@Param("acknowledgedAt") Instant acknowledgedAt,
+			@Param("actuationLatencyMillis") Long actuationLatencyMillis,
+			@Param("error") String error);
 }
@@ -0,0 +1,34 @@
+package com.pestvisionai.backend.repository;
+
+import com.pestvisionai.backend.model.SprayLease;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SprayLeaseRepository extends JpaRepository<SprayLease, String> {
+
+	@Modifying
+	@Query("""
+			update SprayLease l
+			set l.holder = :holder, l.leaseUntil = :until
+			where l.streamKey = :streamKey and l.leaseUntil <= :now""")
+	int claimExpired(
+			@Param("streamKey") String streamKey,
+			@Param("holder") String holder,
+			@Param("now") Instant now,
+			@Param("until") Instant until);
+
+	@Modifying
+	@Query(value = """
+			insert into spray_leases (stream_key, holder, lease_until) values (:streamKey, :holder, :until)
+			on conflict do nothing""",
+			nativeQuery = true)
+	int insertLease(
+			@Param("streamKey") String streamKey,
+			@Param("holder") String holder,
+			@Param("until") Instant until);
+}
@@ -0,0 +1,12 @@
+package com.pestvisionai.backend.repository;
+
+import com.pestvisionai.backend.model.SurgeAlert;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SurgeAlertRepository extends JpaRepository<SurgeAlert, Long> {
+
+	List<SurgeAlert> findTop50ByOrderByRaisedAtDesc();
+}
@@ -0,0 +1,78 @@
+package com.pestvisionai.backend.service;
+
+/**
+ * Concurrency limit that follows latency, in the style of a gradient limiter.
+ *
+ * <p>Two latency averages are kept: a short one that tracks current conditions and a long one that approximates the
+ * latency of an unloaded system. While the short average stays within {@code TOLERANCE} of the long one the limit
+ * grows by about its square root per adjustment; once queueing pushes latency up, the ratio drops below one and the
+ * limit shrinks proportionally. Samples taken while less than half the limit is in use say nothing about capacity
+ * and are ignored for adjustment. Rejections further down the pipeline (a full ingest partition) cut the limit
+ * multiplicatively.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double LONG_WINDOW = 600;
+    private static final double SMOOTHING = 0.2;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    private double shortNanos;
+    private double longNanos;
+    private volatile int current;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = clamp(initialLimit);
+        this.current = (int) limit;
+    }
+
+    int current() {
+        return current;
+    }
+
+    /**
+     * Average latency under current conditions, in nanoseconds; zero before the first sample.
+     */
+    synchronized double recentLatencyNanos() {
+        return shortNanos;
+    }
+
+    synchronized void onSample(long latencyNanos, int inFlight) {
+        if (longNanos == 0) {
+            shortNanos = latencyNanos;
+            longNanos = latencyNanos;
+            return;
+        }
+        shortNanos += (latencyNanos - shortNanos) * SHORT_WEIGHT;
+        longNanos += (latencyNanos - longNanos) / LONG_WINDOW;
+        if (longNanos > 2 * shortNanos) {
+            // Load went away: let the baseline catch up quickly instead of over hundreds of samples.
+            longNanos *= 0.95;
+        }
+        if (inFlight < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longNanos / shortNanos));
+        double target = limit * gradient + Math.sqrt(limit);
+        update(limit * (1 - SMOOTHING) + target * SMOOTHING);
+    }
+
+    synchronized void onDrop() {
+        update(limit * DROP_BACKOFF);
+    }
+
+    private void update(double next) {
+        limit = clamp(next);
+        current = (int) limit;
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
@@ -0,0 +1,87 @@
+package com.pestvisionai.backend.service;
+
+/**
+ * Minimal consecutive-failure circuit breaker.
+ *
+ * <p>Closed: calls pass and failures are counted; {@code failureThreshold} consecutive failures open the breaker.
+ * Open: calls are rejected until {@code openNanos} have passed, then a single probe is let through (half-open).
+ * The probe's outcome either closes the breaker again or re-opens it for another full interval.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(int failureThreshold, long openNanos) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openNanos;
+    }
+
+    /**
+     * Returns {@code true} when a call may proceed. Every permitted call must be followed by exactly one of
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #release()}.
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            case HALF_OPEN:
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Records a failed call and returns {@code true} if this failure opened the breaker.
+     */
+    public synchronized boolean onFailure() {
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            boolean opened = state != State.OPEN;
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            consecutiveFailures = 0;
+            return opened;
+        }
+        return false;
+    }
+
+    /**
+     * Gives back a permit without recording an outcome, e.g. when the call was never attempted.
+     */
+    public synchronized void release() {
+        probeInFlight = false;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+}
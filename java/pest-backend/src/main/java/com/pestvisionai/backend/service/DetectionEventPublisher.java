@@ -1,26 +1,79 @@
 package com.pestvisionai.backend.service;
 
+import com.pestvisionai.backend.cluster.ClusterEnvelope;
+import com.pestvisionai.backend.cluster.ClusterNode;
+import com.pestvisionai.backend.cluster.LiveEventBus;
 import com.pestvisionai.backend.dto.LiveEventDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
 
 @Component
 public class DetectionEventPublisher {
 
     private static final Logger log = LoggerFactory.getLogger(DetectionEventPublisher.class);
-    private final Sinks.Many<LiveEventDto> sink = Sinks.many().multicast().onBackpressureBuffer();
+    private final LiveSubscriptionIndex<Sinks.Many<LiveEventDto>> subscriptions = new LiveSubscriptionIndex<>();
+    private final LiveEventBus liveEventBus;
+    private final String nodeId;
+    private final Counter dropped;
+
+    public DetectionEventPublisher(LiveEventBus liveEventBus, ClusterNode clusterNode, MeterRegistry meterRegistry) {
+        this.liveEventBus = liveEventBus;
+        this.nodeId = clusterNode.nodeId();
+        this.dropped = Counter.builder("pestvision.live.dropped")
+                .description("Live events dropped because a subscriber's buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("pestvision.live.subscribers", subscriptions, LiveSubscriptionIndex::size)
+                .register(meterRegistry);
+        // Events from other replicas go straight to local subscribers; our own come back on the bus and are skipped,
+        // as are spray state updates, which carry no detection and only concern the recent feeds.
+        liveEventBus.subscribe(envelope -> {
+            if (!nodeId.equals(envelope.originNode()) && envelope.event().detection() != null) {
+                subscriptions.dispatch(envelope.event(), this::emit);
+            }
+        });
+    }
 
     public void publish(LiveEventDto event) {
-        Sinks.EmitResult result = sink.tryEmitNext(event);
-        if (result.isFailure()) {
-            log.warn("Failed to emit live event: {}", result);
-        }
+        subscriptions.dispatch(event, this::emit);
+        liveEventBus.publish(new ClusterEnvelope(nodeId, event));
     }
 
     public Flux<LiveEventDto> stream() {
-        return sink.asFlux();
+        return stream(LiveEventFilter.all());
+    }
+
+    /**
+     * Live events accepted by {@code filter}. Each subscriber has its own bounded buffer; when a client falls that
+     * far behind, newer events for it are dropped rather than held in memory.
+     */
+    public Flux<LiveEventDto> stream(LiveEventFilter filter) {
+        return Flux.defer(() -> {
+            Sinks.Many<LiveEventDto> sink = Sinks.many().unicast()
+                    .onBackpressureBuffer(Queues.<LiveEventDto>get(Queues.SMALL_BUFFER_SIZE).get());
+            subscriptions.add(sink, filter);
+            return sink.asFlux().doFinally(signal -> subscriptions.remove(sink));
+        });
+    }
+
+    private void emit(Sinks.Many<LiveEventDto> sink, LiveEventDto event) {
+        // Local ingest threads and bus listener threads can emit concurrently; retry briefly instead of dropping.
+        Sinks.EmitResult result = sink.tryEmitNext(event);
+        while (result == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+            Thread.onSpinWait();
+            result = sink.tryEmitNext(event);
+        }
+        if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+            dropped.increment();
+        } else if (result.isFailure() && result != Sinks.EmitResult.FAIL_CANCELLED
+                && result != Sinks.EmitResult.FAIL_TERMINATED) {
+            log.warn("Failed to emit live event: {}", result);
+        }
     }
 }
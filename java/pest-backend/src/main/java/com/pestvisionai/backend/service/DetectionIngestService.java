@@ -0,0 +1,362 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.config.PestVisionProperties;
+import com.pestvisionai.backend.dto.DetectionEnvelopeDto;
+import com.pestvisionai.backend.model.Detection;
+import com.pestvisionai.backend.repository.FrameStamp;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Entry point for detection ingest.
+ *
+ * <p>In {@code direct} mode (default) every detection is recorded in its own transaction on the caller's thread. In
+ * {@code partitioned} mode detections are routed by {@code streamId} to a fixed set of single-writer partitions; each
+ * partition commits whatever arrived within {@code batch-max-wait-millis} (up to {@code batch-max-items}) in one
+ * transaction. Detections of one stream are therefore persisted, and their spray decisions taken, in arrival order.
+ * A frame repeated within a batch is committed after it on its own, and a batch that fails anyway, for instance on a
+ * frame already stored by another replica, is retried one detection per transaction; spray cooldowns and surge
+ * baselines only keep the effects of what committed. In both modes the returned future completes once the detection
+ * is committed.
+ *
+ * <p>Both modes sit behind {@link IngestAdmission}: detections beyond the adaptive concurrency limit fail fast with
+ * {@link IngestOverloadedException}, lower-confidence ones first. In front of both, {@link IngestDeduplicator}
+ * answers a frame that was already ingested with the original detection without admitting it again. Its filter is
+ * seeded in the background on startup with the most recently stored frames.
+ */
+@Service
+public class DetectionIngestService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(DetectionIngestService.class);
+    private static final int SEED_PAGE_SIZE = 10_000;
+
+    private final DetectionService detectionService;
+    private final IngestAdmission admission;
+    private final IngestDeduplicator deduplicator;
+    private final int dedupSeedKeys;
+    private final double sprayConfidenceThreshold;
+    private final boolean partitioned;
+    private final List<Partition> partitions = new ArrayList<>();
+    private final int batchMaxItems;
+    private final long batchMaxWaitNanos;
+    private final Counter commits;
+    private final DistributionSummary batchSizes;
+    private final Timer commitLatency;
+    private volatile boolean running = true;
+
+    public DetectionIngestService(DetectionService detectionService, MeterRegistry meterRegistry,
+            PestVisionProperties properties) {
+        this.detectionService = detectionService;
+        PestVisionProperties.Ingest ingest = properties.getIngest();
+        this.admission = new IngestAdmission(ingest.getAdmission(), meterRegistry);
+        this.deduplicator = new IngestDeduplicator(ingest.getDedup(), meterRegistry,
+                key -> detectionService.findStoredFrame(key.serviceName(), key.streamId(), key.frameId()));
+        this.dedupSeedKeys = ingest.getDedup().isEnabled() ? Math.max(1024, ingest.getDedup().getExpectedKeys()) : 0;
+        this.sprayConfidenceThreshold = properties.getSpray().getConfidenceThreshold();
+        this.partitioned = "partitioned".equals(ingest.getMode().toLowerCase(Locale.ROOT));
+        this.batchMaxItems = Math.max(1, ingest.getBatchMaxItems());
+        this.batchMaxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ingest.getBatchMaxWaitMillis()));
+        this.commits = Counter.builder("pestvision.ingest.commits")
+                .description("Transactions committed by the ingest path")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("pestvision.ingest.batch.size")
+                .description("Detections committed per ingest transaction")
+                .register(meterRegistry);
+        this.commitLatency = Timer.builder("pestvision.ingest.commit.latency")
+                .description("Time to persist one ingest transaction")
+                .register(meterRegistry);
+        if (partitioned) {
+            int count = Math.max(1, ingest.getPartitions());
+            for (int i = 0; i < count; i++) {
+                Partition partition = new Partition(i, Math.max(1, ingest.getQueueCapacity()));
+                Gauge.builder("pestvision.ingest.queue.depth", partition.queue, BlockingQueue::size)
+                        .tag("partition", Integer.toString(i))
+                        .register(meterRegistry);
+                partitions.add(partition);
+                partition.thread.start();
+            }
+            log.info("Partitioned ingest with {} partitions, batches of up to {} items / {} ms",
+                    count, batchMaxItems, ingest.getBatchMaxWaitMillis());
+        }
+    }
+
+    /**
+     * Records {@code envelope}. Enrichment runs on the calling thread in both modes, so callers must not be on an
+     * event-loop thread. The future fails with {@link IngestOverloadedException} when admission control sheds the
+     * detection and with {@link RejectedExecutionException} when the stream's partition is full.
+     */
+    public CompletableFuture<DetectionProcessingResult> submit(DetectionEnvelopeDto envelope) {
+        return submit(envelope, 0);
+    }
+
+    /**
+     * As {@link #submit(DetectionEnvelopeDto)}, for a request that already waited {@code queuedNanos} before it
+     * reached ingest. A frame that was already ingested completes with a {@link DetectionProcessingResult#duplicate()}
+     * result naming the original.
+     */
+    public CompletableFuture<DetectionProcessingResult> submit(DetectionEnvelopeDto envelope, long queuedNanos) {
+        return deduplicator.submit(envelope, () -> admit(envelope, queuedNanos));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedDeduplicatorInBackground() {
+        if (dedupSeedKeys == 0) {
+            return;
+        }
+        Thread seeder = new Thread(this::seedDeduplicator, "ingest-dedup-seed");
+        seeder.setDaemon(true);
+        seeder.setPriority(Thread.MIN_PRIORITY);
+        seeder.start();
+    }
+
+    /**
+     * Adds the frames of the most recently stored detections to the deduplicator, newest first, then lets its filter
+     * vouch for frames captured after all older ones. Until that finishes, or if it fails, every filter miss is checked
+     * in the database.
+     */
+    private void seedDeduplicator() {
+        long started = System.nanoTime();
+        long beforeId = Long.MAX_VALUE;
+        int seeded = 0;
+        boolean exhausted = false;
+        try {
+            while (seeded < dedupSeedKeys && !exhausted) {
+                int size = Math.min(SEED_PAGE_SIZE, dedupSeedKeys - seeded);
+                List<FrameStamp> page = detectionService.findFramesBefore(beforeId, size);
+                for (FrameStamp frame : page) {
+                    long stamp = frame.detectedAt() == null ? Long.MIN_VALUE : frame.detectedAt().toEpochMilli();
+                    deduplicator.seed(IngestDeduplicator.FrameKey.of(
+                            frame.serviceName(), frame.streamId(), frame.frameId()), stamp);
+                }
+                seeded += page.size();
+                exhausted = page.size() < size;
+                if (!page.isEmpty()) {
+                    beforeId = page.get(page.size() - 1).id();
+                }
+            }
+            Instant older = exhausted ? null : detectionService.findLatestFrameCaptureBefore(beforeId);
+            deduplicator.seeded(older == null ? Long.MIN_VALUE : older.toEpochMilli());
+            log.info("Seeded ingest deduplication with {} stored frames in {} ms", seeded,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (RuntimeException ex) {
+            log.warn("Seeding ingest deduplication failed; frames missing from the filter are checked in the database",
+                    ex);
+        }
+    }
+
+    private CompletableFuture<DetectionProcessingResult> admit(DetectionEnvelopeDto envelope, long queuedNanos) {
+        boolean priority = envelope.payload() != null
+                && envelope.payload().maxConfidence() >= sprayConfidenceThreshold;
+        IngestAdmission.Permit permit = admission.tryAcquire(priority, queuedNanos);
+        if (permit == null) {
+            return CompletableFuture.failedFuture(new IngestOverloadedException(
+                    "Ingest is over its concurrency limit", admission.retryAfterSeconds()));
+        }
+        CompletableFuture<DetectionProcessingResult> future;
+        try {
+            future = admitted(envelope);
+        } catch (RuntimeException ex) {
+            permit.release(IngestAdmission.Outcome.IGNORED);
+            throw ex;
+        }
+        future.whenComplete((result, ex) -> permit.release(ex == null
+                ? IngestAdmission.Outcome.SUCCESS
+                : ex instanceof RejectedExecutionException
+                        ? IngestAdmission.Outcome.DROPPED
+                        : IngestAdmission.Outcome.IGNORED));
+        return future;
+    }
+
+    private CompletableFuture<DetectionProcessingResult> admitted(DetectionEnvelopeDto envelope) {
+        if (!partitioned) {
+            long started = System.nanoTime();
+            DetectionProcessingResult result = detectionService.recordDetection(envelope);
+            recordCommit(1, System.nanoTime() - started);
+            return CompletableFuture.completedFuture(result);
+        }
+        PreparedDetection prepared = detectionService.prepare(envelope);
+        Partition partition = partitionFor(prepared.detection().getStreamId());
+        PendingIngest pending = new PendingIngest(prepared, new CompletableFuture<>());
+        if (!running || !partition.queue.offer(pending)) {
+            pending.future().completeExceptionally(
+                    new RejectedExecutionException("Ingest partition " + partition.index + " is full"));
+        }
+        return pending.future();
+    }
+
+    /**
+     * Free queue slots in the fullest partition, or {@link Integer#MAX_VALUE} in direct mode where nothing is queued.
+     * Streaming producers are granted demand against this.
+     */
+    public int availableCapacity() {
+        if (!partitioned) {
+            return Integer.MAX_VALUE;
+        }
+        int available = Integer.MAX_VALUE;
+        for (Partition partition : partitions) {
+            available = Math.min(available, partition.queue.remainingCapacity());
+        }
+        return available;
+    }
+
+    private Partition partitionFor(String streamId) {
+        return partitions.get(Math.floorMod(Objects.hashCode(streamId), partitions.size()));
+    }
+
+    private void runPartition(Partition partition) {
+        List<PendingIngest> batch = new ArrayList<>(batchMaxItems);
+        // Keeps committing after shutdown starts until the queue is empty, so accepted detections are not lost.
+        while (running || !partition.queue.isEmpty()) {
+            try {
+                PendingIngest first = partition.queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                partition.queue.drainTo(batch, batchMaxItems - batch.size());
+                long deadline = System.nanoTime() + batchMaxWaitNanos;
+                while (batch.size() < batchMaxItems) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingIngest next = remaining > 0 ? partition.queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    partition.queue.drainTo(batch, batchMaxItems - batch.size());
+                }
+                commit(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.future().completeExceptionally(ex));
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        RejectedExecutionException shutdown = new RejectedExecutionException("Ingest is shutting down");
+        PendingIngest left;
+        while ((left = partition.queue.poll()) != null) {
+            left.future().completeExceptionally(shutdown);
+        }
+    }
+
+    private void commit(List<PendingIngest> batch) {
+        List<PendingIngest> repeats = new ArrayList<>();
+        List<PendingIngest> fresh = withoutRepeats(batch, repeats);
+        if (!fresh.isEmpty()) {
+            commitTogether(fresh);
+        }
+        repeats.forEach(this::commitAlone);
+    }
+
+    /**
+     * Moves every frame seen earlier in the same batch to {@code repeats}, to be committed alone afterwards, so a copy
+     * cannot make the unique index reject the whole batch. Frames stored by earlier transactions were already ruled out
+     * by {@link IngestDeduplicator}; the rare one it misses fails the batch, which is then retried one by one.
+     */
+    private List<PendingIngest> withoutRepeats(List<PendingIngest> batch, List<PendingIngest> repeats) {
+        List<PendingIngest> fresh = new ArrayList<>(batch.size());
+        Set<IngestDeduplicator.FrameKey> frames = new HashSet<>();
+        for (PendingIngest pending : batch) {
+            Detection detection = pending.prepared().detection();
+            IngestDeduplicator.FrameKey frame = IngestDeduplicator.FrameKey.of(
+                    detection.getServiceName(), detection.getStreamId(), detection.getFrameId());
+            if (frame == null) {
+                fresh.add(pending);
+            } else if (!frames.add(frame)) {
+                repeats.add(pending);
+            } else {
+                fresh.add(pending);
+            }
+        }
+        return fresh;
+    }
+
+    private void commitTogether(List<PendingIngest> batch) {
+        List<PreparedDetection> prepared = batch.stream().map(PendingIngest::prepared).toList();
+        long started = System.nanoTime();
+        List<DetectionProcessingResult> results;
+        try {
+            results = detectionService.recordBatch(prepared);
+        } catch (RuntimeException ex) {
+            // One bad detection must not fail its neighbours: retry the batch one item per transaction.
+            log.warn("Ingest batch of {} failed, retrying individually: {}", batch.size(), ex.getMessage());
+            batch.forEach(this::commitAlone);
+            return;
+        }
+        recordCommit(batch.size(), System.nanoTime() - started);
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future().complete(results.get(i));
+        }
+    }
+
+    private void commitAlone(PendingIngest pending) {
+        // The rolled-back batch may have assigned an identity that no longer exists.
+        pending.prepared().detection().setId(null);
+        long started = System.nanoTime();
+        try {
+            DetectionProcessingResult result = detectionService.recordBatch(List.of(pending.prepared())).get(0);
+            recordCommit(1, System.nanoTime() - started);
+            pending.future().complete(result);
+        } catch (RuntimeException ex) {
+            pending.future().completeExceptionally(ex);
+        }
+    }
+
+    private void recordCommit(int items, long nanos) {
+        commits.increment();
+        batchSizes.record(items);
+        commitLatency.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        for (Partition partition : partitions) {
+            try {
+                partition.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private record PendingIngest(PreparedDetection prepared, CompletableFuture<DetectionProcessingResult> future) {
+    }
+
+    private final class Partition {
+
+        private final int index;
+        private final BlockingQueue<PendingIngest> queue;
+        private final Thread thread;
+
+        private Partition(int index, int capacity) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(() -> runPartition(this), "ingest-partition-" + index);
+            this.thread.setDaemon(true);
+        }
+    }
+}
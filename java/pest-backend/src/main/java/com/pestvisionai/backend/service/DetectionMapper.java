@@ -0,0 +1,80 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.dto.BoundingBoxDto;
+import com.pestvisionai.backend.dto.DetectionView;
+import com.pestvisionai.backend.dto.LiveEventDto;
+import com.pestvisionai.backend.dto.SprayEventView;
+import com.pestvisionai.backend.dto.SurgeAlertView;
+import com.pestvisionai.backend.model.Detection;
+import com.pestvisionai.backend.model.SprayEvent;
+import com.pestvisionai.backend.model.SurgeAlert;
+
+final class DetectionMapper {
+
+    private DetectionMapper() {
+    }
+
+    static DetectionView toView(Detection detection) {
+        return new DetectionView(
+                detection.getId(),
+                detection.getDetectedAt(),
+                detection.getStreamId(),
+                detection.getServiceName(),
+                detection.getPestType(),
+                detection.getPestCount(),
+                detection.getMaxConfidence(),
+                detection.getSnapshotPath(),
+                detection.getAnalysisSummary(),
+                detection.getBoxes().stream()
+                        .map(box -> new BoundingBoxDto(
+                                box.getX(),
+                                box.getY(),
+                                box.getWidth(),
+                                box.getHeight(),
+                                box.getConfidence(),
+                                box.getLabel(),
+                                box.getTrackId()))
+                        .toList());
+    }
+
+    static SprayEventView toView(SprayEvent sprayEvent) {
+        if (sprayEvent == null) {
+            return null;
+        }
+        return new SprayEventView(
+                sprayEvent.getId(),
+                sprayEvent.getTriggeredAt(),
+                sprayEvent.getReason(),
+                sprayEvent.getConfidence(),
+                sprayEvent.getDetectionId(),
+                sprayEvent.getDeviceId(),
+                sprayEvent.getCommandStatus() == null ? null : sprayEvent.getCommandStatus().name(),
+                sprayEvent.getCommandAttempts(),
+                sprayEvent.getAcknowledgedAt(),
+                sprayEvent.getActuationLatencyMillis());
+    }
+
+    static SurgeAlertView toView(SurgeAlert alert) {
+        if (alert == null) {
+            return null;
+        }
+        return new SurgeAlertView(
+                alert.getId(),
+                alert.getRaisedAt(),
+                alert.getDetectionId(),
+                alert.getStreamId(),
+                alert.getPestType(),
+                alert.getMetric(),
+                alert.getObserved(),
+                alert.getBaselineMean(),
+                alert.getBaselineDeviation(),
+                alert.getScore());
+    }
+
+    static LiveEventDto toLiveEvent(DetectionProcessingResult result) {
+        return new LiveEventDto(
+                toView(result.detection()),
+                result.sprayEventOptional().map(DetectionMapper::toView).orElse(null),
+                toView(result.surgeAlert()));
+    }
+}
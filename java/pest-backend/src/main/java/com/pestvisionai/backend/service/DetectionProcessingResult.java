@@ -2,9 +2,35 @@ package com.pestvisionai.backend.service;
 
 import com.pestvisionai.backend.model.Detection;
 import com.pestvisionai.backend.model.SprayEvent;
+import com.pestvisionai.backend.model.SurgeAlert;
 import java.util.Optional;
 
-public record DetectionProcessingResult(Detection detection, SprayEvent sprayEvent) {
+/**
+ * Outcome of ingesting one detection. A {@link #duplicate()} result answers a frame that was already stored: its
+ * detection and spray event are references to the original rows that carry only their ids.
+ */
+public record DetectionProcessingResult(
+        Detection detection, SprayEvent sprayEvent, SurgeAlert surgeAlert, boolean duplicate) {
+
+    public DetectionProcessingResult(Detection detection, SprayEvent sprayEvent, SurgeAlert surgeAlert) {
+        this(detection, sprayEvent, surgeAlert, false);
+    }
+
+    public DetectionProcessingResult(Detection detection, SprayEvent sprayEvent) {
+        this(detection, sprayEvent, null);
+    }
+
+    static DetectionProcessingResult duplicateOf(long detectionId, Long sprayEventId) {
+        Detection detection = new Detection();
+        detection.setId(detectionId);
+        SprayEvent sprayEvent = null;
+        if (sprayEventId != null) {
+            sprayEvent = new SprayEvent();
+            sprayEvent.setId(sprayEventId);
+            sprayEvent.setDetectionId(detectionId);
+        }
+        return new DetectionProcessingResult(detection, sprayEvent, null, true);
+    }
 
     public Optional<SprayEvent> sprayEventOptional() {
         return Optional.ofNullable(sprayEvent);
@@ -1,22 +1,34 @@
 package com.pestvisionai.backend.service;
 
+import com.pestvisionai.backend.analytics.DetectionAnalyticsService;
 import com.pestvisionai.backend.config.PestVisionProperties;
 import com.pestvisionai.backend.dto.BoundingBoxDto;
 import com.pestvisionai.backend.dto.DetectionEnvelopeDto;
+import com.pestvisionai.backend.dto.LiveEventDto;
 import com.pestvisionai.backend.model.BoundingBox;
 import com.pestvisionai.backend.model.Detection;
+import com.pestvisionai.backend.model.SprayCommandStatus;
 import com.pestvisionai.backend.model.SprayEvent;
+import com.pestvisionai.backend.model.SurgeAlert;
 import com.pestvisionai.backend.repository.DetectionRepository;
+import com.pestvisionai.backend.repository.FrameStamp;
 import com.pestvisionai.backend.repository.SprayEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class DetectionService {
@@ -27,39 +39,135 @@ public class DetectionService {
     private final SprayEventRepository sprayEventRepository;
     private final SprayControllerClient sprayControllerClient;
     private final DetectionEventPublisher eventPublisher;
+    private final RecentFeedWatermarks feedWatermarks;
+    private final DetectionAnalyticsService analyticsService;
+    private final SurgeMonitor surgeMonitor;
     private final GeminiAnalysisService geminiAnalysisService;
     private final double sprayConfidenceThreshold;
     private final Duration sprayCooldown;
-    private Instant lastSprayInstant = Instant.EPOCH;
+    private final boolean cooldownPerStream;
+    private final SprayCooldownGate cooldownGate;
+    private final Timer cooldownCheckTimer;
 
     public DetectionService(
             DetectionRepository detectionRepository,
             SprayEventRepository sprayEventRepository,
             SprayControllerClient sprayControllerClient,
             DetectionEventPublisher eventPublisher,
+            RecentFeedWatermarks feedWatermarks,
+            DetectionAnalyticsService analyticsService,
+            SurgeMonitor surgeMonitor,
             GeminiAnalysisService geminiAnalysisService,
+            SprayCooldownGate cooldownGate,
+            MeterRegistry meterRegistry,
             PestVisionProperties properties) {
         this.detectionRepository = detectionRepository;
         this.sprayEventRepository = sprayEventRepository;
         this.sprayControllerClient = sprayControllerClient;
         this.eventPublisher = eventPublisher;
+        this.feedWatermarks = feedWatermarks;
+        this.analyticsService = analyticsService;
+        this.surgeMonitor = surgeMonitor;
         this.geminiAnalysisService = geminiAnalysisService;
         this.sprayConfidenceThreshold = properties.getSpray().getConfidenceThreshold();
         this.sprayCooldown = Duration.ofSeconds(properties.getSpray().getCooldownSeconds());
+        this.cooldownPerStream = "stream".equalsIgnoreCase(properties.getSpray().getCooldownScope());
+        this.cooldownGate = cooldownGate;
+        this.cooldownCheckTimer = Timer.builder("pestvision.spray.cooldown.check")
+                .description("Time spent deciding whether a spray cooldown window is open")
+                .register(meterRegistry);
     }
 
     @Transactional
     public DetectionProcessingResult recordDetection(DetectionEnvelopeDto envelope) {
+        PreparedDetection prepared = prepare(envelope);
+        Detection saved = detectionRepository.save(prepared.detection());
+        SprayEvent sprayEvent = maybeTriggerSpray(saved, prepared.acceptedAtNanos());
+        SurgeAlert surgeAlert = surgeMonitor.check(saved);
+        DetectionProcessingResult result = new DetectionProcessingResult(saved, sprayEvent, surgeAlert);
+        announceAfterCommit(List.of(result));
+        return result;
+    }
+
+    /**
+     * Maps the envelope and runs the Gemini enrichment, without touching the database. Used by the partitioned
+     * ingest path so the (slow) AI call happens on the caller's thread rather than inside a shared batch.
+     */
+    public PreparedDetection prepare(DetectionEnvelopeDto envelope) {
         Objects.requireNonNull(envelope, "Detection envelope must not be null");
+        long acceptedAtNanos = System.nanoTime();
         Detection detection = toEntity(envelope);
     geminiAnalysisService.generateSummary(detection)
         .map(summary -> summary.length() > 2000 ? summary.substring(0, 2000) : summary)
         .ifPresent(detection::setAnalysisSummary);
-        Detection saved = detectionRepository.save(detection);
-        SprayEvent sprayEvent = maybeTriggerSpray(saved);
-        DetectionProcessingResult result = new DetectionProcessingResult(saved, sprayEvent);
-        eventPublisher.publish(DetectionMapper.toLiveEvent(result));
-        return result;
+        return new PreparedDetection(detection, acceptedAtNanos);
+    }
+
+    /**
+     * Persists a batch of prepared detections in one transaction, in list order. Spray decisions are taken in the
+     * same order, so detections of one stream keep their cooldown semantics. Live events go out after the commit.
+     */
+    @Transactional
+    public List<DetectionProcessingResult> recordBatch(List<PreparedDetection> batch) {
+        List<DetectionProcessingResult> results = new ArrayList<>(batch.size());
+        for (PreparedDetection prepared : batch) {
+            Detection saved = detectionRepository.save(prepared.detection());
+            SprayEvent sprayEvent = maybeTriggerSpray(saved, prepared.acceptedAtNanos());
+            SurgeAlert surgeAlert = surgeMonitor.check(saved);
+            results.add(new DetectionProcessingResult(saved, sprayEvent, surgeAlert));
+        }
+        announceAfterCommit(results);
+        return results;
+    }
+
+    /**
+     * Publishes live events, advances the recent-feed watermarks and feeds the analytics store once the surrounding
+     * transaction has committed, so none of them can observe a detection that is later rolled back or not yet
+     * visible.
+     */
+    private void announceAfterCommit(List<DetectionProcessingResult> results) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            announce(results);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                announce(results);
+            }
+        });
+    }
+
+    private void announce(List<DetectionProcessingResult> results) {
+        for (DetectionProcessingResult result : results) {
+            LiveEventDto event = DetectionMapper.toLiveEvent(result);
+            feedWatermarks.committed(event);
+            analyticsService.record(event.detection());
+            eventPublisher.publish(event);
+        }
+    }
+
+    /**
+     * The detection already stored for a frame and the spray event it triggered, or {@code null} if there is none.
+     */
+    IngestDeduplicator.StoredFrame findStoredFrame(String serviceName, String streamId, long frameId) {
+        return detectionRepository.findIdByFrame(serviceName, streamId, frameId)
+                .map(id -> new IngestDeduplicator.StoredFrame(id, sprayEventRepository.findFirstIdByDetectionId(id)))
+                .orElse(null);
+    }
+
+    /**
+     * Up to {@code limit} of the detections stored before {@code beforeId} that carry a frame key, newest first.
+     */
+    List<FrameStamp> findFramesBefore(long beforeId, int limit) {
+        return detectionRepository.findFramesBefore(beforeId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Capture time of the newest frame among detections stored before {@code beforeId}, or {@code null} if none.
+     */
+    Instant findLatestFrameCaptureBefore(long beforeId) {
+        return detectionRepository.findLatestFrameCaptureBefore(beforeId);
     }
 
     @Transactional(readOnly = true)
@@ -87,24 +195,25 @@ public class DetectionService {
                 .toList();
     }
 
-    private Detection toEntity(DetectionEnvelopeDto envelope) {
+    static Detection toEntity(DetectionEnvelopeDto envelope) {
         var payload = envelope.payload();
         Detection detection = new Detection();
         detection.setDetectedAt(payload.detectedAt());
         detection.setStreamId(payload.streamId());
         detection.setServiceName(envelope.serviceName());
+        detection.setFrameId(payload.frameId());
         detection.setPestType(payload.pestType());
         detection.setPestCount(payload.pestCount());
         detection.setMaxConfidence(payload.maxConfidence());
         detection.setSnapshotPath(payload.snapshotPath());
     List<BoundingBox> mappedBoxes = payload.boxes() == null
         ? Collections.emptyList()
-        : payload.boxes().stream().map(this::toEntity).toList();
+        : payload.boxes().stream().map(DetectionService::toEntity).toList();
         detection.setBoxes(mappedBoxes);
         return detection;
     }
 
-    private BoundingBox toEntity(BoundingBoxDto dto) {
+    private static BoundingBox toEntity(BoundingBoxDto dto) {
         BoundingBox box = new BoundingBox();
         box.setX(dto.x());
         box.setY(dto.y());
@@ -116,14 +225,18 @@ public class DetectionService {
         return box;
     }
 
-    private synchronized SprayEvent maybeTriggerSpray(Detection detection) {
+    private SprayEvent maybeTriggerSpray(Detection detection, long acceptedAtNanos) {
         if (detection.getMaxConfidence() < sprayConfidenceThreshold) {
             log.debug("Detection {} skipped spray: confidence {} below threshold {}",
                     detection.getId(), detection.getMaxConfidence(), sprayConfidenceThreshold);
             return null;
         }
         Instant now = Instant.now();
-        if (Duration.between(lastSprayInstant, now).compareTo(sprayCooldown) < 0) {
+        String cooldownKey = cooldownPerStream ? Objects.requireNonNullElse(detection.getStreamId(), "*") : "*";
+        long checkStarted = System.nanoTime();
+        boolean acquired = cooldownGate.tryAcquire(cooldownKey, now, sprayCooldown);
+        cooldownCheckTimer.record(System.nanoTime() - checkStarted, TimeUnit.NANOSECONDS);
+        if (!acquired) {
             log.debug("Detection {} skipped spray: cooldown active", detection.getId());
             return null;
         }
@@ -132,56 +245,10 @@ public class DetectionService {
         sprayEvent.setReason("Confidence >= " + sprayConfidenceThreshold);
         sprayEvent.setConfidence(detection.getMaxConfidence());
         sprayEvent.setDetectionId(detection.getId());
+        sprayEvent.setDeviceId(sprayControllerClient.deviceFor(detection.getStreamId()));
+        sprayEvent.setCommandStatus(SprayCommandStatus.QUEUED);
         SprayEvent saved = sprayEventRepository.save(sprayEvent);
-        sprayControllerClient.triggerSpray(detection);
-        lastSprayInstant = now;
+        sprayControllerClient.triggerSpray(detection, saved, acceptedAtNanos);
         return saved;
     }
-
-    private static class DetectionMapper {
-
-        private DetectionMapper() {
-        }
-
-        private static com.pestvisionai.backend.dto.DetectionView toView(Detection detection) {
-            return new com.pestvisionai.backend.dto.DetectionView(
-                    detection.getId(),
-                    detection.getDetectedAt(),
-                    detection.getStreamId(),
-                    detection.getServiceName(),
-                    detection.getPestType(),
-                    detection.getPestCount(),
-                    detection.getMaxConfidence(),
-                    detection.getSnapshotPath(),
-            detection.getAnalysisSummary(),
-                    detection.getBoxes().stream()
-                            .map(box -> new BoundingBoxDto(
-                                    box.getX(),
-                                    box.getY(),
-                                    box.getWidth(),
-                                    box.getHeight(),
-                                    box.getConfidence(),
-                                    box.getLabel(),
-                                    box.getTrackId()))
-                .toList());
-        }
-
-        private static com.pestvisionai.backend.dto.SprayEventView toView(SprayEvent sprayEvent) {
-            if (sprayEvent == null) {
-                return null;
-            }
-            return new com.pestvisionai.backend.dto.SprayEventView(
-                    sprayEvent.getId(),
-                    sprayEvent.getTriggeredAt(),
-                    sprayEvent.getReason(),
-                    sprayEvent.getConfidence(),
-                    sprayEvent.getDetectionId());
-        }
-
-        private static com.pestvisionai.backend.dto.LiveEventDto toLiveEvent(DetectionProcessingResult result) {
-            return new com.pestvisionai.backend.dto.LiveEventDto(
-                    toView(result.detection()),
-                    result.sprayEventOptional().map(DetectionMapper::toView).orElse(null));
-        }
-    }
 }
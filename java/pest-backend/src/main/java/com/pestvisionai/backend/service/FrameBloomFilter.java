@@ -0,0 +1,134 @@
+package com.pestvisionai.backend.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, thread-safe Bloom filter over frame keys that forgets old keys instead of filling up.
+ *
+ * <p>Keys go into the current generation; once it holds {@code keysPerGeneration} keys it becomes the previous
+ * generation and an empty one takes its place, so memory stays fixed and lookups cover the last one to two
+ * generations of keys. Within that horizon a negative answer is exact; a positive one is wrong with at most about
+ * twice {@code falsePositiveRate}. Every key is added with a stamp, its frame's capture time; the filter tracks the
+ * newest stamp it has forgotten, so {@link #remembers(long)} tells whether a negative answer for a key is still
+ * exact. Adding and checking a key allocate nothing.
+ */
+final class FrameBloomFilter {
+
+    private static final int MAX_BITS = 1 << 30;
+
+    private final int keysPerGeneration;
+    private final int bits;
+    private final int hashes;
+    private volatile Generation current;
+    private volatile Generation previous;
+    private volatile long forgottenThrough = Long.MIN_VALUE;
+
+    FrameBloomFilter(int keysPerGeneration, double falsePositiveRate) {
+        this.keysPerGeneration = Math.max(1024, keysPerGeneration);
+        double rate = Math.max(1e-6, Math.min(0.5, falsePositiveRate));
+        double optimalBits = -this.keysPerGeneration * Math.log(rate) / (Math.log(2) * Math.log(2));
+        // A power of two so the probe index is a mask rather than a division.
+        this.bits = (int) Math.min(MAX_BITS, Long.highestOneBit((long) Math.ceil(optimalBits) - 1) << 1);
+        this.hashes = Math.max(1, (int) Math.ceil(-Math.log(rate) / Math.log(2)));
+        this.current = new Generation(bits);
+    }
+
+    /**
+     * 64-bit hash of a frame key; the filter derives all its probes from it.
+     */
+    static long hash(String serviceName, String streamId, long frameId) {
+        long h = serviceName.hashCode() * 0x9E3779B97F4A7C15L + streamId.hashCode();
+        return mix(mix(h) ^ frameId);
+    }
+
+    boolean mightContain(long hash) {
+        if (current.contains(hash, hashes)) {
+            return true;
+        }
+        Generation older = previous;
+        return older != null && older.contains(hash, hashes);
+    }
+
+    /**
+     * Whether a negative answer is exact for a key stamped {@code stamp}: every key the filter has dropped so far was
+     * stamped earlier.
+     */
+    boolean remembers(long stamp) {
+        return stamp > forgottenThrough;
+    }
+
+    void add(long hash, long stamp) {
+        Generation generation = current;
+        if (generation.add(hash, hashes, stamp) >= keysPerGeneration) {
+            rotate(generation);
+        }
+    }
+
+    /**
+     * Memory held by both generations, in bytes.
+     */
+    long sizeInBytes() {
+        return 2L * bits / 8;
+    }
+
+    private synchronized void rotate(Generation full) {
+        if (current == full) {
+            Generation dropped = previous;
+            if (dropped != null) {
+                forgottenThrough = Math.max(forgottenThrough, dropped.newestStamp.get());
+            }
+            previous = full;
+            current = new Generation(bits);
+        }
+    }
+
+    private static long mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB9FE1A85EC53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    private static final class Generation {
+
+        private final AtomicLongArray words;
+        private final long mask;
+        private final AtomicInteger keys = new AtomicInteger();
+        private final AtomicLong newestStamp = new AtomicLong(Long.MIN_VALUE);
+
+        private Generation(int bits) {
+            this.words = new AtomicLongArray(bits >>> 6);
+            this.mask = bits - 1;
+        }
+
+        private boolean contains(long hash, int hashes) {
+            long step = mix(hash) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long index = (hash + i * step) & mask;
+                if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int add(long hash, int hashes, long stamp) {
+            newestStamp.accumulateAndGet(stamp, Math::max);
+            long step = mix(hash) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long index = (hash + i * step) & mask;
+                int word = (int) (index >>> 6);
+                long bit = 1L << index;
+                long value = words.get(word);
+                while ((value & bit) == 0 && !words.compareAndSet(word, value, value | bit)) {
+                    value = words.get(word);
+                }
+            }
+            return keys.incrementAndGet();
+        }
+    }
+}
@@ -4,8 +4,18 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pestvisionai.backend.config.PestVisionProperties;
 import com.pestvisionai.backend.model.Detection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import java.time.format.DateTimeFormatter;
 import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
@@ -13,7 +23,19 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
 
+/**
+ * Calls Gemini for a short operational summary of a detection.
+ *
+ * <p>Every call is bounded by a deadline, a concurrency bulkhead that rejects immediately when full and a circuit
+ * breaker that stops calling after consecutive failures. Optionally a second, hedged request is sent when the first
+ * is still pending after {@code hedge-delay-millis} and the bulkhead has a permit to spare for it; whichever answers
+ * first wins. A rejected or failed call never fails the ingest; the detection is simply stored without a summary.
+ */
 @Service
 public class GeminiAnalysisService {
 
@@ -25,27 +47,94 @@ public class GeminiAnalysisService {
     private final boolean enabled;
     private final String model;
     private final String apiKey;
+    private final Duration timeout;
+    private final Duration hedgeDelay;
+    private final long openSeconds;
+    private final int maxConcurrentCalls;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final Counter successCounter;
+    private final Counter failureCounter;
+    private final Counter timeoutCounter;
+    private final Counter bulkheadRejections;
+    private final Counter circuitRejections;
+    private final Counter hedgeCounter;
+    private final Timer latencyTimer;
 
-    public GeminiAnalysisService(WebClient.Builder builder, PestVisionProperties properties, ObjectMapper objectMapper) {
+    public GeminiAnalysisService(
+            WebClient.Builder builder,
+            PestVisionProperties properties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
         var gemini = properties.getAi().getGemini();
         this.apiKey = StringUtils.hasText(gemini.getApiKey()) ? gemini.getApiKey().trim() : null;
         this.enabled = StringUtils.hasText(this.apiKey);
         this.model = gemini.getModel();
         this.objectMapper = objectMapper;
+        this.timeout = Duration.ofMillis(gemini.getTimeoutMillis());
+        this.hedgeDelay = gemini.getHedgeDelayMillis() > 0 ? Duration.ofMillis(gemini.getHedgeDelayMillis()) : null;
+        this.openSeconds = gemini.getOpenSeconds();
+        this.maxConcurrentCalls = Math.max(1, gemini.getMaxConcurrentCalls());
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.circuitBreaker = new CircuitBreaker(
+                gemini.getFailureThreshold(), Duration.ofSeconds(openSeconds).toNanos());
         if (enabled) {
             this.webClient = builder
-                    .baseUrl("https://generativelanguage.googleapis.com")
+                    .baseUrl(gemini.getBaseUrl())
                     .build();
         } else {
             this.webClient = null;
         }
+
+        this.successCounter = callCounter(meterRegistry, "success");
+        this.failureCounter = callCounter(meterRegistry, "failure");
+        this.timeoutCounter = callCounter(meterRegistry, "timeout");
+        this.bulkheadRejections = callCounter(meterRegistry, "bulkhead_full");
+        this.circuitRejections = callCounter(meterRegistry, "circuit_open");
+        this.hedgeCounter = Counter.builder("pestvision.gemini.hedged.requests")
+                .description("Hedged Gemini requests sent because the first attempt was slow")
+                .register(meterRegistry);
+        this.latencyTimer = Timer.builder("pestvision.gemini.latency")
+                .description("Latency of Gemini calls that were attempted")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("pestvision.gemini.breaker.state", circuitBreaker, breaker -> breaker.state().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 half-open, 2 open")
+                .register(meterRegistry);
+        Gauge.builder("pestvision.gemini.inflight", bulkhead, permits -> maxConcurrentCalls - permits.availablePermits())
+                .description("Gemini calls currently in flight")
+                .register(meterRegistry);
     }
 
     public Optional<String> generateSummary(Detection detection) {
         if (!enabled) {
             return Optional.empty();
         }
+        if (!bulkhead.tryAcquire()) {
+            bulkheadRejections.increment();
+            log.debug("Gemini analysis skipped for detection on {}: {} calls already in flight",
+                    detection.getStreamId(), maxConcurrentCalls);
+            return Optional.empty();
+        }
+        try {
+            if (!circuitBreaker.tryAcquire()) {
+                circuitRejections.increment();
+                log.debug("Gemini analysis skipped for detection on {}: circuit open", detection.getStreamId());
+                return Optional.empty();
+            }
+            return callGemini(detection);
+        } finally {
+            bulkhead.release();
+        }
+    }
 
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    private Optional<String> callGemini(Detection detection) {
+        JsonNode response;
+        long started = System.nanoTime();
         try {
             String prompt = buildPrompt(detection);
             JsonNode request = objectMapper.createObjectNode()
@@ -57,7 +146,7 @@ public class GeminiAnalysisService {
                                     )
                             ));
 
-            JsonNode response = webClient.post()
+            Mono<JsonNode> attempt = webClient.post()
                     .uri(uriBuilder -> uriBuilder
                             .path("/v1beta/models/" + model + ":generateContent")
                             .queryParam("key", apiKey)
@@ -65,39 +154,99 @@ public class GeminiAnalysisService {
                     .contentType(MediaType.APPLICATION_JSON)
                     .body(BodyInserters.fromValue(request))
                     .retrieve()
-                    .bodyToMono(JsonNode.class)
-                    .block();
-
-            if (response == null) {
-                log.warn("Empty response from Gemini API");
-                return Optional.empty();
+                    .bodyToMono(JsonNode.class);
+            if (hedgeDelay != null) {
+                attempt = hedged(attempt);
             }
-
-            JsonNode candidates = response.get("candidates");
-            if (candidates == null || !candidates.isArray() || candidates.isEmpty()) {
-                log.warn("Gemini response missing candidates node: {}", response);
-                return Optional.empty();
+            response = attempt.timeout(timeout).block();
+        } catch (Exception ex) {
+            latencyTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            boolean timedOut = Exceptions.unwrap(ex) instanceof TimeoutException;
+            (timedOut ? timeoutCounter : failureCounter).increment();
+            if (circuitBreaker.onFailure()) {
+                log.warn("Gemini circuit opened after repeated failures; skipping analysis for {}s", openSeconds);
+            }
+            if (timedOut) {
+                log.warn("Gemini analysis timed out after {} ms", timeout.toMillis());
+            } else {
+                log.warn("Gemini analysis failed: {}", ex.getMessage());
+                log.debug("Gemini analysis error", ex);
             }
+            return Optional.empty();
+        }
+        latencyTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        circuitBreaker.onSuccess();
+        successCounter.increment();
+        return parseSummary(response);
+    }
 
-            JsonNode content = candidates.get(0).path("content");
-            JsonNode parts = content.path("parts");
-            if (parts.isArray() && !parts.isEmpty()) {
-                JsonNode textNode = parts.get(0).get("text");
-                if (textNode != null && textNode.isTextual()) {
-                    return Optional.of(textNode.asText());
+    /**
+     * Subscribes to {@code attempt} and, if it is still pending after {@code hedgeDelay}, once more under a bulkhead
+     * permit of its own. The first answer wins and cancels the other request. Before the hedge is sent the first
+     * attempt's outcome is final, so a fast failure is not retried; once both are running a failure only counts when
+     * the other request has failed too.
+     */
+    private Mono<JsonNode> hedged(Mono<JsonNode> attempt) {
+        return Mono.create(sink -> {
+            // Requests sent and not yet failed; 0 once the call has failed for good.
+            AtomicInteger pending = new AtomicInteger(1);
+            Disposable.Composite requests = Disposables.composite();
+            sink.onDispose(requests);
+            Consumer<Throwable> onError = ex -> {
+                if (pending.decrementAndGet() == 0) {
+                    sink.error(ex);
                 }
-            }
+            };
+            requests.add(attempt.subscribe(sink::success, onError, sink::success));
+            requests.add(Mono.delay(hedgeDelay).subscribe(tick -> {
+                if (!bulkhead.tryAcquire()) {
+                    return;
+                }
+                if (pending.getAndUpdate(count -> count == 0 ? 0 : count + 1) == 0) {
+                    bulkhead.release();
+                    return;
+                }
+                hedgeCounter.increment();
+                requests.add(attempt
+                        .doFinally(signal -> bulkhead.release())
+                        .subscribe(sink::success, onError, sink::success));
+            }));
+        });
+    }
 
-            log.warn("Unable to parse Gemini summary from response: {}", response);
+    private Optional<String> parseSummary(JsonNode response) {
+        if (response == null) {
+            log.warn("Empty response from Gemini API");
             return Optional.empty();
-        } catch (Exception ex) {
-            log.warn("Gemini analysis failed: {}", ex.getMessage());
-            log.debug("Gemini analysis error", ex);
+        }
+
+        JsonNode candidates = response.get("candidates");
+        if (candidates == null || !candidates.isArray() || candidates.isEmpty()) {
+            log.warn("Gemini response missing candidates node: {}", response);
             return Optional.empty();
         }
+
+        JsonNode content = candidates.get(0).path("content");
+        JsonNode parts = content.path("parts");
+        if (parts.isArray() && !parts.isEmpty()) {
+            JsonNode textNode = parts.get(0).get("text");
+            if (textNode != null && textNode.isTextual()) {
+                return Optional.of(textNode.asText());
+            }
+        }
+
+        log.warn("Unable to parse Gemini summary from response: {}", response);
+        return Optional.empty();
+    }
+
+    private static Counter callCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("pestvision.gemini.calls")
+                .description("Gemini analysis calls by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
-    private String buildPrompt(Detection detection) {
+    String buildPrompt(Detection detection) {
         StringBuilder builder = new StringBuilder();
         builder.append("You are an agronomy expert. Analyse the following pest detection event and provide a two sentence actionable summary for field technicians.\\n");
         if (detection.getDetectedAt() != null) {
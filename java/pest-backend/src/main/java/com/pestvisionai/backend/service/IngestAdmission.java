@@ -0,0 +1,127 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.config.PestVisionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control for ingest: bounds the detections being processed at once by an {@link AdaptiveConcurrencyLimit}
+ * and sheds the rest.
+ *
+ * <p>Detections at or above the spray threshold may use the whole limit; the others are held to the share left after
+ * {@code priority-reserve}, and are also shed when they already waited longer than {@code max-queue-millis} for a
+ * request thread. Under overload the low-confidence traffic is therefore turned away first and actionable detections
+ * keep getting through.
+ */
+final class IngestAdmission {
+
+    private static final Permit UNLIMITED = new Permit(null, 0) {
+        @Override
+        void release(Outcome outcome) {
+        }
+    };
+
+    enum Outcome {
+        /** Committed; the latency is a valid sample. */
+        SUCCESS,
+        /** Turned away downstream because of load, such as a full ingest partition. */
+        DROPPED,
+        /** Failed for a reason unrelated to load. */
+        IGNORED
+    }
+
+    private final boolean enabled;
+    private final AdaptiveConcurrencyLimit limit;
+    private final double lowPriorityShare;
+    private final long maxQueueNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter admittedHigh;
+    private final Counter admittedLow;
+    private final Counter shedHigh;
+    private final Counter shedLow;
+
+    IngestAdmission(PestVisionProperties.Ingest.Admission properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.limit = new AdaptiveConcurrencyLimit(properties.getInitialLimit(), properties.getMinLimit(),
+                properties.getMaxLimit());
+        this.lowPriorityShare = 1 - Math.max(0, Math.min(1, properties.getPriorityReserve()));
+        this.maxQueueNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, properties.getMaxQueueMillis()));
+        this.admittedHigh = decisions(meterRegistry, "admitted", "high");
+        this.admittedLow = decisions(meterRegistry, "admitted", "low");
+        this.shedHigh = decisions(meterRegistry, "shed", "high");
+        this.shedLow = decisions(meterRegistry, "shed", "low");
+        Gauge.builder("pestvision.ingest.admission.limit", limit, AdaptiveConcurrencyLimit::current)
+                .description("Current adaptive limit on detections processed at once")
+                .register(meterRegistry);
+        Gauge.builder("pestvision.ingest.admission.inflight", inFlight, AtomicInteger::get)
+                .description("Detections admitted and not yet committed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a detection, or returns {@code null} when it has to be shed. {@code queuedNanos} is how long the request
+     * already waited before reaching ingest, zero when unknown.
+     */
+    Permit tryAcquire(boolean priority, long queuedNanos) {
+        if (!enabled) {
+            return UNLIMITED;
+        }
+        if (!priority && queuedNanos > maxQueueNanos) {
+            shedLow.increment();
+            return null;
+        }
+        int current = limit.current();
+        int allowed = priority ? current : Math.max(1, (int) (current * lowPriorityShare));
+        while (true) {
+            int busy = inFlight.get();
+            if (busy >= allowed) {
+                (priority ? shedHigh : shedLow).increment();
+                return null;
+            }
+            if (inFlight.compareAndSet(busy, busy + 1)) {
+                (priority ? admittedHigh : admittedLow).increment();
+                return new Permit(this, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Suggested back-off for shed producers: about one current processing latency, at least a second.
+     */
+    long retryAfterSeconds() {
+        double seconds = limit.recentLatencyNanos() / 1e9;
+        return Math.max(1, Math.min(30, (long) Math.ceil(seconds)));
+    }
+
+    private static Counter decisions(MeterRegistry meterRegistry, String outcome, String priority) {
+        return Counter.builder("pestvision.ingest.admission")
+                .description("Ingest admission decisions")
+                .tag("outcome", outcome)
+                .tag("priority", priority)
+                .register(meterRegistry);
+    }
+
+    static class Permit {
+
+        private final IngestAdmission admission;
+        private final long acquiredAt;
+
+        private Permit(IngestAdmission admission, long acquiredAt) {
+            this.admission = admission;
+            this.acquiredAt = acquiredAt;
+        }
+
+        void release(Outcome outcome) {
+            int busy = admission.inFlight.getAndDecrement();
+            switch (outcome) {
+                case SUCCESS -> admission.limit.onSample(System.nanoTime() - acquiredAt, busy);
+                case DROPPED -> admission.limit.onDrop();
+                case IGNORED -> {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.config.PestVisionProperties;
+import com.pestvisionai.backend.dto.DetectionEnvelopeDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Makes ingest idempotent on {@code (serviceName, streamId, frameId)}, so a detection resent by the producer or a
+ * retrying proxy is answered with the original instead of being stored, enriched and sprayed again.
+ *
+ * <p>Checks run from cheapest to most expensive and stop at the first answer:
+ * <ol>
+ *     <li>a copy of the frame still being ingested is joined rather than ingested twice;</li>
+ *     <li>a {@link FrameBloomFilter} of recently stored frames rules out almost every new frame without a lookup;</li>
+ *     <li>a bounded LRU of recently stored frames answers duplicates with the original ids;</li>
+ *     <li>only a filter hit missing from the LRU, a rare false positive or an older frame, queries the database.</li>
+ * </ol>
+ * The filter only vouches for a frame captured after everything it has forgotten and after the stored frames it was
+ * {@link #seed seeded} with on startup; until seeding finishes, and for a resend of a frame older than that, a filter
+ * miss is checked against the unique index before the frame is enriched. The index itself is the backstop for copies
+ * ingested on another replica: the losing insert is turned into a duplicate answer. Detections without a
+ * {@code frameId} are never deduplicated.
+ */
+final class IngestDeduplicator {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestDeduplicator.class);
+    private static final int STRIPES = 16;
+
+    private final boolean enabled;
+    private final FrameBloomFilter filter;
+    private final RecentFrames[] recent = new RecentFrames[STRIPES];
+    private final Map<FrameKey, CompletableFuture<DetectionProcessingResult>> inFlight = new ConcurrentHashMap<>();
+    private final Function<FrameKey, StoredFrame> lookup;
+    private final Counter duplicatesInFlight;
+    private final Counter duplicatesRecent;
+    private final Counter duplicatesDatabase;
+    private final Counter duplicatesIndex;
+    private final Counter filterHits;
+    private final Counter falsePositives;
+    private final Counter unvouched;
+    private volatile long seededThrough = Long.MAX_VALUE;
+
+    IngestDeduplicator(PestVisionProperties.Ingest.Dedup properties, MeterRegistry meterRegistry,
+            Function<FrameKey, StoredFrame> lookup) {
+        this.enabled = properties.isEnabled();
+        this.filter = new FrameBloomFilter(properties.getExpectedKeys(), properties.getFalsePositiveRate());
+        int perStripe = Math.max(1, properties.getRecentKeys() / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            recent[i] = new RecentFrames(perStripe);
+        }
+        this.lookup = lookup;
+        this.duplicatesInFlight = duplicates(meterRegistry, "in-flight");
+        this.duplicatesRecent = duplicates(meterRegistry, "recent");
+        this.duplicatesDatabase = duplicates(meterRegistry, "database");
+        this.duplicatesIndex = duplicates(meterRegistry, "unique-index");
+        this.filterHits = Counter.builder("pestvision.ingest.dedup.filter.hits")
+                .description("Frames the Bloom filter could not rule out")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("pestvision.ingest.dedup.filter.false-positives")
+                .description("Filter hits that turned out to be new frames after a database lookup")
+                .register(meterRegistry);
+        this.unvouched = Counter.builder("pestvision.ingest.dedup.filter.unvouched")
+                .description("Filter misses checked in the database because the filter may not hold the frame")
+                .register(meterRegistry);
+        if (enabled) {
+            log.info("Ingest deduplication on (serviceName, streamId, frameId): {} KiB filter, {} recent frames",
+                    filter.sizeInBytes() / 1024, perStripe * STRIPES);
+        }
+    }
+
+    private static Counter duplicates(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("pestvision.ingest.duplicates")
+                .description("Detections answered with an already stored frame instead of being ingested")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Answers {@code envelope} with its original if the frame was already ingested, and otherwise ingests it through
+     * {@code ingest} and remembers the result.
+     */
+    CompletableFuture<DetectionProcessingResult> submit(DetectionEnvelopeDto envelope,
+            Supplier<CompletableFuture<DetectionProcessingResult>> ingest) {
+        FrameKey key = enabled ? FrameKey.of(envelope) : null;
+        if (key == null) {
+            return ingest.get();
+        }
+        CompletableFuture<DetectionProcessingResult> claim = new CompletableFuture<>();
+        CompletableFuture<DetectionProcessingResult> earlier = inFlight.putIfAbsent(key, claim);
+        if (earlier != null) {
+            duplicatesInFlight.increment();
+            return earlier.thenApply(IngestDeduplicator::asDuplicate);
+        }
+        long stamp = stamp(envelope);
+        CompletableFuture<DetectionProcessingResult> result;
+        try {
+            StoredFrame stored = find(key, stamp);
+            result = stored != null
+                    ? CompletableFuture.completedFuture(stored.asResult())
+                    : ingestOrFindOriginal(key, ingest);
+        } catch (RuntimeException ex) {
+            inFlight.remove(key, claim);
+            claim.completeExceptionally(ex);
+            throw ex;
+        }
+        result.whenComplete((stored, ex) -> {
+            if (stored != null && !stored.duplicate()) {
+                remember(key, new StoredFrame(stored.detection().getId(),
+                        stored.sprayEvent() == null ? null : stored.sprayEvent().getId()), stamp);
+            }
+            inFlight.remove(key, claim);
+            if (ex != null) {
+                claim.completeExceptionally(ex);
+            } else {
+                claim.complete(stored);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Adds a frame stored before this replica started, captured at {@code stamp} (epoch millis), to the filter.
+     */
+    void seed(FrameKey key, long stamp) {
+        filter.add(key.hash(), stamp);
+    }
+
+    /**
+     * Marks seeding as finished: every stored frame captured after {@code through} (epoch millis) is now in the
+     * filter or was ingested here, so a filter miss for such a frame needs no lookup.
+     */
+    void seeded(long through) {
+        seededThrough = through;
+    }
+
+    private StoredFrame find(FrameKey key, long stamp) {
+        if (!filter.mightContain(key.hash())) {
+            if (stamp > seededThrough && filter.remembers(stamp)) {
+                return null;
+            }
+            unvouched.increment();
+            return lookUp(key);
+        }
+        filterHits.increment();
+        StoredFrame stored = stripe(key).get(key);
+        if (stored != null) {
+            duplicatesRecent.increment();
+            return stored;
+        }
+        stored = lookUp(key);
+        if (stored == null) {
+            falsePositives.increment();
+        }
+        return stored;
+    }
+
+    private StoredFrame lookUp(FrameKey key) {
+        StoredFrame stored = lookup.apply(key);
+        if (stored != null) {
+            duplicatesDatabase.increment();
+            stripe(key).put(key, stored);
+        }
+        return stored;
+    }
+
+    private CompletableFuture<DetectionProcessingResult> ingestOrFindOriginal(FrameKey key,
+            Supplier<CompletableFuture<DetectionProcessingResult>> ingest) {
+        CompletableFuture<DetectionProcessingResult> future;
+        try {
+            future = ingest.get();
+        } catch (DataIntegrityViolationException ex) {
+            future = CompletableFuture.failedFuture(ex);
+        }
+        return future.exceptionally(ex -> {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof DataIntegrityViolationException) {
+                StoredFrame stored = lookup.apply(key);
+                if (stored != null) {
+                    duplicatesIndex.increment();
+                    return stored.asResult();
+                }
+            }
+            throw ex instanceof CompletionException completion ? completion : new CompletionException(cause);
+        });
+    }
+
+    private void remember(FrameKey key, StoredFrame stored, long stamp) {
+        stripe(key).put(key, stored);
+        filter.add(key.hash(), stamp);
+    }
+
+    /**
+     * The frame's capture time in epoch millis; a frame without one is never vouched for by the filter.
+     */
+    private static long stamp(DetectionEnvelopeDto envelope) {
+        Instant detectedAt = envelope.payload().detectedAt();
+        return detectedAt == null ? Long.MIN_VALUE : detectedAt.toEpochMilli();
+    }
+
+    private RecentFrames stripe(FrameKey key) {
+        return recent[(int) (key.hash() >>> 60)];
+    }
+
+    private static DetectionProcessingResult asDuplicate(DetectionProcessingResult original) {
+        return original.duplicate()
+                ? original
+                : new StoredFrame(original.detection().getId(),
+                        original.sprayEvent() == null ? null : original.sprayEvent().getId()).asResult();
+    }
+
+    record FrameKey(String serviceName, String streamId, long frameId, long hash) {
+
+        static FrameKey of(DetectionEnvelopeDto envelope) {
+            return envelope.payload() == null ? null
+                    : of(envelope.serviceName(), envelope.payload().streamId(), envelope.payload().frameId());
+        }
+
+        /**
+         * The key of a frame, or {@code null} when one of its parts is missing.
+         */
+        static FrameKey of(String serviceName, String streamId, Long frameId) {
+            if (serviceName == null || streamId == null || frameId == null) {
+                return null;
+            }
+            return new FrameKey(serviceName, streamId, frameId, FrameBloomFilter.hash(serviceName, streamId, frameId));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof FrameKey key
+                    && hash == key.hash
+                    && frameId == key.frameId
+                    && streamId.equals(key.streamId)
+                    && serviceName.equals(key.serviceName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash);
+        }
+    }
+
+    /**
+     * Ids of the detection stored for a frame and of the spray event it triggered, if any.
+     */
+    record StoredFrame(long detectionId, Long sprayEventId) {
+
+        DetectionProcessingResult asResult() {
+            return DetectionProcessingResult.duplicateOf(detectionId, sprayEventId);
+        }
+    }
+
+    /**
+     * One stripe of the recent-frame LRU.
+     */
+    private static final class RecentFrames {
+
+        private final Map<FrameKey, StoredFrame> frames;
+
+        private RecentFrames(int capacity) {
+            this.frames = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<FrameKey, StoredFrame> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        private synchronized StoredFrame get(FrameKey key) {
+            return frames.get(key);
+        }
+
+        private synchronized void put(FrameKey key, StoredFrame stored) {
+            frames.put(key, stored);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.pestvisionai.backend.service;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A detection turned away by ingest admission control. Producers should retry after {@link #retryAfterSeconds()}.
+ */
+public class IngestOverloadedException extends RejectedExecutionException {
+
+    private final long retryAfterSeconds;
+
+    public IngestOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long retryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,48 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.repository.SprayLeaseRepository;
+import java.time.Duration;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Cooldown coordinated through one row per key in {@code spray_leases}.
+ *
+ * <p>The common path is a single conditional {@code UPDATE ... WHERE lease_until <= now}; exactly one replica sees
+ * an updated row per window. The first spray for a key inserts the row instead, with {@code ON CONFLICT DO NOTHING} so
+ * that a concurrent second insert loses the claim without an error. Both statements join the caller's ingest
+ * transaction and use its connection: the lease commits or rolls back together with the spray event it allows, and a
+ * replica claiming the same key meanwhile waits on the row until that transaction ends, then re-checks it.
+ */
+public class LeaseSprayCooldownGate implements SprayCooldownGate {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaseSprayCooldownGate.class);
+
+    private final SprayLeaseRepository leaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+
+    public LeaseSprayCooldownGate(SprayLeaseRepository leaseRepository, PlatformTransactionManager transactionManager,
+            String nodeId) {
+        this.leaseRepository = leaseRepository;
+        // Joins the ingest transaction; only a caller without one gets a transaction of its own.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public boolean tryAcquire(String key, Instant now, Duration cooldown) {
+        Instant until = now.plus(cooldown);
+        Boolean acquired = transactionTemplate.execute(status ->
+                leaseRepository.claimExpired(key, nodeId, now, until) > 0
+                        || leaseRepository.insertLease(key, nodeId, until) > 0);
+        if (!Boolean.TRUE.equals(acquired)) {
+            log.debug("Spray lease for {} is held by another node", key);
+            return false;
+        }
+        return true;
+    }
+}
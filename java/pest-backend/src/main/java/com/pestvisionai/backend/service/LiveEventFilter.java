@@ -0,0 +1,47 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.dto.LiveEventDto;
+import java.util.Set;
+
+/**
+ * Server-side filter of one live stream subscription. Empty {@code streamIds} or {@code pestTypes} match everything.
+ */
+public record LiveEventFilter(
+        Set<String> streamIds,
+        Set<String> pestTypes,
+        double minConfidence,
+        boolean sprayOnly,
+        boolean surgeOnly,
+        boolean includeBoxes
+) {
+
+    public LiveEventFilter {
+        streamIds = streamIds == null ? Set.of() : Set.copyOf(streamIds);
+        pestTypes = pestTypes == null ? Set.of() : Set.copyOf(pestTypes);
+    }
+
+    public static LiveEventFilter all() {
+        return new LiveEventFilter(Set.of(), Set.of(), 0.0, false, false, true);
+    }
+
+    /**
+     * Checks every criterion. The subscription index already narrows candidates by stream and pest type, so this is
+     * the residual check on the few subscriptions it returns.
+     */
+    boolean matches(LiveEventDto event) {
+        var detection = event.detection();
+        if (!streamIds.isEmpty() && !streamIds.contains(detection.streamId())) {
+            return false;
+        }
+        if (!pestTypes.isEmpty() && !pestTypes.contains(detection.pestType())) {
+            return false;
+        }
+        if (detection.maxConfidence() < minConfidence) {
+            return false;
+        }
+        if (surgeOnly && event.surge() == null) {
+            return false;
+        }
+        return !sprayOnly || event.sprayEvent() != null;
+    }
+}
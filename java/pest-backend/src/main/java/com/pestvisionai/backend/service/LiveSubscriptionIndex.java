@@ -0,0 +1,119 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.dto.DetectionView;
+import com.pestvisionai.backend.dto.LiveEventDto;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Routes live events to the subscriptions whose filter accepts them.
+ *
+ * <p>Each subscription is indexed under exactly one key: its stream ids if it has any, otherwise its pest types,
+ * otherwise the wildcard list. An event therefore only visits the subscriptions listed under its own stream id, its
+ * own pest type and the wildcard list, and dispatch cost follows the number of plausible matches instead of the total
+ * number of subscribers. The index is an immutable snapshot swapped on every (rare) subscribe or unsubscribe, so
+ * dispatch takes no lock.
+ */
+final class LiveSubscriptionIndex<S> {
+
+    private final List<Entry<S>> entries = new ArrayList<>();
+    private volatile Snapshot<S> snapshot = Snapshot.empty();
+
+    synchronized void add(S subscriber, LiveEventFilter filter) {
+        entries.add(new Entry<>(subscriber, filter));
+        snapshot = Snapshot.of(entries);
+    }
+
+    synchronized void remove(S subscriber) {
+        entries.removeIf(entry -> entry.subscriber() == subscriber);
+        snapshot = Snapshot.of(entries);
+    }
+
+    int size() {
+        return snapshot.size();
+    }
+
+    /**
+     * Calls {@code delivery} for every subscriber whose filter matches {@code event}, passing the event with boxes
+     * removed to subscribers that did not ask for them. The stripped copy is built at most once per event.
+     */
+    void dispatch(LiveEventDto event, BiConsumer<S, LiveEventDto> delivery) {
+        Snapshot<S> current = snapshot;
+        DetectionView detection = event.detection();
+        LiveEventDto[] withoutBoxes = new LiveEventDto[1];
+        deliver(current.byStream().get(detection.streamId()), event, withoutBoxes, delivery);
+        deliver(current.byPestType().get(detection.pestType()), event, withoutBoxes, delivery);
+        deliver(current.wildcard(), event, withoutBoxes, delivery);
+    }
+
+    private static <S> void deliver(List<Entry<S>> candidates, LiveEventDto event, LiveEventDto[] withoutBoxes,
+            BiConsumer<S, LiveEventDto> delivery) {
+        if (candidates == null) {
+            return;
+        }
+        for (Entry<S> entry : candidates) {
+            if (!entry.filter().matches(event)) {
+                continue;
+            }
+            if (entry.filter().includeBoxes()) {
+                delivery.accept(entry.subscriber(), event);
+            } else {
+                if (withoutBoxes[0] == null) {
+                    withoutBoxes[0] = stripBoxes(event);
+                }
+                delivery.accept(entry.subscriber(), withoutBoxes[0]);
+            }
+        }
+    }
+
+    private static LiveEventDto stripBoxes(LiveEventDto event) {
+        DetectionView detection = event.detection();
+        DetectionView stripped = new DetectionView(
+                detection.id(),
+                detection.detectedAt(),
+                detection.streamId(),
+                detection.serviceName(),
+                detection.pestType(),
+                detection.pestCount(),
+                detection.maxConfidence(),
+                detection.snapshotPath(),
+                detection.analysisSummary(),
+                List.of());
+        return new LiveEventDto(stripped, event.sprayEvent(), event.surge());
+    }
+
+    private record Entry<S>(S subscriber, LiveEventFilter filter) {
+    }
+
+    // HashMap rather than Map.copyOf: events without a streamId or pestType look up a null key.
+    private record Snapshot<S>(
+            Map<String, List<Entry<S>>> byStream,
+            Map<String, List<Entry<S>>> byPestType,
+            List<Entry<S>> wildcard,
+            int size) {
+
+        static <S> Snapshot<S> empty() {
+            return of(List.of());
+        }
+
+        static <S> Snapshot<S> of(List<Entry<S>> entries) {
+            Map<String, List<Entry<S>>> byStream = new HashMap<>();
+            Map<String, List<Entry<S>>> byPestType = new HashMap<>();
+            List<Entry<S>> wildcard = new ArrayList<>();
+            for (Entry<S> entry : entries) {
+                LiveEventFilter filter = entry.filter();
+                if (!filter.streamIds().isEmpty()) {
+                    filter.streamIds().forEach(id -> byStream.computeIfAbsent(id, ignored -> new ArrayList<>()).add(entry));
+                } else if (!filter.pestTypes().isEmpty()) {
+                    filter.pestTypes().forEach(type -> byPestType.computeIfAbsent(type, ignored -> new ArrayList<>()).add(entry));
+                } else {
+                    wildcard.add(entry);
+                }
+            }
+            return new Snapshot<>(byStream, byPestType, wildcard, entries.size());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.pestvisionai.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cooldown state held in this JVM. Correct only while a single backend instance triggers sprays. A window opened in a
+ * transaction that does not commit is reopened, as the lease of {@link LeaseSprayCooldownGate} would be rolled back.
+ */
+public class LocalSprayCooldownGate implements SprayCooldownGate {
+
+    private final Map<String, Instant> windowEnds = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean tryAcquire(String key, Instant now, Duration cooldown) {
+        Instant until = now.plus(cooldown);
+        boolean[] acquired = new boolean[1];
+        windowEnds.compute(key, (ignored, current) -> {
+            if (current != null && now.isBefore(current)) {
+                return current;
+            }
+            acquired[0] = true;
+            return until;
+        });
+        if (acquired[0] && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        windowEnds.remove(key, until);
+                    }
+                }
+            });
+        }
+        return acquired[0];
+    }
+}
@@ -0,0 +1,9 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.model.Detection;
+
+/**
+ * A mapped and enriched detection waiting to be persisted, with the time ingest accepted it.
+ */
+public record PreparedDetection(Detection detection, long acceptedAtNanos) {
+}
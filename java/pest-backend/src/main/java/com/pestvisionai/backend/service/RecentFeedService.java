@@ -0,0 +1,150 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.config.PestVisionProperties;
+import com.pestvisionai.backend.dto.DetectionView;
+import com.pestvisionai.backend.dto.SprayEventView;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The recent-detections and recent-sprays lists behind {@code /api/detections/recent} and {@code /sprays/recent},
+ * with their ETags.
+ *
+ * <p>Each list is loaded at most once per watermark revision and shared by every request that sees the same one, so
+ * a burst of pollers woken by one change costs one query. A loaded list is also reloaded once it is older than
+ * {@code pestvision.web.recent-feed-max-age-seconds}, so a change whose cluster relay was lost shows up anyway. The
+ * ETag is a hash of the list itself, so it is the same on every replica serving the same data and validates whichever
+ * one a poller reaches. Waiting for a change is a subscription on the watermark rather than a parked thread; only the
+ * load itself runs on a worker.
+ */
+@Service
+public class RecentFeedService implements DisposableBean {
+
+    private static final int LIMIT = 20;
+
+    private final Scheduler loadScheduler = Schedulers.newBoundedElastic(
+            Math.max(2, Runtime.getRuntime().availableProcessors()), Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+            "recent-feed");
+    private final Feed<DetectionView> detections;
+    private final Feed<SprayEventView> sprays;
+    private final long maxAgeNanos;
+
+    public RecentFeedService(DetectionService detectionService, RecentFeedWatermarks watermarks,
+            PestVisionProperties properties) {
+        this.maxAgeNanos = Duration.ofSeconds(Math.max(1, properties.getWeb().getRecentFeedMaxAgeSeconds())).toNanos();
+        this.detections = new Feed<>("d", watermarks.detections(), () -> detectionService.fetchRecentViews(LIMIT));
+        this.sprays = new Feed<>("s", watermarks.sprays(), () -> detectionService.fetchRecentSprays(LIMIT));
+    }
+
+    public RecentFeed<DetectionView> detections() {
+        return detections;
+    }
+
+    public RecentFeed<SprayEventView> sprays() {
+        return sprays;
+    }
+
+    @Override
+    public void destroy() {
+        loadScheduler.dispose();
+    }
+
+    public record Snapshot<T>(String etag, List<T> items) {
+    }
+
+    public interface RecentFeed<T> {
+
+        /**
+         * Completes when the list may have changed from the one tagged {@code etag} (unquoted) or {@code timeout} has
+         * passed, whichever comes first.
+         */
+        Mono<Void> awaitChange(String etag, Duration timeout);
+
+        /**
+         * The current list and its ETag, loaded off the calling thread unless a current copy is cached.
+         */
+        Mono<Snapshot<T>> snapshot();
+    }
+
+    private final class Feed<T> implements RecentFeed<T> {
+
+        private final String prefix;
+        private final RecentFeedWatermarks.Watermark watermark;
+        private final Supplier<List<T>> loader;
+        private volatile Loaded<T> last;
+
+        private Feed(String prefix, RecentFeedWatermarks.Watermark watermark, Supplier<List<T>> loader) {
+            this.prefix = prefix;
+            this.watermark = watermark;
+            this.loader = loader;
+        }
+
+        @Override
+        public Mono<Void> awaitChange(String etag, Duration timeout) {
+            return current()
+                    .flatMap(loaded -> loaded.snapshot().etag().equals(etag)
+                            ? watermark.changedSince(loaded.revision())
+                            : Mono.<Void>empty())
+                    .timeout(timeout, Mono.empty());
+        }
+
+        @Override
+        public Mono<Snapshot<T>> snapshot() {
+            return current().map(Loaded::snapshot);
+        }
+
+        private Mono<Loaded<T>> current() {
+            Loaded<T> cached = last;
+            if (isCurrent(cached)) {
+                return Mono.just(cached);
+            }
+            return Mono.fromCallable(this::load).subscribeOn(loadScheduler);
+        }
+
+        private boolean isCurrent(Loaded<T> loaded) {
+            return loaded != null && loaded.revision() == watermark.revision()
+                    && System.nanoTime() - loaded.loadedAtNanos() < maxAgeNanos;
+        }
+
+        private synchronized Loaded<T> load() {
+            Loaded<T> cached = last;
+            if (isCurrent(cached)) {
+                return cached;
+            }
+            // Read the revision before the data: the list is then at least as new as the revision it is cached under.
+            long revision = watermark.revision();
+            List<T> items = loader.get();
+            Loaded<T> loaded = new Loaded<>(new Snapshot<>(etag(items), items), revision, System.nanoTime());
+            last = loaded;
+            if (cached != null && cached.revision() == revision
+                    && !cached.snapshot().etag().equals(loaded.snapshot().etag())) {
+                // Changed without a signal, e.g. a lost cluster relay: wake the long-polls parked on the old list.
+                watermark.bump();
+            }
+            return loaded;
+        }
+
+        private String etag(List<T> items) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256")
+                        .digest(items.toString().getBytes(StandardCharsets.UTF_8));
+                return prefix + HexFormat.of().formatHex(digest, 0, 12);
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException("SHA-256 unavailable", ex);
+            }
+        }
+    }
+
+    private record Loaded<T>(Snapshot<T> snapshot, long revision, long loadedAtNanos) {
+    }
+}
@@ -0,0 +1,99 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.cluster.ClusterEnvelope;
+import com.pestvisionai.backend.cluster.ClusterNode;
+import com.pestvisionai.backend.cluster.LiveEventBus;
+import com.pestvisionai.backend.dto.LiveEventDto;
+import com.pestvisionai.backend.dto.SprayEventView;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * In-memory change signals for the recent-detections and recent-sprays feeds.
+ *
+ * <p>Each feed has a revision counter that moves on every committed change, which covers rows that commit out of id
+ * order and spray events that change after insert (command state, acknowledgement). Revisions are advanced after
+ * commit for local ingest and from the cluster bus for changes made on other replicas, including spray command
+ * state, which is relayed on the bus for that purpose; so deciding whether a cached feed is current, or parking a
+ * long-poll, costs no query. The counter is per process and never leaves it: the ETags clients see are derived from
+ * the feed's content by {@link RecentFeedService}.
+ */
+@Component
+public class RecentFeedWatermarks {
+
+    private final Watermark detections = new Watermark();
+    private final Watermark sprays = new Watermark();
+    private final LiveEventBus liveEventBus;
+    private final String nodeId;
+
+    public RecentFeedWatermarks(LiveEventBus liveEventBus, ClusterNode clusterNode) {
+        this.liveEventBus = liveEventBus;
+        this.nodeId = clusterNode.nodeId();
+        liveEventBus.subscribe(envelope -> {
+            if (!nodeId.equals(envelope.originNode())) {
+                committed(envelope.event());
+            }
+        });
+    }
+
+    Watermark detections() {
+        return detections;
+    }
+
+    Watermark sprays() {
+        return sprays;
+    }
+
+    /**
+     * Records a detection (and its spray event, if any) whose transaction has committed.
+     */
+    void committed(LiveEventDto event) {
+        if (event.detection() != null) {
+            detections.bump();
+        }
+        if (event.sprayEvent() != null) {
+            sprays.bump();
+        }
+    }
+
+    /**
+     * Records a change to an existing spray event, such as a command acknowledgement, and relays it to the other
+     * replicas as an event carrying only {@code update}.
+     */
+    void sprayUpdated(SprayEventView update) {
+        sprays.bump();
+        liveEventBus.publish(new ClusterEnvelope(nodeId, new LiveEventDto(null, update, null)));
+    }
+
+    static final class Watermark {
+
+        private final AtomicLong revision = new AtomicLong();
+        private final AtomicReference<Sinks.One<Void>> changed = new AtomicReference<>(Sinks.one());
+
+        long revision() {
+            return revision.get();
+        }
+
+        /**
+         * Completes as soon as the revision differs from {@code seen}, immediately if it already does. Nothing is held
+         * while waiting other than the subscription itself.
+         */
+        Mono<Void> changedSince(long seen) {
+            // Take the signal before reading the revision: a change racing with this call then completes the signal
+            // we are about to wait on.
+            Sinks.One<Void> signal = changed.get();
+            if (revision.get() != seen) {
+                return Mono.empty();
+            }
+            return signal.asMono();
+        }
+
+        void bump() {
+            revision.incrementAndGet();
+            changed.getAndSet(Sinks.one()).tryEmitEmpty();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.pestvisionai.backend.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finished reports on disk, one {@code <key>.xlsx} per parameter set and data watermark. Reads refresh a file's
+ * modification time and the least recently used files are deleted once the directory grows past its byte budget.
+ * Entries survive restarts because the directory is rescanned on startup.
+ *
+ * <p>A download pins its entry for as long as it streams the file, and eviction skips pinned entries, so the
+ * directory can stay over budget until they are released rather than lose a file mid-download.
+ */
+final class ReportCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportCache.class);
+    private static final String SUFFIX = ".xlsx";
+
+    private final Path directory;
+    private final long maxBytes;
+    // Guarded by this: number of downloads streaming each key.
+    private final Map<String, Integer> readers = new HashMap<>();
+
+    ReportCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(directory);
+            // Leftovers from reports that were being written when the process stopped.
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(path -> path.getFileName().toString().endsWith(".tmp")).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to prepare report cache " + directory, ex);
+        }
+    }
+
+    Optional<Path> get(String key) {
+        Path file = fileFor(key);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+        } catch (IOException ex) {
+            log.debug("Could not touch cached report {}: {}", key, ex.getMessage());
+        }
+        return Optional.of(file);
+    }
+
+    /**
+     * Pins the entry for {@code key} against eviction until {@link #unpin}; fails if it is not (or no longer) cached.
+     */
+    synchronized Path pin(String key) throws NoSuchFileException {
+        Path file = fileFor(key);
+        if (!Files.isRegularFile(file)) {
+            throw new NoSuchFileException(file.toString(), null, "report is no longer cached");
+        }
+        readers.merge(key, 1, Integer::sum);
+        return file;
+    }
+
+    synchronized void unpin(String key) {
+        readers.computeIfPresent(key, (ignored, count) -> count == 1 ? null : count - 1);
+    }
+
+    /**
+     * Temporary file in the cache directory for a report being written; {@link #commit} moves it into place.
+     */
+    Path newTempFile(String key) throws IOException {
+        return Files.createTempFile(directory, key + "-", ".tmp");
+    }
+
+    synchronized Path commit(String key, Path tempFile) throws IOException {
+        Path file = fileFor(key);
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        evict(file);
+        return file;
+    }
+
+    private void evict(Path keep) throws IOException {
+        List<Path> entries;
+        try (Stream<Path> files = Files.list(directory)) {
+            entries = files.filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted(Comparator.comparing(ReportCache::lastModified))
+                    .toList();
+        }
+        long total = 0;
+        for (Path entry : entries) {
+            total += Files.size(entry);
+        }
+        for (Path entry : entries) {
+            if (total <= maxBytes) {
+                break;
+            }
+            if (!entry.equals(keep) && !readers.containsKey(keyOf(entry))) {
+                total -= Files.size(entry);
+                Files.deleteIfExists(entry);
+                log.debug("Evicted cached report {}", entry.getFileName());
+            }
+        }
+    }
+
+    private Path fileFor(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    private static String keyOf(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.length() - SUFFIX.length());
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException ex) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.pestvisionai.backend.model.Detection;
 import com.pestvisionai.backend.repository.DetectionRepository;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -13,6 +14,7 @@ import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,6 +25,9 @@ public class ReportExportService {
 
     private static final Logger log = LoggerFactory.getLogger(ReportExportService.class);
     private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+    private static final int STREAMING_WINDOW_ROWS = 100;
+    // Widths in characters for the streaming writer, matching what auto-sizing picks for typical rows.
+    private static final int[] STREAMING_COLUMN_WIDTHS = {26, 14, 16, 12, 8, 15, 60, 48};
 
     private final DetectionRepository detectionRepository;
 
@@ -35,11 +40,14 @@ public class ReportExportService {
         if (detections.size() > limit) {
             detections = detections.subList(0, limit);
         }
+        return writeWorkbook(detections);
+    }
 
+    byte[] writeWorkbook(List<Detection> detections) {
         try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
             Sheet sheet = workbook.createSheet("Detections");
             buildHeaderRow(sheet);
-            populateRows(sheet, detections);
+            populateRows(sheet, detections, new AtomicInteger(1), wrapStyle(workbook));
             for (int i = 0; i < 8; i++) {
                 sheet.autoSizeColumn(i);
             }
@@ -51,6 +59,37 @@ public class ReportExportService {
         }
     }
 
+    /**
+     * Writes a report of any size to {@code outputStream}, consuming {@code chunks} one at a time. Only a window of
+     * rows is kept in memory, so column widths are fixed rather than auto-sized. Returns the number of data rows.
+     */
+    int writeWorkbook(Iterable<List<Detection>> chunks, OutputStream outputStream) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(STREAMING_WINDOW_ROWS);
+        try {
+            Sheet sheet = workbook.createSheet("Detections");
+            buildHeaderRow(sheet);
+            AtomicInteger rowIndex = new AtomicInteger(1);
+            CellStyle wrapStyle = wrapStyle(workbook);
+            for (List<Detection> chunk : chunks) {
+                populateRows(sheet, chunk, rowIndex, wrapStyle);
+            }
+            for (int i = 0; i < STREAMING_COLUMN_WIDTHS.length; i++) {
+                sheet.setColumnWidth(i, STREAMING_COLUMN_WIDTHS[i] * 256);
+            }
+            workbook.write(outputStream);
+            return rowIndex.get() - 1;
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private CellStyle wrapStyle(Workbook workbook) {
+        CellStyle wrapStyle = workbook.createCellStyle();
+        wrapStyle.setWrapText(true);
+        return wrapStyle;
+    }
+
     private void buildHeaderRow(Sheet sheet) {
         Row header = sheet.createRow(0);
         String[] labels = new String[] {
@@ -69,10 +108,7 @@ public class ReportExportService {
         }
     }
 
-    private void populateRows(Sheet sheet, List<Detection> detections) {
-        AtomicInteger rowIndex = new AtomicInteger(1);
-        CellStyle wrapStyle = sheet.getWorkbook().createCellStyle();
-        wrapStyle.setWrapText(true);
+    private void populateRows(Sheet sheet, List<Detection> detections, AtomicInteger rowIndex, CellStyle wrapStyle) {
         detections.forEach(detection -> {
             Row row = sheet.createRow(rowIndex.getAndIncrement());
             int col = 0;
@@ -0,0 +1,89 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.dto.ReportJobView;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * State of one background report, shared by every caller that submitted the same parameters.
+ */
+final class ReportJob {
+
+    enum Status {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+
+    private final String id;
+    private final ReportJobService.ReportParameters parameters;
+    private final Instant submittedAt;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant finishedAt;
+    private volatile Integer rows;
+    private volatile Long sizeBytes;
+    private volatile String error;
+
+    ReportJob(String id, ReportJobService.ReportParameters parameters) {
+        this(id, parameters, Instant.now());
+    }
+
+    private ReportJob(String id, ReportJobService.ReportParameters parameters, Instant submittedAt) {
+        this.id = id;
+        this.parameters = parameters;
+        this.submittedAt = submittedAt;
+    }
+
+    /**
+     * A job whose artifact is already in the cache; nothing is known about it beyond its id.
+     */
+    static ReportJob cached(String id) {
+        ReportJob job = new ReportJob(id, null, null);
+        job.status = Status.DONE;
+        return job;
+    }
+
+    String id() {
+        return id;
+    }
+
+    ReportJobService.ReportParameters parameters() {
+        return parameters;
+    }
+
+    Status status() {
+        return status;
+    }
+
+    Instant finishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Returns {@code true} exactly once, for the caller that must hand the job to the executor.
+     */
+    boolean markScheduled() {
+        return scheduled.compareAndSet(false, true);
+    }
+
+    void markRunning() {
+        status = Status.RUNNING;
+    }
+
+    void markDone(Integer rows, long sizeBytes) {
+        this.rows = rows;
+        this.sizeBytes = sizeBytes;
+        this.finishedAt = Instant.now();
+        this.status = Status.DONE;
+    }
+
+    void markFailed(String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.status = Status.FAILED;
+    }
+
+    ReportJobView view() {
+        String downloadUrl = status == Status.DONE ? "/api/reports/jobs/" + id + "/download" : null;
+        return new ReportJobView(id, status.name(), submittedAt, finishedAt, rows, sizeBytes, error, downloadUrl);
+    }
+}
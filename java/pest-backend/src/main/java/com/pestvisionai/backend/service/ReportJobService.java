@@ -0,0 +1,256 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.config.PestVisionProperties;
+import com.pestvisionai.backend.dto.ReportJobRequest;
+import com.pestvisionai.backend.dto.ReportJobView;
+import com.pestvisionai.backend.model.Detection;
+import com.pestvisionai.backend.repository.DetectionRepository;
+import com.pestvisionai.backend.repository.ReportWatermark;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+/**
+ * Generates detection reports in the background.
+ *
+ * <p>A job's id is derived from its parameters and the current data watermark of the requested range, so identical
+ * requests submitted while nothing changed map to the same job and are generated once, and a finished id doubles as
+ * the cache key and ETag of the artifact. Jobs run on a small pool of low-priority threads
+ * ({@code pestvision.reports.max-parallel}) with a bounded queue, so report generation cannot take over the CPU or
+ * the connection pool from ingest.
+ *
+ * <p>A failed job stays visible to pollers for {@link #FAILED_RETENTION} and is then evicted; submitting the same
+ * parameters again replaces it with a fresh attempt at any time.
+ */
+@Service
+public class ReportJobService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+    private static final Pattern JOB_ID = Pattern.compile("[0-9a-f]{32}");
+    private static final Instant OPEN_START = Instant.EPOCH;
+    private static final Instant OPEN_END = Instant.parse("9999-12-31T00:00:00Z");
+    private static final int CHUNK_SIZE = 1_000;
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    static final Duration FAILED_RETENTION = Duration.ofMinutes(15);
+
+    private final DetectionRepository detectionRepository;
+    private final ReportExportService reportExportService;
+    private final ReportCache cache;
+    private final ThreadPoolTaskExecutor executor;
+    private final int maxRows;
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    public ReportJobService(DetectionRepository detectionRepository, ReportExportService reportExportService,
+            PestVisionProperties properties) {
+        this.detectionRepository = detectionRepository;
+        this.reportExportService = reportExportService;
+        PestVisionProperties.Reports reports = properties.getReports();
+        this.cache = new ReportCache(Path.of(reports.getCacheDir()), reports.getCacheMaxMegabytes() * 1024 * 1024);
+        this.maxRows = Math.max(1, reports.getMaxRows());
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setThreadNamePrefix("report-");
+        pool.setThreadPriority(Thread.MIN_PRIORITY);
+        pool.setCorePoolSize(Math.max(1, reports.getMaxParallel()));
+        pool.setMaxPoolSize(Math.max(1, reports.getMaxParallel()));
+        pool.setQueueCapacity(Math.max(0, reports.getQueueCapacity()));
+        pool.initialize();
+        this.executor = pool;
+    }
+
+    /**
+     * Returns the job for {@code request}: an already cached artifact, a job for the same parameters and data that is
+     * still running, or a newly queued one. Throws {@link RejectedExecutionException} when the queue is full.
+     */
+    public ReportJobView submit(ReportJobRequest request) {
+        evictFailed(Instant.now().minus(FAILED_RETENTION));
+        ReportParameters parameters = ReportParameters.of(request, maxRows);
+        ReportWatermark watermark = detectionRepository.reportWatermark(
+                parameters.from(), parameters.to(), parameters.streamId());
+        String id = jobId(parameters, watermark);
+        if (cache.get(id).isPresent()) {
+            return ReportJob.cached(id).view();
+        }
+        ReportJob job = jobs.compute(id, (key, existing) ->
+                existing == null || existing.status() == ReportJob.Status.FAILED ? new ReportJob(key, parameters) : existing);
+        if (job.markScheduled()) {
+            try {
+                executor.execute(() -> run(job));
+            } catch (RejectedExecutionException ex) {
+                jobs.remove(id, job);
+                throw ex;
+            }
+        }
+        return job.view();
+    }
+
+    public Optional<ReportJobView> status(String id) {
+        if (!JOB_ID.matcher(id).matches()) {
+            return Optional.empty();
+        }
+        ReportJob job = jobs.get(id);
+        if (job != null) {
+            return Optional.of(job.view());
+        }
+        return cache.get(id).map(ignored -> ReportJob.cached(id).view());
+    }
+
+    /**
+     * The finished artifact of job {@code id}, if it is (still) cached.
+     */
+    public Optional<Path> artifact(String id) {
+        if (!JOB_ID.matcher(id).matches()) {
+            return Optional.empty();
+        }
+        return cache.get(id);
+    }
+
+    /**
+     * Streams the artifact of job {@code id}. The file is pinned in the cache from subscription until the stream
+     * completes, fails or is cancelled, so eviction cannot delete it mid-download; the stream fails with
+     * {@link java.nio.file.NoSuchFileException} if the file was evicted before it started.
+     */
+    public Flux<DataBuffer> read(String id, DataBufferFactory bufferFactory) {
+        return Flux.using(() -> cache.pin(id),
+                file -> DataBufferUtils.read(file, bufferFactory, READ_BUFFER_BYTES),
+                file -> cache.unpin(id));
+    }
+
+    private void run(ReportJob job) {
+        job.markRunning();
+        Path temp = null;
+        try {
+            Optional<Path> cached = cache.get(job.id());
+            if (cached.isPresent()) {
+                // Lost a race with an identical job that finished between submit's cache check and now.
+                job.markDone(null, Files.size(cached.get()));
+                jobs.remove(job.id(), job);
+                return;
+            }
+            ReportParameters parameters = job.parameters();
+            List<Long> ids = detectionRepository.findReportIds(parameters.from(), parameters.to(),
+                    parameters.streamId(), PageRequest.of(0, parameters.limit()));
+            temp = cache.newTempFile(job.id());
+            int rows;
+            try (OutputStream outputStream = Files.newOutputStream(temp)) {
+                rows = reportExportService.writeWorkbook(chunks(ids), outputStream);
+            }
+            Path file = cache.commit(job.id(), temp);
+            job.markDone(rows, Files.size(file));
+            log.info("Report {} finished: {} rows, {} bytes", job.id(), rows, Files.size(file));
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Report {} failed", job.id(), ex);
+            job.markFailed(ex.getMessage());
+            deleteQuietly(temp);
+            return;
+        }
+        // Once the artifact is in the cache, status lookups are served from there.
+        jobs.remove(job.id(), job);
+    }
+
+    /**
+     * Drops failed jobs that finished before {@code cutoff}. Every other job leaves the map when it finishes or is
+     * rejected, so the map stays bounded by the executor's capacity plus the failures of the retention window.
+     */
+    private void evictFailed(Instant cutoff) {
+        jobs.values().removeIf(job -> job.status() == ReportJob.Status.FAILED && job.finishedAt().isBefore(cutoff));
+    }
+
+    /**
+     * Loads the detections of {@code ids} a chunk at a time, with their boxes, in report order.
+     */
+    private Iterable<List<Detection>> chunks(List<Long> ids) {
+        return () -> new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < ids.size();
+            }
+
+            @Override
+            public List<Detection> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<Long> chunkIds = ids.subList(next, Math.min(next + CHUNK_SIZE, ids.size()));
+                next += chunkIds.size();
+                Map<Long, Integer> order = new HashMap<>(chunkIds.size() * 2);
+                for (int i = 0; i < chunkIds.size(); i++) {
+                    order.put(chunkIds.get(i), i);
+                }
+                List<Detection> chunk = new ArrayList<>(detectionRepository.findWithBoxesByIdIn(chunkIds));
+                chunk.sort(Comparator.comparing(detection -> order.get(detection.getId())));
+                return chunk;
+            }
+        };
+    }
+
+    private static String jobId(ReportParameters parameters, ReportWatermark watermark) {
+        String canonical = parameters.canonical() + "|maxId=" + watermark.maxId() + "|count=" + watermark.count();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 unavailable", ex);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.debug("Could not delete {}: {}", file, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    record ReportParameters(Instant from, Instant to, String streamId, int limit) {
+
+        static ReportParameters of(ReportJobRequest request, int maxRows) {
+            Instant from = request.from() == null ? OPEN_START : request.from();
+            Instant to = request.to() == null ? OPEN_END : request.to();
+            String streamId = request.streamId() == null || request.streamId().isBlank() ? null : request.streamId();
+            int limit = request.limit() == null ? maxRows : Math.max(1, Math.min(request.limit(), maxRows));
+            return new ReportParameters(from, to, streamId, limit);
+        }
+
+        String canonical() {
+            return "from=" + from + "|to=" + to + "|stream=" + streamId + "|limit=" + limit;
+        }
+    }
+}
@@ -1,16 +1,301 @@
 package com.pestvisionai.backend.service;
 
+import com.pestvisionai.backend.config.PestVisionProperties;
+import com.pestvisionai.backend.dto.SprayEventView;
 import com.pestvisionai.backend.model.Detection;
+import com.pestvisionai.backend.model.SprayCommandStatus;
+import com.pestvisionai.backend.model.SprayEvent;
+import com.pestvisionai.backend.repository.SprayEventRepository;
+import com.pestvisionai.backend.spray.SprayAck;
+import com.pestvisionai.backend.spray.SprayCommand;
+import com.pestvisionai.backend.spray.SprayTransport;
+import com.pestvisionai.backend.spray.SprayTransportFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Non-blocking dispatcher for spray actuator commands.
+ *
+ * <p>{@link #triggerSpray} only enqueues: the command is handed to the target device's bounded queue once the
+ * surrounding transaction has committed, so device I/O never runs on the ingest path or while DB locks are held.
+ * Each device has a single worker thread that sends commands in order over its {@link SprayTransport}, waits for the
+ * acknowledgement, retries timeouts with linear back-off and writes the resulting state back to the
+ * {@link SprayEvent}.
+ */
 @Component
-public class SprayControllerClient {
+public class SprayControllerClient implements DisposableBean {
 
     private static final Logger log = LoggerFactory.getLogger(SprayControllerClient.class);
 
-    public void triggerSpray(Detection detection) {
-        log.info("[Spray] Triggered for detection {} with confidence {}", detection.getId(), detection.getMaxConfidence());
+    private final SprayEventRepository sprayEventRepository;
+    private final RecentFeedWatermarks feedWatermarks;
+    private final SprayTransportFactory transportFactory;
+    private final MeterRegistry meterRegistry;
+    private final PestVisionProperties.Spray properties;
+    private final Duration ackTimeout;
+    private final Map<String, DeviceChannel> channels = new ConcurrentHashMap<>();
+    private final Timer actuationLatency;
+    private final Timer acknowledgementLatency;
+    private volatile boolean running = true;
+
+    public SprayControllerClient(
+            SprayEventRepository sprayEventRepository,
+            RecentFeedWatermarks feedWatermarks,
+            SprayTransportFactory transportFactory,
+            MeterRegistry meterRegistry,
+            PestVisionProperties properties) {
+        this.sprayEventRepository = sprayEventRepository;
+        this.feedWatermarks = feedWatermarks;
+        this.transportFactory = transportFactory;
+        this.meterRegistry = meterRegistry;
+        this.properties = properties.getSpray();
+        this.ackTimeout = Duration.ofMillis(this.properties.getAckTimeoutMillis());
+        this.actuationLatency = Timer.builder("pestvision.spray.actuation.latency")
+                .description("Time from accepting a detection to writing its spray command to the device")
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(meterRegistry);
+        this.acknowledgementLatency = Timer.builder("pestvision.spray.ack.latency")
+                .description("Time from writing a spray command to receiving the device acknowledgement")
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resolves the device that serves {@code streamId}.
+     */
+    public String deviceFor(String streamId) {
+        return properties.getStreamDevices().getOrDefault(streamId, properties.getDefaultDevice());
+    }
+
+    /**
+     * Schedules the actuator command for a persisted {@code sprayEvent}. When called inside a transaction the command
+     * is queued after commit and discarded on rollback; otherwise it is queued immediately.
+     */
+    public void triggerSpray(Detection detection, SprayEvent sprayEvent, long acceptedAtNanos) {
+        SprayCommand command = new SprayCommand(
+                UUID.randomUUID().toString(),
+                sprayEvent.getDeviceId(),
+                sprayEvent.getId(),
+                detection.getId(),
+                detection.getStreamId(),
+                detection.getMaxConfidence(),
+                properties.getSprayDurationMillis(),
+                acceptedAtNanos);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(command);
+                }
+            });
+        } else {
+            enqueue(command);
+        }
+    }
+
+    private void enqueue(SprayCommand command) {
+        while (running) {
+            switch (channelFor(command.deviceId()).offer(command)) {
+                case QUEUED:
+                    return;
+                case FULL:
+                    log.warn("[Spray] Queue for device {} is full; dropping command for detection {}",
+                            command.deviceId(), command.detectionId());
+                    outcome(command.deviceId(), "dropped").increment();
+                    updateState(command, SprayCommandStatus.DROPPED, 0, null, null, null, "Device queue full");
+                    return;
+                case CLOSED:
+                default:
+                    // The channel's worker just stopped; the next pass starts a new one.
+                    break;
+            }
+        }
+        failQueued(command.deviceId(), List.of(command), "Spray dispatcher is shutting down");
+    }
+
+    private DeviceChannel channelFor(String deviceId) {
+        DeviceChannel channel = channels.get(deviceId);
+        if (channel != null) {
+            return channel;
+        }
+        DeviceChannel created = new DeviceChannel(deviceId);
+        channel = channels.putIfAbsent(deviceId, created);
+        if (channel != null) {
+            return channel;
+        }
+        // Registered once per device; it reads whichever channel currently serves the device.
+        Gauge.builder("pestvision.spray.queue.depth", channels, current -> {
+                    DeviceChannel serving = current.get(deviceId);
+                    return serving == null ? 0 : serving.queue.size();
+                })
+                .description("Spray commands waiting for the device")
+                .tag("device", deviceId)
+                .register(meterRegistry);
+        created.worker.start();
+        return created;
+    }
+
+    /**
+     * Marks commands that never reached the device as failed, so they do not stay {@code QUEUED}.
+     */
+    private void failQueued(String deviceId, List<SprayCommand> commands, String error) {
+        if (commands.isEmpty()) {
+            return;
+        }
+        log.warn("[Spray] Failing {} queued command(s) for device {}: {}", commands.size(), deviceId, error);
+        for (SprayCommand command : commands) {
+            outcome(deviceId, "failed").increment();
+            updateState(command, SprayCommandStatus.FAILED, 0, null, null, null, error);
+        }
+    }
+
+    private void updateState(SprayCommand command, SprayCommandStatus status, int attempts, Instant sentAt,
+            Instant acknowledgedAt, Long actuationLatencyMillis, String error) {
+        try {
+            sprayEventRepository.updateCommandState(command.sprayEventId(), status, attempts, sentAt, acknowledgedAt,
+                    actuationLatencyMillis, error == null || error.length() <= 512 ? error : error.substring(0, 512));
+            feedWatermarks.sprayUpdated(new SprayEventView(command.sprayEventId(), null, null, command.confidence(),
+                    command.detectionId(), command.deviceId(), status.name(), attempts, acknowledgedAt,
+                    actuationLatencyMillis));
+        } catch (RuntimeException ex) {
+            log.warn("[Spray] Unable to record state {} for spray event {}: {}", status, command.sprayEventId(), ex.getMessage());
+        }
+    }
+
+    private Counter outcome(String deviceId, String outcome) {
+        return Counter.builder("pestvision.spray.commands")
+                .description("Spray commands by final outcome")
+                .tag("device", deviceId)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        for (DeviceChannel channel : channels.values()) {
+            channel.worker.interrupt();
+            failQueued(channel.deviceId, channel.close(), "Spray dispatcher shut down");
+        }
+    }
+
+    private enum Offer {
+        QUEUED,
+        FULL,
+        CLOSED
+    }
+
+    private final class DeviceChannel implements Runnable {
+
+        private final String deviceId;
+        private final BlockingQueue<SprayCommand> queue;
+        private final Thread worker;
+        private boolean closed;
+
+        private DeviceChannel(String deviceId) {
+            this.deviceId = deviceId;
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+            this.worker = new Thread(this, "spray-" + deviceId);
+            this.worker.setDaemon(true);
+        }
+
+        private synchronized Offer offer(SprayCommand command) {
+            if (closed) {
+                return Offer.CLOSED;
+            }
+            return queue.offer(command) ? Offer.QUEUED : Offer.FULL;
+        }
+
+        /**
+         * Stops accepting commands and returns those still waiting.
+         */
+        private synchronized List<SprayCommand> close() {
+            closed = true;
+            List<SprayCommand> pending = new ArrayList<>();
+            queue.drainTo(pending);
+            return pending;
+        }
+
+        @Override
+        public void run() {
+            String error = "Spray dispatcher shut down";
+            try (SprayTransport transport = transportFactory.create(deviceId)) {
+                while (running) {
+                    SprayCommand command = queue.take();
+                    deliver(transport, command);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException ex) {
+                log.error("[Spray] Dispatcher for device {} stopped", deviceId, ex);
+                error = "Dispatcher stopped: " + ex.getMessage();
+            } finally {
+                channels.remove(deviceId, this);
+                failQueued(deviceId, close(), error);
+            }
+        }
+
+        private void deliver(SprayTransport transport, SprayCommand command) throws InterruptedException {
+            int maxAttempts = Math.max(1, properties.getMaxAttempts());
+            Instant firstSentAt = null;
+            Long actuationMillis = null;
+            String lastError = null;
+            for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+                long sentNanos = System.nanoTime();
+                if (firstSentAt == null) {
+                    firstSentAt = Instant.now();
+                    long actuationNanos = sentNanos - command.acceptedAtNanos();
+                    actuationLatency.record(actuationNanos, TimeUnit.NANOSECONDS);
+                    actuationMillis = TimeUnit.NANOSECONDS.toMillis(actuationNanos);
+                    updateState(command, SprayCommandStatus.SENT, attempt, firstSentAt, null, actuationMillis, null);
+                }
+                try {
+                    SprayAck ack = transport.send(command, ackTimeout);
+                    acknowledgementLatency.record(System.nanoTime() - sentNanos, TimeUnit.NANOSECONDS);
+                    if (ack.accepted()) {
+                        log.info("[Spray] Device {} acknowledged detection {} after {} attempt(s)",
+                                deviceId, command.detectionId(), attempt);
+                        outcome(deviceId, "acknowledged").increment();
+                        updateState(command, SprayCommandStatus.ACKNOWLEDGED, attempt, firstSentAt, Instant.now(),
+                                actuationMillis, null);
+                    } else {
+                        log.warn("[Spray] Device {} rejected detection {}: {}", deviceId, command.detectionId(), ack.message());
+                        outcome(deviceId, "rejected").increment();
+                        updateState(command, SprayCommandStatus.FAILED, attempt, firstSentAt, null, actuationMillis,
+                                "Rejected by device: " + ack.message());
+                    }
+                    return;
+                } catch (TimeoutException | IOException | RuntimeException ex) {
+                    lastError = ex.getMessage();
+                    log.warn("[Spray] Attempt {}/{} to device {} failed: {}", attempt, maxAttempts, deviceId, lastError);
+                    if (attempt < maxAttempts) {
+                        outcome(deviceId, "retried").increment();
+                        Thread.sleep(properties.getRetryBackoffMillis() * attempt);
+                    }
+                }
+            }
+            outcome(deviceId, "failed").increment();
+            updateState(command, SprayCommandStatus.FAILED, maxAttempts, firstSentAt, null, actuationMillis, lastError);
+        }
     }
 }
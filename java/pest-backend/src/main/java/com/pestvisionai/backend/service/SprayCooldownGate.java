@@ -0,0 +1,16 @@
+package com.pestvisionai.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Decides whether a spray may be triggered for a cooldown key, and if so starts a new cooldown window for it.
+ */
+public interface SprayCooldownGate {
+
+    /**
+     * Returns {@code true} and starts a cooldown of {@code cooldown} from {@code now} if no window for {@code key} is
+     * active; returns {@code false} otherwise.
+     */
+    boolean tryAcquire(String key, Instant now, Duration cooldown);
+}
@@ -0,0 +1,291 @@
+package com.pestvisionai.backend.service;
+
+import java.util.Arrays;
+
+/**
+ * Online baseline of pest count and confidence per (streamId, pestType), used to spot surges without looking at
+ * history.
+ *
+ * <p>Each key keeps an exponentially weighted mean and variance of both metrics in parallel primitive arrays of an
+ * open-addressing table, so an observation is a hash probe plus a few multiplications and allocates nothing once its
+ * key is known. Keys are spread over {@value #STRIPES} independently locked stripes, which keeps concurrent ingest
+ * threads on different cameras from contending. A detection is a surge when its pest count is at least
+ * {@code threshold} deviations above the baseline, or its confidence that far from it in either direction, measured
+ * against the baseline before the detection is folded in. Keys need {@code warmupSamples} observations before they can
+ * alert, and alert at most once per {@code cooldownSeconds}. Assessing a detection and folding it in are separate
+ * steps, so that only detections that end up stored train the baseline.
+ */
+final class SurgeDetector {
+
+    static final String PEST_COUNT = "pestCount";
+    static final String MAX_CONFIDENCE = "maxConfidence";
+    private static final int STRIPES = 16;
+    private static final int INITIAL_STRIPE_CAPACITY = 16;
+
+    private final double smoothing;
+    private final double threshold;
+    private final long warmupSamples;
+    private final double minCountDeviation;
+    private final double minConfidenceDeviation;
+    private final long cooldownSeconds;
+    private final int maxKeysPerStripe;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    SurgeDetector(double smoothing, double threshold, long warmupSamples, double minCountDeviation,
+            double minConfidenceDeviation, long cooldownSeconds, int maxKeys) {
+        this.smoothing = Math.min(1.0, Math.max(1e-6, smoothing));
+        this.threshold = threshold;
+        this.warmupSamples = Math.max(1, warmupSamples);
+        this.minCountDeviation = minCountDeviation;
+        this.minConfidenceDeviation = minConfidenceDeviation;
+        this.cooldownSeconds = cooldownSeconds;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Compares one detection with its key's baseline without folding it in. Returns the surge it represents, or
+     * {@code null} when it is within the baseline or the key is still warming up or in cooldown. A returned surge starts
+     * the key's alert cooldown; {@link #withdraw} gives it back.
+     */
+    Surge assess(String streamId, String pestType, int pestCount, double confidence, long nowSecond) {
+        String stream = streamId == null ? "" : streamId;
+        String pest = pestType == null ? "" : pestType;
+        int hash = hash(stream, pest);
+        Stripe stripe = stripes[hash & (STRIPES - 1)];
+        synchronized (stripe) {
+            int slot = stripe.slot(stream, pest, hash, maxKeysPerStripe);
+            return slot < 0 ? null : assess(stripe, slot, stream, pest, pestCount, confidence, nowSecond);
+        }
+    }
+
+    /**
+     * Folds one detection into its key's baseline.
+     */
+    void observe(String streamId, String pestType, int pestCount, double confidence) {
+        String stream = streamId == null ? "" : streamId;
+        String pest = pestType == null ? "" : pestType;
+        int hash = hash(stream, pest);
+        Stripe stripe = stripes[hash & (STRIPES - 1)];
+        synchronized (stripe) {
+            int slot = stripe.slot(stream, pest, hash, maxKeysPerStripe);
+            if (slot >= 0) {
+                fold(stripe, slot, pestCount, confidence);
+            }
+        }
+    }
+
+    /**
+     * Ends the alert cooldown that {@code surge} started, for a detection that was not stored after all. Nothing
+     * changes if the key has alerted again since.
+     */
+    void withdraw(Surge surge) {
+        int hash = hash(surge.streamId(), surge.pestType());
+        Stripe stripe = stripes[hash & (STRIPES - 1)];
+        synchronized (stripe) {
+            int slot = stripe.find(surge.streamId(), surge.pestType(), hash);
+            if (slot >= 0 && stripe.lastAlertSecond[slot] == surge.raisedSecond()) {
+                stripe.lastAlertSecond[slot] = surge.previousAlertSecond();
+            }
+        }
+    }
+
+    /**
+     * Keys being tracked.
+     */
+    int size() {
+        int keys = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                keys += stripe.size;
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Keys not tracked because the table was full.
+     */
+    long untracked() {
+        long dropped = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                dropped += stripe.rejected;
+            }
+        }
+        return dropped;
+    }
+
+    private static int hash(String stream, String pest) {
+        int hash = stream.hashCode() * 31 + pest.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private Surge assess(Stripe stripe, int slot, String stream, String pest, int pestCount, double confidence,
+            long nowSecond) {
+        double countMean = stripe.countMean[slot];
+        double countDeviation = Math.max(minCountDeviation, Math.sqrt(stripe.countVariance[slot]));
+        double confidenceMean = stripe.confidenceMean[slot];
+        double confidenceDeviation = Math.max(minConfidenceDeviation, Math.sqrt(stripe.confidenceVariance[slot]));
+        double countScore = (pestCount - countMean) / countDeviation;
+        double confidenceScore = Math.abs(confidence - confidenceMean) / confidenceDeviation;
+        long previousAlertSecond = stripe.lastAlertSecond[slot];
+        if (stripe.samples[slot] < warmupSamples || (countScore < threshold && confidenceScore < threshold)
+                || nowSecond < previousAlertSecond + cooldownSeconds) {
+            return null;
+        }
+        stripe.lastAlertSecond[slot] = nowSecond;
+        return countScore >= confidenceScore
+                ? new Surge(stream, pest, PEST_COUNT, pestCount, countMean, countDeviation, countScore, nowSecond,
+                        previousAlertSecond)
+                : new Surge(stream, pest, MAX_CONFIDENCE, confidence, confidenceMean, confidenceDeviation,
+                        (confidence - confidenceMean) / confidenceDeviation, nowSecond, previousAlertSecond);
+    }
+
+    private void fold(Stripe stripe, int slot, int pestCount, double confidence) {
+        long samples = stripe.samples[slot];
+        // Until the weight 1/n drops below the smoothing factor this is a plain running mean, so the baseline
+        // does not lean towards the very first observation.
+        double weight = Math.max(smoothing, 1.0 / (samples + 1));
+        stripe.samples[slot] = samples + 1;
+        double countMean = stripe.countMean[slot];
+        double countDiff = pestCount - countMean;
+        stripe.countMean[slot] = countMean + weight * countDiff;
+        stripe.countVariance[slot] = (1 - weight) * (stripe.countVariance[slot] + weight * countDiff * countDiff);
+        double confidenceMean = stripe.confidenceMean[slot];
+        double confidenceDiff = confidence - confidenceMean;
+        stripe.confidenceMean[slot] = confidenceMean + weight * confidenceDiff;
+        stripe.confidenceVariance[slot] = (1 - weight)
+                * (stripe.confidenceVariance[slot] + weight * confidenceDiff * confidenceDiff);
+    }
+
+    /**
+     * A detection outside its key's baseline. {@code score} is the distance from {@code baselineMean} in units of
+     * {@code baselineDeviation}; negative for a confidence drop. {@code raisedSecond} and {@code previousAlertSecond}
+     * let {@link #withdraw} restore the key's cooldown.
+     */
+    record Surge(
+            String streamId,
+            String pestType,
+            String metric,
+            double observed,
+            double baselineMean,
+            double baselineDeviation,
+            double score,
+            long raisedSecond,
+            long previousAlertSecond) {
+    }
+
+    /**
+     * One open-addressing table with linear probing; guarded by its own monitor.
+     */
+    private static final class Stripe {
+
+        private String[] streams;
+        private String[] pests;
+        private int[] hashes;
+        private long[] samples;
+        private double[] countMean;
+        private double[] countVariance;
+        private double[] confidenceMean;
+        private double[] confidenceVariance;
+        private long[] lastAlertSecond;
+        private int size;
+        private long rejected;
+
+        private Stripe() {
+            this(INITIAL_STRIPE_CAPACITY);
+        }
+
+        private Stripe(int capacity) {
+            streams = new String[capacity];
+            pests = new String[capacity];
+            hashes = new int[capacity];
+            samples = new long[capacity];
+            countMean = new double[capacity];
+            countVariance = new double[capacity];
+            confidenceMean = new double[capacity];
+            confidenceVariance = new double[capacity];
+            lastAlertSecond = new long[capacity];
+            // Far enough in the past that the first alert is never in cooldown, without overflowing the addition.
+            Arrays.fill(lastAlertSecond, Long.MIN_VALUE / 2);
+        }
+
+        /**
+         * Slot of the key, or -1 when it is not tracked.
+         */
+        private int find(String stream, String pest, int hash) {
+            int mask = streams.length - 1;
+            int slot = (hash >>> 4) & mask;
+            while (streams[slot] != null) {
+                if (hashes[slot] == hash && streams[slot].equals(stream) && pests[slot].equals(pest)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Slot of the key, claiming a free one for a new key; -1 when the key is new and the stripe is full.
+         */
+        private int slot(String stream, String pest, int hash, int maxKeys) {
+            int mask = streams.length - 1;
+            // The low bits chose the stripe, so probe with the rest.
+            int slot = (hash >>> 4) & mask;
+            while (streams[slot] != null) {
+                if (hashes[slot] == hash && streams[slot].equals(stream) && pests[slot].equals(pest)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (size >= maxKeys) {
+                rejected++;
+                return -1;
+            }
+            if ((size + 1) * 4 > streams.length * 3) {
+                grow();
+                return slot(stream, pest, hash, maxKeys);
+            }
+            streams[slot] = stream;
+            pests[slot] = pest;
+            hashes[slot] = hash;
+            size++;
+            return slot;
+        }
+
+        private void grow() {
+            Stripe larger = new Stripe(streams.length * 2);
+            for (int old = 0; old < streams.length; old++) {
+                if (streams[old] == null) {
+                    continue;
+                }
+                int mask = larger.streams.length - 1;
+                int slot = (hashes[old] >>> 4) & mask;
+                while (larger.streams[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                larger.streams[slot] = streams[old];
+                larger.pests[slot] = pests[old];
+                larger.hashes[slot] = hashes[old];
+                larger.samples[slot] = samples[old];
+                larger.countMean[slot] = countMean[old];
+                larger.countVariance[slot] = countVariance[old];
+                larger.confidenceMean[slot] = confidenceMean[old];
+                larger.confidenceVariance[slot] = confidenceVariance[old];
+                larger.lastAlertSecond[slot] = lastAlertSecond[old];
+            }
+            streams = larger.streams;
+            pests = larger.pests;
+            hashes = larger.hashes;
+            samples = larger.samples;
+            countMean = larger.countMean;
+            countVariance = larger.countVariance;
+            confidenceMean = larger.confidenceMean;
+            confidenceVariance = larger.confidenceVariance;
+            lastAlertSecond = larger.lastAlertSecond;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.cluster.ClusterNode;
+import com.pestvisionai.backend.cluster.LiveEventBus;
+import com.pestvisionai.backend.config.PestVisionProperties;
+import com.pestvisionai.backend.dto.DetectionView;
+import com.pestvisionai.backend.dto.SurgeAlertView;
+import com.pestvisionai.backend.model.Detection;
+import com.pestvisionai.backend.model.SurgeAlert;
+import com.pestvisionai.backend.repository.SurgeAlertRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Flags detections whose pest count or confidence surges past the recent baseline of their camera and pest type, and
+ * persists an alert for each.
+ *
+ * <p>Runs inside the ingest transaction right after the detection is saved, so the alert commits (or rolls back) with
+ * it and goes out on the live stream as part of the detection's event. The detection is folded into the baseline only
+ * once that transaction commits; if it rolls back, the alert cooldown it started is given back, so a detection retried
+ * after a failed batch is judged once and trains the baseline once. What to fold in or give back is collected in one
+ * reusable synchronization per ingest thread, so checking a detection allocates nothing unless it raises an alert.
+ * Detections ingested by other replicas arrive on the cluster bus and only train the baseline; the replica that
+ * ingested a detection is the one that alerts on it.
+ */
+@Service
+public class SurgeMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(SurgeMonitor.class);
+
+    private final SurgeAlertRepository surgeAlertRepository;
+    private final boolean enabled;
+    private final SurgeDetector detector;
+    private final Counter countAlerts;
+    private final Counter confidenceAlerts;
+    private final ThreadLocal<PendingSurgeChecks> pending = ThreadLocal.withInitial(PendingSurgeChecks::new);
+
+    public SurgeMonitor(SurgeAlertRepository surgeAlertRepository, LiveEventBus liveEventBus, ClusterNode clusterNode,
+            MeterRegistry meterRegistry, PestVisionProperties properties) {
+        this.surgeAlertRepository = surgeAlertRepository;
+        PestVisionProperties.Surge surge = properties.getSurge();
+        this.enabled = surge.isEnabled();
+        this.detector = new SurgeDetector(surge.getSmoothing(), surge.getThreshold(), surge.getWarmupSamples(),
+                surge.getMinPestCountDeviation(), surge.getMinConfidenceDeviation(), surge.getCooldownSeconds(),
+                surge.getMaxKeys());
+        this.countAlerts = Counter.builder("pestvision.surge.alerts")
+                .description("Surge alerts raised, by the metric that left its baseline")
+                .tag("metric", SurgeDetector.PEST_COUNT)
+                .register(meterRegistry);
+        this.confidenceAlerts = Counter.builder("pestvision.surge.alerts")
+                .description("Surge alerts raised, by the metric that left its baseline")
+                .tag("metric", SurgeDetector.MAX_CONFIDENCE)
+                .register(meterRegistry);
+        Gauge.builder("pestvision.surge.keys", detector, SurgeDetector::size)
+                .description("(streamId, pestType) pairs with a surge baseline")
+                .register(meterRegistry);
+        Gauge.builder("pestvision.surge.untracked", detector, SurgeDetector::untracked)
+                .description("Detections not checked for surges because the baseline table was full")
+                .register(meterRegistry);
+        String nodeId = clusterNode.nodeId();
+        liveEventBus.subscribe(envelope -> {
+            DetectionView detection = envelope.event().detection();
+            if (enabled && !nodeId.equals(envelope.originNode()) && detection != null) {
+                detector.observe(detection.streamId(), detection.pestType(), detection.pestCount(),
+                        detection.maxConfidence());
+            }
+        });
+    }
+
+    /**
+     * Compares a saved detection with its baseline and, if it is a surge, saves and returns the alert; {@code null}
+     * otherwise. Must run in the transaction that saved the detection.
+     */
+    SurgeAlert check(Detection detection) {
+        if (!enabled) {
+            return null;
+        }
+        SurgeDetector.Surge surge = detector.assess(detection.getStreamId(), detection.getPestType(),
+                detection.getPestCount(), detection.getMaxConfidence(), System.currentTimeMillis() / 1000);
+        foldInOnCommit(detection, surge);
+        if (surge == null) {
+            return null;
+        }
+        SurgeAlert alert = new SurgeAlert();
+        alert.setRaisedAt(Instant.now());
+        alert.setDetectionId(detection.getId());
+        alert.setStreamId(detection.getStreamId());
+        alert.setPestType(detection.getPestType());
+        alert.setMetric(surge.metric());
+        alert.setObserved(surge.observed());
+        alert.setBaselineMean(surge.baselineMean());
+        alert.setBaselineDeviation(surge.baselineDeviation());
+        alert.setScore(surge.score());
+        SurgeAlert saved = surgeAlertRepository.save(alert);
+        (SurgeDetector.PEST_COUNT.equals(surge.metric()) ? countAlerts : confidenceAlerts).increment();
+        log.info("Surge on stream {} ({}): {} {} against baseline {} ± {}", detection.getStreamId(),
+                detection.getPestType(), surge.metric(), surge.observed(),
+                String.format("%.2f", surge.baselineMean()), String.format("%.2f", surge.baselineDeviation()));
+        return saved;
+    }
+
+    private void foldInOnCommit(Detection detection, SurgeDetector.Surge surge) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            observe(detection);
+            return;
+        }
+        pending.get().add(detection, surge);
+    }
+
+    private void observe(Detection detection) {
+        detector.observe(detection.getStreamId(), detection.getPestType(), detection.getPestCount(),
+                detection.getMaxConfidence());
+    }
+
+    /**
+     * The detections checked in the current transaction of one thread, folded in or given back when it completes. It
+     * registers itself with the first detection of a transaction and is cleared and reused afterwards. Ingest
+     * transactions do not nest, so one instance per thread is enough.
+     */
+    private final class PendingSurgeChecks implements TransactionSynchronization {
+
+        private Detection[] detections = new Detection[16];
+        private SurgeDetector.Surge[] surges = new SurgeDetector.Surge[16];
+        private int size;
+        private boolean registered;
+
+        private void add(Detection detection, SurgeDetector.Surge surge) {
+            if (!registered) {
+                TransactionSynchronizationManager.registerSynchronization(this);
+                registered = true;
+            }
+            if (size == detections.length) {
+                detections = Arrays.copyOf(detections, size * 2);
+                surges = Arrays.copyOf(surges, size * 2);
+            }
+            detections[size] = detection;
+            surges[size] = surge;
+            size++;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            try {
+                if (status == STATUS_COMMITTED) {
+                    for (int i = 0; i < size; i++) {
+                        observe(detections[i]);
+                    }
+                } else {
+                    // Newest first, so each alert gives back the cooldown it replaced.
+                    for (int i = size - 1; i >= 0; i--) {
+                        if (surges[i] != null) {
+                            detector.withdraw(surges[i]);
+                        }
+                    }
+                }
+            } finally {
+                Arrays.fill(detections, 0, size, null);
+                Arrays.fill(surges, 0, size, null);
+                size = 0;
+                registered = false;
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<SurgeAlertView> recent(int limit) {
+        List<SurgeAlert> alerts = surgeAlertRepository.findTop50ByOrderByRaisedAtDesc();
+        return alerts.subList(0, Math.max(0, Math.min(limit, alerts.size()))).stream()
+                .map(DetectionMapper::toView)
+                .toList();
+    }
+}
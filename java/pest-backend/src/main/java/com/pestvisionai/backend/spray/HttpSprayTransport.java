@@ -0,0 +1,61 @@
+package com.pestvisionai.backend.spray;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Posts commands to {@code <address>/commands}. A 2xx response with no body is an acknowledgement; a 2xx body is a
+ * {@link SprayWireFormat} reply for the same {@code commandId}, whose status decides between acknowledgement and
+ * rejection. 4xx responses are explicit rejections; 5xx responses and malformed or mismatched replies are retried.
+ */
+public class HttpSprayTransport implements SprayTransport {
+
+    private final URI commandUri;
+    private final SprayWireFormat wireFormat;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+
+    HttpSprayTransport(String address, SprayWireFormat wireFormat) {
+        String base = address.endsWith("/") ? address.substring(0, address.length() - 1) : address;
+        this.commandUri = URI.create(base + "/commands");
+        this.wireFormat = wireFormat;
+    }
+
+    @Override
+    public SprayAck send(SprayCommand command, Duration timeout) throws IOException, TimeoutException {
+        HttpRequest request = HttpRequest.newBuilder(commandUri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(wireFormat.encode(command)))
+                .build();
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (HttpTimeoutException ex) {
+            throw new TimeoutException("Device at " + commandUri + " did not answer within " + timeout.toMillis() + " ms");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while sending spray command", ex);
+        }
+        int status = response.statusCode();
+        if (status >= 500) {
+            throw new IOException("Device at " + commandUri + " answered HTTP " + status);
+        }
+        if (status >= 400) {
+            return new SprayAck(command.commandId(), false, "HTTP " + status);
+        }
+        byte[] body = response.body();
+        if (body == null || body.length == 0) {
+            return new SprayAck(command.commandId(), true, null);
+        }
+        return wireFormat.decodeReplyTo(command, body, 0, body.length);
+    }
+}
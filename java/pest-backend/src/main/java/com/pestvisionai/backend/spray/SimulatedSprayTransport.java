@@ -0,0 +1,44 @@
+package com.pestvisionai.backend.spray;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-process stand-in for a spray device, used in development and tests. Acknowledges after a fixed latency and
+ * drops a configurable share of commands so that timeouts and retries can be exercised without hardware.
+ */
+public class SimulatedSprayTransport implements SprayTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(SimulatedSprayTransport.class);
+
+    private final String deviceId;
+    private final long latencyMillis;
+    private final double failureRate;
+
+    public SimulatedSprayTransport(String deviceId, long latencyMillis, double failureRate) {
+        this.deviceId = deviceId;
+        this.latencyMillis = latencyMillis;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public SprayAck send(SprayCommand command, Duration timeout) throws TimeoutException {
+        boolean lost = failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate;
+        long waitMillis = lost ? timeout.toMillis() : Math.min(latencyMillis, timeout.toMillis());
+        try {
+            Thread.sleep(waitMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting for simulated device " + deviceId);
+        }
+        if (lost || latencyMillis > timeout.toMillis()) {
+            throw new TimeoutException("Simulated device " + deviceId + " did not acknowledge within " + timeout.toMillis() + " ms");
+        }
+        log.info("[Spray] Simulated device {} sprayed for detection {} ({} ms, confidence {})",
+                deviceId, command.detectionId(), command.durationMillis(), command.confidence());
+        return new SprayAck(command.commandId(), true, null);
+    }
+}
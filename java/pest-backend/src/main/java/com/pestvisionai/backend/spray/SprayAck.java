@@ -0,0 +1,12 @@
+package com.pestvisionai.backend.spray;
+
+/**
+ * Device reply to a {@link SprayCommand}. {@code accepted == false} is an explicit rejection (e.g. interlock engaged)
+ * and, unlike a timeout, is not retried.
+ */
+public record SprayAck(
+        String commandId,
+        boolean accepted,
+        String message
+) {
+}
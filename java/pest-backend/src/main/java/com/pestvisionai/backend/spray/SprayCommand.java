@@ -0,0 +1,17 @@
+package com.pestvisionai.backend.spray;
+
+/**
+ * Actuation request sent to a spray device. {@code acceptedAtNanos} is the {@link System#nanoTime()} at which the
+ * triggering detection was accepted by the backend and is only used locally to measure actuation latency.
+ */
+public record SprayCommand(
+        String commandId,
+        String deviceId,
+        Long sprayEventId,
+        Long detectionId,
+        String streamId,
+        double confidence,
+        long durationMillis,
+        long acceptedAtNanos
+) {
+}
@@ -0,0 +1,23 @@
+package com.pestvisionai.backend.spray;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Delivers commands to one spray device.
+ *
+ * <p>Implementations may block: each device has its own dispatcher thread and a transport instance is never used by
+ * two threads at once.
+ */
+public interface SprayTransport extends AutoCloseable {
+
+    /**
+     * Sends {@code command} and waits up to {@code timeout} for the device's acknowledgement.
+     */
+    SprayAck send(SprayCommand command, Duration timeout) throws IOException, TimeoutException;
+
+    @Override
+    default void close() {
+    }
+}
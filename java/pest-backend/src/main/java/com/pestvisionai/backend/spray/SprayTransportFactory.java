@@ -0,0 +1,62 @@
+package com.pestvisionai.backend.spray;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pestvisionai.backend.config.PestVisionProperties;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.Locale;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the transport configured for a device under {@code pestvision.spray.devices.<id>}. Devices without an
+ * entry get the in-process simulator.
+ */
+@Component
+public class SprayTransportFactory {
+
+    private final PestVisionProperties.Spray properties;
+    private final SprayWireFormat wireFormat;
+
+    public SprayTransportFactory(PestVisionProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties.getSpray();
+        this.wireFormat = new SprayWireFormat(objectMapper);
+    }
+
+    public SprayTransport create(String deviceId) {
+        PestVisionProperties.Spray.Device device = properties.getDevices().get(deviceId);
+        if (device == null) {
+            device = new PestVisionProperties.Spray.Device();
+        }
+        String transport = device.getTransport() == null ? "simulated" : device.getTransport().toLowerCase(Locale.ROOT);
+        try {
+            return switch (transport) {
+                case "simulated" -> new SimulatedSprayTransport(
+                        deviceId, device.getSimulatedLatencyMillis(), device.getSimulatedFailureRate());
+                case "http" -> new HttpSprayTransport(requireAddress(deviceId, device), wireFormat);
+                case "tcp" -> new TcpSprayTransport(socketAddress(deviceId, device), wireFormat);
+                case "udp" -> new UdpSprayTransport(socketAddress(deviceId, device), wireFormat);
+                default -> throw new IllegalStateException(
+                        "Unknown spray transport '" + device.getTransport() + "' for device " + deviceId);
+            };
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to open spray transport for device " + deviceId, ex);
+        }
+    }
+
+    private static String requireAddress(String deviceId, PestVisionProperties.Spray.Device device) {
+        if (device.getAddress() == null || device.getAddress().isBlank()) {
+            throw new IllegalStateException("Spray device " + deviceId + " needs an address for transport " + device.getTransport());
+        }
+        return device.getAddress().trim();
+    }
+
+    private static InetSocketAddress socketAddress(String deviceId, PestVisionProperties.Spray.Device device) {
+        String address = requireAddress(deviceId, device);
+        int separator = address.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalStateException("Spray device " + deviceId + " address must be host:port, got " + address);
+        }
+        return new InetSocketAddress(address.substring(0, separator), Integer.parseInt(address.substring(separator + 1)));
+    }
+}
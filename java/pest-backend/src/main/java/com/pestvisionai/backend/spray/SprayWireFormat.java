@@ -0,0 +1,57 @@
+package com.pestvisionai.backend.spray;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+
+/**
+ * JSON encoding shared by the network transports.
+ *
+ * <p>Command: {@code {"commandId":"…","deviceId":"…","sprayEventId":1,"detectionId":7,"streamId":"0",
+ * "confidence":0.91,"durationMillis":1500}}. Reply: {@code {"commandId":"…","status":"ACK"}} or
+ * {@code {"commandId":"…","status":"NACK","message":"interlock engaged"}}. TCP frames one message per line. A reply
+ * with any other status is malformed and fails like an I/O error, so the command is retried rather than treated as
+ * rejected.
+ */
+final class SprayWireFormat {
+
+    private final ObjectMapper objectMapper;
+
+    SprayWireFormat(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    byte[] encode(SprayCommand command) throws IOException {
+        ObjectNode node = objectMapper.createObjectNode()
+                .put("commandId", command.commandId())
+                .put("deviceId", command.deviceId())
+                .put("sprayEventId", command.sprayEventId())
+                .put("detectionId", command.detectionId())
+                .put("streamId", command.streamId())
+                .put("confidence", command.confidence())
+                .put("durationMillis", command.durationMillis());
+        return objectMapper.writeValueAsBytes(node);
+    }
+
+    SprayAck decode(byte[] payload, int offset, int length) throws IOException {
+        JsonNode node = objectMapper.readTree(payload, offset, length);
+        String status = node.path("status").asText("");
+        boolean accepted = "ACK".equalsIgnoreCase(status);
+        if (!accepted && !"NACK".equalsIgnoreCase(status)) {
+            throw new IOException("Spray reply has no ACK or NACK status: " + status);
+        }
+        return new SprayAck(node.path("commandId").asText(null), accepted, node.path("message").asText(null));
+    }
+
+    /**
+     * Decodes a reply and checks that it answers {@code command}; a reply to any other command fails.
+     */
+    SprayAck decodeReplyTo(SprayCommand command, byte[] payload, int offset, int length) throws IOException {
+        SprayAck ack = decode(payload, offset, length);
+        if (!command.commandId().equals(ack.commandId())) {
+            throw new IOException("Spray reply is for command " + ack.commandId() + ", not " + command.commandId());
+        }
+        return ack;
+    }
+}
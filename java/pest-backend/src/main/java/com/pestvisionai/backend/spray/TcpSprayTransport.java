@@ -0,0 +1,80 @@
+package com.pestvisionai.backend.spray;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Keeps one TCP connection per device and exchanges newline-delimited JSON messages over it. The connection is
+ * dropped and re-opened on the next command after any I/O error or timeout so that a late reply cannot be matched to
+ * the wrong command; a reply line for another {@code commandId} counts as such an error.
+ */
+public class TcpSprayTransport implements SprayTransport {
+
+    private final InetSocketAddress address;
+    private final SprayWireFormat wireFormat;
+    private Socket socket;
+    private BufferedReader reader;
+    private OutputStream writer;
+
+    TcpSprayTransport(InetSocketAddress address, SprayWireFormat wireFormat) {
+        this.address = address;
+        this.wireFormat = wireFormat;
+    }
+
+    @Override
+    public SprayAck send(SprayCommand command, Duration timeout) throws IOException, TimeoutException {
+        try {
+            connect(timeout);
+            socket.setSoTimeout((int) Math.max(1, timeout.toMillis()));
+            writer.write(wireFormat.encode(command));
+            writer.write('\n');
+            writer.flush();
+            String line = reader.readLine();
+            if (line == null) {
+                throw new IOException("Device at " + address + " closed the connection");
+            }
+            byte[] reply = line.getBytes(StandardCharsets.UTF_8);
+            return wireFormat.decodeReplyTo(command, reply, 0, reply.length);
+        } catch (SocketTimeoutException ex) {
+            close();
+            throw new TimeoutException("Device at " + address + " did not acknowledge within " + timeout.toMillis() + " ms");
+        } catch (IOException ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    private void connect(Duration timeout) throws IOException {
+        if (socket != null && socket.isConnected() && !socket.isClosed()) {
+            return;
+        }
+        Socket fresh = new Socket();
+        fresh.setTcpNoDelay(true);
+        fresh.connect(address, (int) Math.max(1, timeout.toMillis()));
+        socket = fresh;
+        reader = new BufferedReader(new InputStreamReader(fresh.getInputStream(), StandardCharsets.UTF_8));
+        writer = fresh.getOutputStream();
+    }
+
+    @Override
+    public void close() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Nothing to recover; the next command reconnects.
+            }
+            socket = null;
+            reader = null;
+            writer = null;
+        }
+    }
+}
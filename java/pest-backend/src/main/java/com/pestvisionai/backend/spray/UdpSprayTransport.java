@@ -0,0 +1,67 @@
+package com.pestvisionai.backend.spray;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends each command as one datagram and waits for a reply datagram from the device's address with the same
+ * {@code commandId}. Datagrams from any other source, replies for earlier, already timed-out commands and datagrams
+ * that do not parse are discarded.
+ */
+public class UdpSprayTransport implements SprayTransport {
+
+    private static final int MAX_REPLY_BYTES = 1024;
+
+    private final InetSocketAddress address;
+    private final SprayWireFormat wireFormat;
+    private final DatagramSocket socket;
+    private final byte[] replyBuffer = new byte[MAX_REPLY_BYTES];
+
+    UdpSprayTransport(InetSocketAddress address, SprayWireFormat wireFormat) throws IOException {
+        this.address = address;
+        this.wireFormat = wireFormat;
+        this.socket = new DatagramSocket();
+    }
+
+    @Override
+    public SprayAck send(SprayCommand command, Duration timeout) throws IOException, TimeoutException {
+        byte[] payload = wireFormat.encode(command);
+        socket.send(new DatagramPacket(payload, payload.length, address));
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) {
+                throw new TimeoutException("Device at " + address + " did not acknowledge within " + timeout.toMillis() + " ms");
+            }
+            socket.setSoTimeout((int) remainingMillis);
+            DatagramPacket reply = new DatagramPacket(replyBuffer, replyBuffer.length);
+            try {
+                socket.receive(reply);
+            } catch (SocketTimeoutException ex) {
+                continue;
+            }
+            if (reply.getPort() != address.getPort() || !reply.getAddress().equals(address.getAddress())) {
+                continue;
+            }
+            SprayAck ack;
+            try {
+                ack = wireFormat.decode(reply.getData(), reply.getOffset(), reply.getLength());
+            } catch (IOException ex) {
+                continue;
+            }
+            if (command.commandId().equals(ack.commandId())) {
+                return ack;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        socket.close();
+    }
+}
@@ -0,0 +1,332 @@
+package com.pestvisionai.backend.video;
+
+import io.micrometer.core.instrument.Counter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.UnpooledDirectByteBuf;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+/**
+ * One camera's MJPEG feed, read once from upstream and shared by every viewer.
+ *
+ * <p>The upstream connection opens with the first viewer, reconnects after errors or stalls, and closes once no one
+ * has watched for {@code idleTimeout}. A frame's bytes are copied twice on the way in: each network chunk into the
+ * parser's reusable array (see {@link MjpegFrameParser}), then each complete frame into a pooled direct buffer that
+ * already holds its multipart header. That buffer becomes the latest frame and replaces the previous one; neither copy
+ * depends on the number of viewers.
+ *
+ * <p>Viewers never queue frames. A viewer gets a view of the latest frame's buffer (no copy) only when its previous
+ * frame has been written to the socket, which Netty signals by releasing the view; frames published in the meantime
+ * are skipped. A per-viewer frame interval caps the rate further.
+ */
+final class CameraRelay {
+
+    static final String BOUNDARY = "frame";
+
+    private static final Logger log = LoggerFactory.getLogger(CameraRelay.class);
+    private static final byte[] PART_HEADER = ("--" + BOUNDARY + "\r\nContent-Type: image/jpeg\r\nContent-Length: ")
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEADER_END = "\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final String cameraId;
+    private final URI url;
+    private final WebClient webClient;
+    private final Duration idleTimeout;
+    private final Duration reconnectDelay;
+    private final Duration stallTimeout;
+    private final int maxFrameBytes;
+    private final Counter framesReceived;
+    private final Counter framesSkipped;
+    private final Counter connects;
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(ByteBufAllocator.DEFAULT);
+    private final List<Viewer> viewers = new CopyOnWriteArrayList<>();
+    private final Object lock = new Object();
+    // Guarded by lock.
+    private ByteBuf latest;
+    private long sequence;
+    private Disposable upstream;
+    private Disposable idleStop;
+
+    CameraRelay(String cameraId, URI url, WebClient webClient, Duration idleTimeout, Duration reconnectDelay,
+            Duration stallTimeout, int maxFrameBytes, Counter framesReceived, Counter framesSkipped,
+            Counter connects) {
+        this.cameraId = cameraId;
+        this.url = url;
+        this.webClient = webClient;
+        this.idleTimeout = idleTimeout;
+        this.reconnectDelay = reconnectDelay;
+        this.stallTimeout = stallTimeout;
+        this.maxFrameBytes = maxFrameBytes;
+        this.framesReceived = framesReceived;
+        this.framesSkipped = framesSkipped;
+        this.connects = connects;
+    }
+
+    /**
+     * The relayed stream as multipart parts for one viewer; {@code minIntervalNanos} of 0 sends every frame the
+     * viewer can keep up with.
+     */
+    Flux<DataBuffer> frames(long minIntervalNanos) {
+        return Flux.<DataBuffer>create(sink -> {
+                    Viewer viewer = new Viewer(sink, minIntervalNanos);
+                    sink.onRequest(ignored -> viewer.drain());
+                    sink.onDispose(() -> leave(viewer));
+                    join(viewer);
+                    viewer.drain();
+                })
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    int viewerCount() {
+        return viewers.size();
+    }
+
+    void close() {
+        synchronized (lock) {
+            if (idleStop != null) {
+                idleStop.dispose();
+                idleStop = null;
+            }
+            disconnect();
+        }
+    }
+
+    private void join(Viewer viewer) {
+        synchronized (lock) {
+            viewers.add(viewer);
+            if (idleStop != null) {
+                idleStop.dispose();
+                idleStop = null;
+            }
+            if (upstream == null) {
+                upstream = connect();
+            }
+        }
+    }
+
+    private void leave(Viewer viewer) {
+        synchronized (lock) {
+            viewers.remove(viewer);
+            if (viewers.isEmpty() && upstream != null && idleStop == null) {
+                idleStop = Schedulers.parallel().schedule(this::stopIfIdle, idleTimeout.toMillis(),
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void stopIfIdle() {
+        synchronized (lock) {
+            idleStop = null;
+            if (viewers.isEmpty()) {
+                log.debug("No viewers left on camera {}; closing the upstream stream", cameraId);
+                disconnect();
+            }
+        }
+    }
+
+    private void disconnect() {
+        if (upstream != null) {
+            upstream.dispose();
+            upstream = null;
+        }
+        // A frame from before the pause would be stale for the next viewer.
+        if (latest != null) {
+            latest.release();
+            latest = null;
+        }
+    }
+
+    private Disposable connect() {
+        return Flux.defer(() -> {
+                    connects.increment();
+                    return webClient.get().uri(url).exchangeToFlux(this::readParts);
+                })
+                .concatWith(Flux.error(() -> new IllegalStateException("upstream closed the stream")))
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, reconnectDelay)
+                        .doBeforeRetry(signal -> log.debug("Reconnecting to camera {} at {}: {}", cameraId, url,
+                                signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    private Flux<Void> readParts(ClientResponse response) {
+        if (!response.statusCode().is2xxSuccessful()) {
+            return response.releaseBody().thenMany(Flux.error(
+                    new IllegalStateException("upstream answered " + response.statusCode().value())));
+        }
+        String boundary = MjpegFrameParser.boundaryOf(response.headers().asHttpHeaders()
+                .getFirst(HttpHeaders.CONTENT_TYPE));
+        if (boundary == null) {
+            return response.releaseBody().thenMany(Flux.error(
+                    new IllegalStateException("upstream is not a multipart stream")));
+        }
+        MjpegFrameParser parser = new MjpegFrameParser(boundary, maxFrameBytes, this::publish);
+        return response.bodyToFlux(DataBuffer.class)
+                .timeout(stallTimeout)
+                .doOnNext(chunk -> {
+                    try (DataBuffer.ByteBufferIterator buffers = chunk.readableByteBuffers()) {
+                        while (buffers.hasNext()) {
+                            parser.feed(buffers.next());
+                        }
+                    } finally {
+                        DataBufferUtils.release(chunk);
+                    }
+                })
+                .thenMany(Flux.empty());
+    }
+
+    /**
+     * Encodes one JPEG as a multipart part and makes it the latest frame. Called on the upstream connection's thread.
+     */
+    private void publish(byte[] jpeg, int offset, int length) {
+        byte[] declaredLength = Integer.toString(length).getBytes(StandardCharsets.US_ASCII);
+        ByteBuf part = ByteBufAllocator.DEFAULT.directBuffer(
+                PART_HEADER.length + declaredLength.length + HEADER_END.length + length + CRLF.length);
+        part.writeBytes(PART_HEADER)
+                .writeBytes(declaredLength)
+                .writeBytes(HEADER_END)
+                .writeBytes(jpeg, offset, length)
+                .writeBytes(CRLF);
+        ByteBuf previous;
+        synchronized (lock) {
+            if (upstream == null) {
+                part.release();
+                return;
+            }
+            previous = latest;
+            latest = part;
+            sequence++;
+        }
+        if (previous != null) {
+            previous.release();
+        }
+        framesReceived.increment();
+        for (Viewer viewer : viewers) {
+            viewer.drain();
+        }
+    }
+
+    /**
+     * A view of the latest frame if {@code viewer} has not been sent it yet, or {@code null}.
+     */
+    private DataBuffer latestFor(Viewer viewer) {
+        ByteBuf frame;
+        synchronized (lock) {
+            if (latest == null || sequence == viewer.sentSequence) {
+                return null;
+            }
+            if (viewer.sentSequence > 0 && sequence - viewer.sentSequence > 1) {
+                framesSkipped.increment(sequence - viewer.sentSequence - 1);
+            }
+            viewer.sentSequence = sequence;
+            frame = latest.retain();
+        }
+        return bufferFactory.wrap(new FrameView(frame, viewer));
+    }
+
+    private final class Viewer {
+
+        private final FluxSink<DataBuffer> sink;
+        private final long minIntervalNanos;
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicBoolean timerPending = new AtomicBoolean();
+        private volatile boolean inFlight;
+        // Only touched inside drain (or under lock in latestFor, called from drain).
+        private long sentSequence;
+        private long lastSentNanos;
+
+        private Viewer(FluxSink<DataBuffer> sink, long minIntervalNanos) {
+            this.sink = sink;
+            this.minIntervalNanos = minIntervalNanos;
+        }
+
+        /**
+         * Sends the latest frame if the previous one is written, the client has demand and the frame interval has
+         * passed. Safe to call from any thread; concurrent calls collapse into one pass.
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (!sink.isCancelled() && !inFlight && sink.requestedFromDownstream() > 0) {
+                    long now = System.nanoTime();
+                    long wait = lastSentNanos + minIntervalNanos - now;
+                    if (minIntervalNanos > 0 && lastSentNanos != 0 && wait > 0) {
+                        if (timerPending.compareAndSet(false, true)) {
+                            Schedulers.parallel().schedule(() -> {
+                                timerPending.set(false);
+                                drain();
+                            }, wait, TimeUnit.NANOSECONDS);
+                        }
+                    } else {
+                        DataBuffer frame = latestFor(this);
+                        if (frame != null) {
+                            inFlight = true;
+                            lastSentNanos = now;
+                            sink.next(frame);
+                        }
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void written() {
+            inFlight = false;
+            drain();
+        }
+    }
+
+    /**
+     * Zero-copy view of a shared frame for one viewer. Netty releases it once the bytes are written to the socket
+     * (or the write failed), which frees the viewer to take the next frame.
+     *
+     * <p>That release is the only per-write completion signal the WebFlux response path gives: demand from the
+     * response subscriber is prefetched and says nothing about the socket. A {@code frame.retainedDuplicate()} shares
+     * the frame's reference count, so releasing it cannot be told apart from another viewer's release and has nothing
+     * to hook. Hence a buffer with its own count and a {@code deallocate()} override; {@code UnpooledDirectByteBuf} is
+     * public and meant to be extended, and built over an existing {@code ByteBuffer} it does not free that memory, so
+     * the frame stays owned by its reference count.
+     */
+    private static final class FrameView extends UnpooledDirectByteBuf {
+
+        private final ByteBuf frame;
+        private final Viewer viewer;
+
+        private FrameView(ByteBuf frame, Viewer viewer) {
+            super(ByteBufAllocator.DEFAULT, frame.nioBuffer(frame.readerIndex(), frame.readableBytes()),
+                    frame.readableBytes());
+            this.frame = frame;
+            this.viewer = viewer;
+        }
+
+        @Override
+        protected void deallocate() {
+            super.deallocate();
+            frame.release();
+            viewer.written();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.pestvisionai.backend.video;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Splits a {@code multipart/x-mixed-replace} byte stream into JPEG frames as chunks arrive.
+ *
+ * <p>A part is delimited by {@code --boundary}; its body ends after {@code Content-Length} bytes when the part
+ * declares one, otherwise right before the next delimiter (the vision service sends no length). Every incoming chunk
+ * is copied into one reusable array and a frame reaches {@link FrameSink} as a range of that array, so the parser
+ * allocates nothing per frame; the range is only valid during the call, and the sink has to copy what it keeps
+ * before returning. A part larger than {@code maxFrameBytes} is dropped and parsing resumes at the next delimiter.
+ * Not thread-safe.
+ */
+final class MjpegFrameParser {
+
+    private static final byte[] HEADER_END = "\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CONTENT_LENGTH = "content-length:".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_HEADER_BYTES = 4096;
+
+    private final byte[] delimiter;
+    private final byte[] bodyEnd;
+    private final int maxFrameBytes;
+    private final FrameSink sink;
+    private byte[] buffer = new byte[64 * 1024];
+    private int start;
+    private int end;
+    /** Where the search for the current frame's end resumes, so a large frame is not rescanned per chunk. */
+    private int scanFrom = -1;
+    private long resyncs;
+
+    MjpegFrameParser(String boundary, int maxFrameBytes, FrameSink sink) {
+        String name = boundary.startsWith("--") ? boundary.substring(2) : boundary;
+        this.delimiter = ("--" + name).getBytes(StandardCharsets.US_ASCII);
+        this.bodyEnd = ("\r\n--" + name).getBytes(StandardCharsets.US_ASCII);
+        this.maxFrameBytes = maxFrameBytes;
+        this.sink = sink;
+    }
+
+    /**
+     * Boundary parameter of a multipart content type, or {@code null} if it has none.
+     */
+    static String boundaryOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.regionMatches(true, 0, "boundary=", 0, 9)) {
+                String value = trimmed.substring(9).trim();
+                if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                return value.isEmpty() ? null : value;
+            }
+        }
+        return null;
+    }
+
+    void feed(ByteBuffer chunk) {
+        int length = chunk.remaining();
+        ensureCapacity(length);
+        chunk.get(buffer, end, length);
+        end += length;
+        parse();
+    }
+
+    /**
+     * Parts skipped because they were malformed or larger than {@code maxFrameBytes}.
+     */
+    long resyncs() {
+        return resyncs;
+    }
+
+    private void parse() {
+        while (true) {
+            int part = indexOf(delimiter, start, end);
+            if (part < 0) {
+                // Keep a possible partial delimiter at the tail; everything before it is noise.
+                discardTo(Math.max(start, end - delimiter.length));
+                return;
+            }
+            discardTo(part);
+            int headersEnd = indexOf(HEADER_END, part, Math.min(end, part + MAX_HEADER_BYTES));
+            if (headersEnd < 0) {
+                if (end - part >= MAX_HEADER_BYTES) {
+                    // Not a part header after all; look for the next delimiter.
+                    resyncs++;
+                    discardTo(part + delimiter.length);
+                    continue;
+                }
+                return;
+            }
+            int bodyStart = headersEnd + HEADER_END.length;
+            int declared = contentLength(part, headersEnd);
+            int bodyLength;
+            if (declared >= 0) {
+                if (declared > maxFrameBytes) {
+                    resyncs++;
+                    discardTo(bodyStart);
+                    continue;
+                }
+                if (end - bodyStart < declared) {
+                    return;
+                }
+                bodyLength = declared;
+            } else {
+                int from = Math.max(bodyStart, scanFrom);
+                int next = indexOf(bodyEnd, from, end);
+                if (next < 0) {
+                    if (end - bodyStart > maxFrameBytes) {
+                        resyncs++;
+                        scanFrom = -1;
+                        discardTo(end - bodyEnd.length);
+                        continue;
+                    }
+                    scanFrom = Math.max(bodyStart, end - bodyEnd.length + 1);
+                    return;
+                }
+                bodyLength = next - bodyStart;
+            }
+            scanFrom = -1;
+            if (bodyLength > maxFrameBytes) {
+                resyncs++;
+            } else if (bodyLength > 0) {
+                sink.frame(buffer, bodyStart, bodyLength);
+            }
+            start = bodyStart + bodyLength;
+        }
+    }
+
+    private int contentLength(int from, int to) {
+        int line = indexOfIgnoreCase(CONTENT_LENGTH, from, to);
+        if (line < 0) {
+            return -1;
+        }
+        long value = -1;
+        for (int i = line + CONTENT_LENGTH.length; i < to; i++) {
+            byte b = buffer[i];
+            if (b >= '0' && b <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (b - '0');
+                if (value > Integer.MAX_VALUE) {
+                    return Integer.MAX_VALUE;
+                }
+            } else if (b == '\r' || (value >= 0 && b != ' ')) {
+                break;
+            }
+        }
+        return (int) value;
+    }
+
+    private void discardTo(int index) {
+        if (index > start) {
+            start = index;
+        }
+        if (start == end) {
+            start = 0;
+            end = 0;
+            scanFrom = -1;
+        }
+    }
+
+    private void ensureCapacity(int incoming) {
+        if (end + incoming <= buffer.length) {
+            return;
+        }
+        int live = end - start;
+        if (start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, live);
+            if (scanFrom >= 0) {
+                scanFrom -= start;
+            }
+            start = 0;
+            end = live;
+        }
+        if (live + incoming > buffer.length) {
+            int needed = live + incoming;
+            buffer = Arrays.copyOf(buffer, Math.max(needed, buffer.length * 2));
+        }
+    }
+
+    private int indexOf(byte[] needle, int from, int to) {
+        byte first = needle[0];
+        for (int i = from, last = to - needle.length; i <= last; i++) {
+            if (buffer[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < needle.length && buffer[i + j] == needle[j]) {
+                j++;
+            }
+            if (j == needle.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOfIgnoreCase(byte[] lowerCaseNeedle, int from, int to) {
+        for (int i = from, last = to - lowerCaseNeedle.length; i <= last; i++) {
+            int j = 0;
+            while (j < lowerCaseNeedle.length && Character.toLowerCase(buffer[i + j]) == lowerCaseNeedle[j]) {
+                j++;
+            }
+            if (j == lowerCaseNeedle.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @FunctionalInterface
+    interface FrameSink {
+
+        /**
+         * Called with a complete JPEG in {@code data[offset, offset + length)}. The range is only valid during the
+         * call.
+         */
+        void frame(byte[] data, int offset, int length);
+    }
+}
@@ -0,0 +1,92 @@
+package com.pestvisionai.backend.video;
+
+import com.pestvisionai.backend.config.PestVisionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+/**
+ * Relays the vision service's MJPEG feeds so that any number of dashboard viewers cost one upstream connection per
+ * camera. {@code pestvision.vision.stream-url} is camera {@value #DEFAULT_CAMERA}; {@code pestvision.vision.cameras}
+ * adds more by id.
+ */
+@Service
+public class VideoRelayService implements DisposableBean {
+
+    public static final String DEFAULT_CAMERA = "default";
+    public static final MediaType CONTENT_TYPE =
+            MediaType.parseMediaType("multipart/x-mixed-replace;boundary=" + CameraRelay.BOUNDARY);
+
+    private final boolean enabled;
+    private final Map<String, CameraRelay> relays = new LinkedHashMap<>();
+
+    public VideoRelayService(WebClient.Builder builder, MeterRegistry meterRegistry, PestVisionProperties properties) {
+        PestVisionProperties.Vision vision = properties.getVision();
+        PestVisionProperties.Vision.Relay relay = vision.getRelay();
+        this.enabled = relay.isEnabled();
+        Map<String, String> cameras = new LinkedHashMap<>();
+        if (vision.getStreamUrl() != null && !vision.getStreamUrl().isBlank()) {
+            cameras.put(DEFAULT_CAMERA, vision.getStreamUrl());
+        }
+        cameras.putAll(vision.getCameras());
+        WebClient webClient = builder.clone().build();
+        cameras.forEach((cameraId, url) -> {
+            CameraRelay cameraRelay = new CameraRelay(
+                    cameraId,
+                    URI.create(url),
+                    webClient,
+                    Duration.ofSeconds(Math.max(0, relay.getIdleSeconds())),
+                    Duration.ofMillis(Math.max(100, relay.getReconnectMillis())),
+                    Duration.ofMillis(Math.max(100, relay.getStallTimeoutMillis())),
+                    Math.max(64, relay.getMaxFrameKilobytes()) * 1024,
+                    Counter.builder("pestvision.video.frames")
+                            .description("Frames received from the camera stream")
+                            .tag("camera", cameraId)
+                            .register(meterRegistry),
+                    Counter.builder("pestvision.video.frames.skipped")
+                            .description("Frames a viewer skipped because it was still writing an older one or "
+                                    + "capped its frame rate")
+                            .tag("camera", cameraId)
+                            .register(meterRegistry),
+                    Counter.builder("pestvision.video.upstream.connects")
+                            .description("Connections opened to the camera stream")
+                            .tag("camera", cameraId)
+                            .register(meterRegistry));
+            Gauge.builder("pestvision.video.viewers", cameraRelay, CameraRelay::viewerCount)
+                    .description("Clients watching the relayed camera stream")
+                    .tag("camera", cameraId)
+                    .register(meterRegistry);
+            relays.put(cameraId, cameraRelay);
+        });
+    }
+
+    /**
+     * Multipart frames of {@code cameraId} for one viewer, at most {@code maxFps} per second when positive; empty for
+     * an unknown camera or when the relay is disabled.
+     */
+    public Optional<Flux<DataBuffer>> frames(String cameraId, double maxFps) {
+        CameraRelay relay = enabled ? relays.get(cameraId) : null;
+        if (relay == null) {
+            return Optional.empty();
+        }
+        long minIntervalNanos = maxFps > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / maxFps) : 0;
+        return Optional.of(relay.frames(minIntervalNanos));
+    }
+
+    @Override
+    public void destroy() {
+        relays.values().forEach(CameraRelay::close);
+    }
+}
@@ -0,0 +1,64 @@
+-- Schema for the fast-start profile, which turns Hibernate's schema inspection off (ddl-auto: none).
+-- Mirrors what ddl-auto: update creates from the entities in com.pestvisionai.backend.model; keep the two in step.
+-- Every statement is idempotent and valid on H2 and PostgreSQL. An existing database from an older release is
+-- brought up to date by starting it once in the standard mode.
+
+create table if not exists detections (
+    id bigint generated by default as identity primary key,
+    detected_at timestamp(6) with time zone,
+    stream_id varchar(255),
+    service_name varchar(255),
+    frame_id bigint,
+    pest_type varchar(255),
+    pest_count integer not null,
+    max_confidence double precision not null,
+    snapshot_path varchar(255),
+    analysis_summary varchar(2048)
+);
+
+create unique index if not exists uk_detections_frame on detections (service_name, stream_id, frame_id);
+
+create table if not exists detection_boxes (
+    detection_id bigint not null references detections (id),
+    x integer not null,
+    y integer not null,
+    width integer not null,
+    height integer not null,
+    confidence double precision not null,
+    label varchar(255),
+    track_id integer
+);
+
+create table if not exists spray_events (
+    id bigint generated by default as identity primary key,
+    triggered_at timestamp(6) with time zone,
+    reason varchar(255),
+    confidence double precision not null,
+    detection_id bigint,
+    device_id varchar(255),
+    command_status varchar(16),
+    command_attempts integer not null,
+    command_sent_at timestamp(6) with time zone,
+    acknowledged_at timestamp(6) with time zone,
+    actuation_latency_millis bigint,
+    command_error varchar(512)
+);
+
+create table if not exists spray_leases (
+    stream_key varchar(128) primary key,
+    holder varchar(255),
+    lease_until timestamp(6) with time zone
+);
+
+create table if not exists surge_alerts (
+    id bigint generated by default as identity primary key,
+    raised_at timestamp(6) with time zone,
+    detection_id bigint,
+    stream_id varchar(255),
+    pest_type varchar(255),
+    metric varchar(16),
+    observed double precision not null,
+    baseline_mean double precision not null,
+    baseline_deviation double precision not null,
+    score double precision not null
+);
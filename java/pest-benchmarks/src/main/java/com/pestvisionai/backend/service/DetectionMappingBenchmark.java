@@ -0,0 +1,60 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.dto.DetectionEnvelopeDto;
+import com.pestvisionai.backend.dto.DetectionView;
+import com.pestvisionai.backend.model.Detection;
+import com.pestvisionai.benchmarks.BenchmarkFixtures;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Covers the DTO to entity conversion done on ingest and the entity to view conversion done for every
+ * REST response and live event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DetectionMappingBenchmark {
+
+    @Param({"1", "8", "64"})
+    public int boxCount;
+
+    private DetectionEnvelopeDto envelope;
+    private Detection detection;
+    private DetectionProcessingResult result;
+
+    @Setup
+    public void setUp() {
+        envelope = BenchmarkFixtures.envelope(42, 4, boxCount);
+        detection = BenchmarkFixtures.detection(42, boxCount);
+        result = new DetectionProcessingResult(detection, null);
+    }
+
+    @Benchmark
+    public Detection toEntity() {
+        return DetectionService.toEntity(envelope);
+    }
+
+    @Benchmark
+    public DetectionView toView() {
+        return DetectionMapper.toView(detection);
+    }
+
+    @Benchmark
+    public Object toLiveEvent() {
+        return DetectionMapper.toLiveEvent(result);
+    }
+}
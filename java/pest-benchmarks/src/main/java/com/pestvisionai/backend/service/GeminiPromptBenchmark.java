@@ -0,0 +1,50 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.config.PestVisionProperties;
+import com.pestvisionai.backend.model.Detection;
+import com.pestvisionai.benchmarks.BenchmarkFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Measures prompt construction for the Gemini request, which formats every bounding box confidence.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeminiPromptBenchmark {
+
+    @Param({"1", "8", "64"})
+    public int boxCount;
+
+    private GeminiAnalysisService service;
+    private Detection detection;
+
+    @Setup
+    public void setUp() {
+        // No API key: the service never builds a WebClient, only the prompt builder is exercised.
+        service = new GeminiAnalysisService(
+                WebClient.builder(), new PestVisionProperties(), BenchmarkFixtures.objectMapper(), new SimpleMeterRegistry());
+        detection = BenchmarkFixtures.detection(42, boxCount);
+    }
+
+    @Benchmark
+    public String buildPrompt() {
+        return service.buildPrompt(detection);
+    }
+}
@@ -0,0 +1,125 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.config.PestVisionProperties;
+import com.pestvisionai.backend.dto.DetectionEnvelopeDto;
+import com.pestvisionai.backend.dto.DetectionEventDto;
+import com.pestvisionai.backend.model.Detection;
+import com.pestvisionai.benchmarks.BenchmarkFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * What frame deduplication adds to ingest. {@code baseline} hands every detection straight to ingest as with
+ * deduplication disabled; {@code newFrame} sends a frame never seen before through {@link IngestDeduplicator}, the
+ * overhead every non-duplicate detection pays (in-flight claim, Bloom filter check, remembering the stored frame);
+ * {@code duplicateFrame} resends a recently stored frame, answered from the LRU. The deduplicator starts out seeded
+ * as on an empty database and every frame is captured now, so the stubbed database lookup is never reached on either
+ * path. The same detection is built in every benchmark so only the deduplication differs; the end-to-end cost on
+ * JPA + H2 is in {@code IngestCommitBenchmark} with {@code dedup=true/false}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IngestDedupBenchmark {
+
+    private static final int RECENT = 4096;
+
+    private final AtomicLong threadBases = new AtomicLong();
+    private IngestDeduplicator enabled;
+    private IngestDeduplicator disabled;
+    private DetectionEventDto template;
+    private CompletableFuture<DetectionProcessingResult> stored;
+    private Supplier<CompletableFuture<DetectionProcessingResult>> ingest;
+
+    @Setup
+    public void setUp() {
+        PestVisionProperties.Ingest.Dedup on = new PestVisionProperties.Ingest.Dedup();
+        PestVisionProperties.Ingest.Dedup off = new PestVisionProperties.Ingest.Dedup();
+        off.setEnabled(false);
+        enabled = new IngestDeduplicator(on, new SimpleMeterRegistry(), key -> null);
+        disabled = new IngestDeduplicator(off, new SimpleMeterRegistry(), key -> null);
+        enabled.seeded(Long.MIN_VALUE);
+        template = BenchmarkFixtures.envelope(1, 32, 4).payload();
+        Detection detection = new Detection();
+        detection.setId(1L);
+        stored = CompletableFuture.completedFuture(new DetectionProcessingResult(detection, null));
+        ingest = () -> stored;
+        for (int frame = 0; frame < RECENT; frame++) {
+            enabled.submit(envelope(frame), ingest);
+        }
+    }
+
+    @Benchmark
+    public Object baseline(Cursor cursor) {
+        return disabled.submit(envelope(cursor.nextNew()), ingest);
+    }
+
+    @Benchmark
+    public Object newFrame(Cursor cursor) {
+        return enabled.submit(envelope(cursor.nextNew()), ingest);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object newFrameContended(Cursor cursor) {
+        return enabled.submit(envelope(cursor.nextNew()), ingest);
+    }
+
+    @Benchmark
+    public Object duplicateFrame(Cursor cursor) {
+        return enabled.submit(envelope(cursor.nextRecent()), ingest);
+    }
+
+    private DetectionEnvelopeDto envelope(long frameId) {
+        return new DetectionEnvelopeDto("vision-service", new DetectionEventDto(
+                frameId,
+                template.streamId(),
+                Instant.now(),
+                template.pestType(),
+                template.pestCount(),
+                template.boxes(),
+                template.maxConfidence(),
+                template.snapshotPath()));
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private long next;
+        private int recent;
+
+        @Setup
+        public void setUp(IngestDedupBenchmark benchmark) {
+            // Disjoint, never reused frame ids per thread, all above the pre-stored ones.
+            next = (benchmark.threadBases.incrementAndGet() << 40) + RECENT;
+        }
+
+        private long nextNew() {
+            return next++;
+        }
+
+        private long nextRecent() {
+            int frame = recent;
+            recent = frame + 1 == RECENT ? 0 : frame + 1;
+            return frame;
+        }
+    }
+}
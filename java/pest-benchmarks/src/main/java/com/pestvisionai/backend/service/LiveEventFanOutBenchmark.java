@@ -0,0 +1,65 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.cluster.ClusterNode;
+import com.pestvisionai.backend.cluster.LiveEventBus;
+import com.pestvisionai.backend.dto.LiveEventDto;
+import com.pestvisionai.benchmarks.BenchmarkFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.Disposable;
+
+/**
+ * Measures the cost of publishing one live event to a varying number of SSE subscribers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LiveEventFanOutBenchmark {
+
+    @Param({"1", "16", "256"})
+    public int subscriberCount;
+
+    private final LongAdder delivered = new LongAdder();
+    private final List<Disposable> subscriptions = new ArrayList<>();
+    private DetectionEventPublisher publisher;
+    private LiveEventDto event;
+
+    @Setup
+    public void setUp() {
+        publisher = new DetectionEventPublisher(LiveEventBus.none(), new ClusterNode("bench", false),
+                new SimpleMeterRegistry());
+        for (int i = 0; i < subscriberCount; i++) {
+            subscriptions.add(publisher.stream().subscribe(ignored -> delivered.increment()));
+        }
+        event = BenchmarkFixtures.liveEvent(42, 8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscriptions.forEach(Disposable::dispose);
+        subscriptions.clear();
+    }
+
+    @Benchmark
+    public void publish() {
+        publisher.publish(event);
+    }
+}
@@ -0,0 +1,49 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.model.Detection;
+import com.pestvisionai.benchmarks.BenchmarkFixtures;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the Excel workbook builder behind {@code /api/reports/detections.xlsx}, excluding the repository query.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReportExportBenchmark {
+
+    @Param({"50", "1000", "10000"})
+    public int detectionCount;
+
+    @Param({"4"})
+    public int boxCount;
+
+    private ReportExportService service;
+    private List<Detection> detections;
+
+    @Setup
+    public void setUp() {
+        service = new ReportExportService(null);
+        detections = BenchmarkFixtures.detections(detectionCount, boxCount);
+    }
+
+    @Benchmark
+    public byte[] writeWorkbook() {
+        return service.writeWorkbook(detections);
+    }
+}
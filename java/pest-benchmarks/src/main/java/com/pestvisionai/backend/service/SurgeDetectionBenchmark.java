@@ -0,0 +1,94 @@
+package com.pestvisionai.backend.service;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of checking one detection against the surge baseline and folding it in, the work {@code SurgeMonitor} adds to
+ * every ingested detection. Keys are past warm-up and the values stay inside their baseline, which is the common
+ * case; time per operation should stay flat as {@code keyCount} grows and {@code gc.alloc.rate.norm} should be 0.
+ * {@code observeContended} runs four threads against the same detector. {@code SurgeMonitorBenchmark} measures the
+ * same check as ingest runs it, inside a transaction.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SurgeDetectionBenchmark {
+
+    private static final int PEST_TYPES = 8;
+    private static final int SAMPLES = 1024;
+
+    @Param({"16", "1000", "50000"})
+    public int keyCount;
+
+    private SurgeDetector detector;
+    private String[] streamIds;
+    private String[] pestTypes;
+    private final int[] pestCounts = new int[SAMPLES];
+    private final double[] confidences = new double[SAMPLES];
+
+    @Setup
+    public void setUp() {
+        detector = new SurgeDetector(0.05, 4.0, 30, 1.0, 0.05, 300, 65_536);
+        streamIds = new String[keyCount];
+        pestTypes = new String[keyCount];
+        for (int key = 0; key < keyCount; key++) {
+            streamIds[key] = "camera-" + key / PEST_TYPES;
+            pestTypes[key] = "pest-" + key % PEST_TYPES;
+        }
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < SAMPLES; i++) {
+            pestCounts[i] = 1 + random.nextInt(3);
+            confidences[i] = 0.8 + random.nextDouble() * 0.1;
+        }
+        for (int round = 0; round < 64; round++) {
+            for (int key = 0; key < keyCount; key++) {
+                int sample = (round * keyCount + key) & (SAMPLES - 1);
+                detector.observe(streamIds[key], pestTypes[key], pestCounts[sample], confidences[sample]);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object observe(Cursor cursor) {
+        return next(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object observeContended(Cursor cursor) {
+        return next(cursor);
+    }
+
+    private Object next(Cursor cursor) {
+        int key = cursor.key;
+        cursor.key = key + 1 == keyCount ? 0 : key + 1;
+        int sample = cursor.sample++ & (SAMPLES - 1);
+        SurgeDetector.Surge surge = detector.assess(streamIds[key], pestTypes[key], pestCounts[sample],
+                confidences[sample], 0);
+        detector.observe(streamIds[key], pestTypes[key], pestCounts[sample], confidences[sample]);
+        return surge;
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int key;
+        private int sample;
+    }
+}
@@ -0,0 +1,137 @@
+package com.pestvisionai.backend.service;
+
+import com.pestvisionai.backend.cluster.ClusterNode;
+import com.pestvisionai.backend.cluster.LiveEventBus;
+import com.pestvisionai.backend.config.PestVisionProperties;
+import com.pestvisionai.backend.model.Detection;
+import com.pestvisionai.backend.repository.SurgeAlertRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Proxy;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link SurgeMonitor#check} as ingest runs it: inside a transaction, for a batch of {@value #BATCH} detections, with
+ * the baseline folded in after commit. The transaction manager does no I/O, so what is left is the check itself plus
+ * Spring's own per-transaction bookkeeping; {@code transactionOnly} measures that bookkeeping alone for the same batch.
+ * {@code gc.alloc.rate.norm} of {@code checkInTransaction} should match that of {@code transactionOnly} but for the
+ * one synchronization entry registered per transaction: checking a detection that raises no alert allocates nothing.
+ * Keys are past warm-up and values stay inside their baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SurgeMonitorBenchmark {
+
+    private static final int BATCH = 64;
+    private static final int KEYS = 1000;
+    private static final int PEST_TYPES = 8;
+
+    private SurgeMonitor monitor;
+    private TransactionTemplate transactions;
+    private Detection[] detections;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SurgeAlertRepository alerts = (SurgeAlertRepository) Proxy.newProxyInstance(
+                SurgeAlertRepository.class.getClassLoader(), new Class<?>[] {SurgeAlertRepository.class},
+                (proxy, method, args) -> {
+                    if ("save".equals(method.getName())) {
+                        return args[0];
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        monitor = new SurgeMonitor(alerts, LiveEventBus.none(), new ClusterNode("benchmark", false),
+                new SimpleMeterRegistry(), new PestVisionProperties());
+        transactions = new TransactionTemplate(new NoOpTransactionManager());
+        SplittableRandom random = new SplittableRandom(7);
+        detections = new Detection[KEYS * 4];
+        for (int i = 0; i < detections.length; i++) {
+            Detection detection = new Detection();
+            detection.setId((long) i);
+            detection.setStreamId("camera-" + (i % KEYS) / PEST_TYPES);
+            detection.setPestType("pest-" + (i % KEYS) % PEST_TYPES);
+            detection.setPestCount(1 + random.nextInt(3));
+            detection.setMaxConfidence(0.8 + random.nextDouble() * 0.1);
+            detections[i] = detection;
+        }
+        // Every key past warm-up: each pass over the detections gives each key four samples.
+        for (int round = 0; round < 16 * detections.length / BATCH; round++) {
+            checkInTransaction();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Object checkInTransaction() {
+        return transactions.execute(status -> {
+            Object last = null;
+            for (int i = 0; i < BATCH; i++) {
+                last = monitor.check(nextDetection());
+            }
+            return last;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Object transactionOnly() {
+        return transactions.execute(status -> {
+            Object last = null;
+            for (int i = 0; i < BATCH; i++) {
+                last = nextDetection();
+            }
+            return last;
+        });
+    }
+
+    private Detection nextDetection() {
+        Detection detection = detections[next];
+        next = next + 1 == detections.length ? 0 : next + 1;
+        return detection;
+    }
+
+    /**
+     * Runs the transaction lifecycle, synchronizations included, without a resource behind it.
+     */
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        private static final Object TRANSACTION = new Object();
+
+        @Override
+        protected Object doGetTransaction() {
+            return TRANSACTION;
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
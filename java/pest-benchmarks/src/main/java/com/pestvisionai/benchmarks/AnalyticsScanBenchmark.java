@@ -0,0 +1,72 @@
+package com.pestvisionai.benchmarks;
+
+import com.pestvisionai.backend.analytics.AnalyticsQuery;
+import com.pestvisionai.backend.analytics.DetectionColumnStore;
+import com.pestvisionai.backend.dto.AnalyticsResultView;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Aggregate queries over a {@link DetectionColumnStore} filled with a week of detections from 64 cameras and 8 pest
+ * types. {@code filteredHourly} is "average confidence of one pest on one camera over the last 72h, by hour";
+ * {@code byStream} totals the whole week per camera. Allocation per operation should stay independent of
+ * {@code rowCount}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class AnalyticsScanBenchmark {
+
+    private static final Duration WEEK = Duration.ofDays(7);
+
+    @Param({"1000000", "5000000"})
+    public int rowCount;
+
+    private DetectionColumnStore store;
+    private AnalyticsQuery filteredHourly;
+    private AnalyticsQuery byStream;
+
+    @Setup
+    public void setUp() {
+        store = new DetectionColumnStore(WEEK, rowCount);
+        Instant end = Instant.now();
+        Instant start = end.minus(WEEK);
+        long spanMillis = WEEK.toMillis();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < rowCount; i++) {
+            Instant detectedAt = start.plusMillis(spanMillis * i / rowCount);
+            store.append(detectedAt, "camera-" + random.nextInt(64), "pest-" + random.nextInt(8),
+                    1 + random.nextInt(12), 0.5 + random.nextDouble() * 0.5);
+        }
+        filteredHourly = new AnalyticsQuery(end.minus(Duration.ofHours(72)), end, Set.of("camera-3"),
+                Set.of("pest-1"), Duration.ofHours(1), AnalyticsQuery.GroupBy.NONE);
+        byStream = new AnalyticsQuery(start, end, null, null, null, AnalyticsQuery.GroupBy.STREAM);
+    }
+
+    @Benchmark
+    public AnalyticsResultView filteredHourly() {
+        return store.query(filteredHourly);
+    }
+
+    @Benchmark
+    public AnalyticsResultView byStream() {
+        return store.query(byStream);
+    }
+}
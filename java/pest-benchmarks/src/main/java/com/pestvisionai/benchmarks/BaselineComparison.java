@@ -0,0 +1,92 @@
+package com.pestvisionai.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files benchmark by benchmark, printing score and allocation deltas.
+ *
+ * <p>Usage: {@code java -cp benchmarks.jar com.pestvisionai.benchmarks.BaselineComparison baseline.json current.json}
+ */
+public final class BaselineComparison {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        compare(Path.of(args[0]), Path.of(args[1]), System.out);
+    }
+
+    static void compare(Path baselineFile, Path currentFile, PrintStream out) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Sample> baseline = load(mapper.readTree(baselineFile.toFile()));
+        Map<String, Sample> current = load(mapper.readTree(currentFile.toFile()));
+
+        out.printf("%n%-90s %14s %14s %9s %12s %12s%n",
+                "Benchmark", "Baseline", "Current", "Delta", "B/op base", "B/op now");
+        for (Map.Entry<String, Sample> entry : current.entrySet()) {
+            Sample now = entry.getValue();
+            Sample before = baseline.get(entry.getKey());
+            if (before == null) {
+                out.printf("%-90s %14s %14.3f %9s %12s %12s%n",
+                        entry.getKey(), "-", now.score(), "new", "-", formatBytes(now.allocatedBytes()));
+                continue;
+            }
+            double delta = before.score() == 0 ? 0 : (now.score() - before.score()) / before.score() * 100.0;
+            out.printf("%-90s %14.3f %14.3f %+8.1f%% %12s %12s  %s%n",
+                    entry.getKey(), before.score(), now.score(), delta,
+                    formatBytes(before.allocatedBytes()), formatBytes(now.allocatedBytes()), now.unit());
+        }
+        baseline.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(key -> out.printf("%-90s %14.3f %14s %9s%n", key, baseline.get(key).score(), "-", "removed"));
+        out.println("Delta is relative to the baseline score; for time-per-operation modes lower is better.");
+    }
+
+    private static Map<String, Sample> load(JsonNode root) {
+        Map<String, Sample> samples = new TreeMap<>();
+        for (JsonNode run : root) {
+            String key = run.path("benchmark").asText() + formatParams(run.path("params"));
+            JsonNode primary = run.path("primaryMetric");
+            JsonNode allocation = run.path("secondaryMetrics").path(ALLOCATION_METRIC);
+            samples.put(key, new Sample(
+                    primary.path("score").asDouble(),
+                    primary.path("scoreUnit").asText(),
+                    allocation.isMissingNode() ? Double.NaN : allocation.path("score").asDouble()));
+        }
+        return samples;
+    }
+
+    private static String formatParams(JsonNode params) {
+        if (params.isMissingNode() || params.isEmpty()) {
+            return "";
+        }
+        Map<String, String> sorted = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            sorted.put(field.getKey(), field.getValue().asText());
+        }
+        return sorted.toString();
+    }
+
+    private static String formatBytes(double bytes) {
+        return Double.isNaN(bytes) ? "-" : String.format("%.0f", bytes);
+    }
+
+    private record Sample(double score, String unit, double allocatedBytes) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.pestvisionai.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pestvisionai.backend.dto.BoundingBoxDto;
+import com.pestvisionai.backend.dto.DetectionEnvelopeDto;
+import com.pestvisionai.backend.dto.DetectionEventDto;
+import com.pestvisionai.backend.dto.DetectionView;
+import com.pestvisionai.backend.dto.LiveEventDto;
+import com.pestvisionai.backend.dto.SprayEventView;
+import com.pestvisionai.backend.model.BoundingBox;
+import com.pestvisionai.backend.model.Detection;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Deterministic payload factory shared by the benchmarks so that every run measures the same data.
+ */
+public final class BenchmarkFixtures {
+
+    private static final String[] PEST_TYPES = {"aphid", "armyworm", "beetle", "whitefly", "general"};
+    private static final Instant BASE_TIME = Instant.parse("2025-10-24T03:46:00Z");
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Builds an {@link ObjectMapper} configured the same way Spring Boot configures the one used by WebFlux.
+     */
+    public static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    public static DetectionEnvelopeDto envelope(long frameId, int streamCount, int boxCount) {
+        SplittableRandom random = new SplittableRandom(frameId);
+        List<BoundingBoxDto> boxes = new ArrayList<>(boxCount);
+        double maxConfidence = 0.0;
+        for (int i = 0; i < boxCount; i++) {
+            double confidence = 0.4 + random.nextDouble() * 0.6;
+            maxConfidence = Math.max(maxConfidence, confidence);
+            boxes.add(new BoundingBoxDto(
+                    random.nextInt(1200),
+                    random.nextInt(680),
+                    1 + random.nextInt(120),
+                    1 + random.nextInt(120),
+                    confidence,
+                    "pest",
+                    i));
+        }
+        DetectionEventDto payload = new DetectionEventDto(
+                frameId,
+                "camera-" + (frameId % Math.max(1, streamCount)),
+                BASE_TIME.plusMillis(frameId * 200),
+                PEST_TYPES[(int) (frameId % PEST_TYPES.length)],
+                Math.max(1, boxCount),
+                boxes,
+                maxConfidence,
+                "storage/snapshots/frame_" + frameId + ".jpg");
+        return new DetectionEnvelopeDto("vision-service", payload);
+    }
+
+    public static Detection detection(long frameId, int boxCount) {
+        DetectionEnvelopeDto envelope = envelope(frameId, 4, boxCount);
+        var payload = envelope.payload();
+        Detection detection = new Detection();
+        detection.setDetectedAt(payload.detectedAt());
+        detection.setStreamId(payload.streamId());
+        detection.setServiceName(envelope.serviceName());
+        detection.setPestType(payload.pestType());
+        detection.setPestCount(payload.pestCount());
+        detection.setMaxConfidence(payload.maxConfidence());
+        detection.setSnapshotPath(payload.snapshotPath());
+        detection.setAnalysisSummary("Aphid colonies concentrated on the eastern rows. Inspect undersides of leaves and schedule a targeted spray.");
+        List<BoundingBox> boxes = new ArrayList<>(boxCount);
+        for (BoundingBoxDto dto : payload.boxes()) {
+            BoundingBox box = new BoundingBox();
+            box.setX(dto.x());
+            box.setY(dto.y());
+            box.setWidth(dto.width());
+            box.setHeight(dto.height());
+            box.setConfidence(dto.confidence());
+            box.setLabel(dto.label());
+            box.setTrackId(dto.trackId());
+            boxes.add(box);
+        }
+        detection.setBoxes(boxes);
+        return detection;
+    }
+
+    public static List<Detection> detections(int count, int boxCount) {
+        List<Detection> detections = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            detections.add(detection(i, boxCount));
+        }
+        return detections;
+    }
+
+    public static LiveEventDto liveEvent(long frameId, int boxCount) {
+        return liveEvent(frameId, 4, boxCount);
+    }
+
+    public static LiveEventDto liveEvent(long frameId, int streamCount, int boxCount) {
+        DetectionEventDto payload = envelope(frameId, streamCount, boxCount).payload();
+        DetectionView view = new DetectionView(
+                frameId,
+                payload.detectedAt(),
+                payload.streamId(),
+                "vision-service",
+                payload.pestType(),
+                payload.pestCount(),
+                payload.maxConfidence(),
+                payload.snapshotPath(),
+                "Aphid colonies concentrated on the eastern rows.",
+                payload.boxes());
+        SprayEventView spray = payload.maxConfidence() >= 0.75
+                ? new SprayEventView(frameId, payload.detectedAt(), "Confidence >= 0.75", payload.maxConfidence(), frameId,
+                        "sprayer-1", "QUEUED", 0, null, null)
+                : null;
+        return new LiveEventDto(view, spray, null);
+    }
+}
@@ -0,0 +1,89 @@
+package com.pestvisionai.benchmarks;
+
+import com.pestvisionai.backend.cluster.ClusterNode;
+import com.pestvisionai.backend.cluster.LiveEventBus;
+import com.pestvisionai.backend.dto.LiveEventDto;
+import com.pestvisionai.backend.service.DetectionEventPublisher;
+import com.pestvisionai.backend.service.LiveEventFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.Disposable;
+
+/**
+ * Publishes live events to hundreds of subscribers that each follow a single camera above a confidence floor.
+ * {@code indexed} hands the filter to the publisher; {@code clientSide} subscribes to everything and discards
+ * non-matching events afterwards, which is what dashboards did before server-side filters existed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilteredFanOutBenchmark {
+
+    @Param({"100", "500"})
+    public int subscriberCount;
+
+    @Param({"64"})
+    public int streamCount;
+
+    @Param({"indexed", "clientSide"})
+    public String routing;
+
+    private final LongAdder delivered = new LongAdder();
+    private final List<Disposable> subscriptions = new ArrayList<>();
+    private DetectionEventPublisher publisher;
+    private LiveEventDto[] events;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        publisher = new DetectionEventPublisher(LiveEventBus.none(), new ClusterNode("bench", false),
+                new SimpleMeterRegistry());
+        for (int i = 0; i < subscriberCount; i++) {
+            String streamId = "camera-" + (i % streamCount);
+            LiveEventFilter filter = new LiveEventFilter(Set.of(streamId), Set.of(), 0.5, false, false, false);
+            if ("indexed".equals(routing)) {
+                subscriptions.add(publisher.stream(filter).subscribe(ignored -> delivered.increment()));
+            } else {
+                subscriptions.add(publisher.stream()
+                        .filter(event -> streamId.equals(event.detection().streamId())
+                                && event.detection().maxConfidence() >= filter.minConfidence())
+                        .subscribe(ignored -> delivered.increment()));
+            }
+        }
+        events = new LiveEventDto[streamCount];
+        for (int i = 0; i < streamCount; i++) {
+            events[i] = BenchmarkFixtures.liveEvent(i, streamCount, 8);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscriptions.forEach(Disposable::dispose);
+        subscriptions.clear();
+    }
+
+    @Benchmark
+    public void publish() {
+        publisher.publish(events[next]);
+        next = (next + 1) % events.length;
+    }
+}
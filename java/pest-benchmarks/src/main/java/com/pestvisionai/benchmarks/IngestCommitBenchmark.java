@@ -0,0 +1,99 @@
+package com.pestvisionai.benchmarks;
+
+import com.pestvisionai.backend.PestBackendApplication;
+import com.pestvisionai.backend.service.DetectionIngestService;
+import com.pestvisionai.backend.service.DetectionProcessingResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Compares one transaction per detection ({@code direct}) with per-stream partitions and group commit
+ * ({@code partitioned}) on the real persistence stack (Spring Data JPA over in-memory H2), with many threads
+ * ingesting for many cameras at once. Gemini is disabled and the spray threshold is out of reach so only the ingest
+ * transaction is measured. Commits and SQL statements per detection (Hibernate statistics, so every lookup, insert and
+ * sequence call counts) are printed at the end of each trial. Every detection is a new
+ * frame, so {@code dedup=true} against {@code dedup=false} is what frame deduplication costs non-duplicate traffic.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class IngestCommitBenchmark {
+
+    @Param({"direct", "partitioned"})
+    public String mode;
+
+    @Param({"32"})
+    public int streamCount;
+
+    @Param({"4"})
+    public int boxCount;
+
+    @Param({"true", "false"})
+    public boolean dedup;
+
+    private final AtomicLong frames = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private DetectionIngestService ingestService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PestBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:ingest-" + UUID.randomUUID()
+                                + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.pestvisionai=WARN",
+                        "--pestvision.ai.gemini.api-key=",
+                        "--pestvision.spray.confidence-threshold=2.0",
+                        // Measures the commit path itself; 32 benchmark threads would otherwise meet the admission limit.
+                        "--pestvision.ingest.admission.enabled=false",
+                        "--pestvision.ingest.dedup.enabled=" + dedup,
+                        "--pestvision.ingest.mode=" + mode);
+        ingestService = context.getBean(DetectionIngestService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        MeterRegistry registry = context.getBean(MeterRegistry.class);
+        double commits = registry.get("pestvision.ingest.commits").counter().count();
+        double items = registry.get("pestvision.ingest.batch.size").summary().totalAmount();
+        long statements = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class)
+                .getStatistics().getPrepareStatementCount();
+        System.out.printf("%n%s, dedup=%s: %.0f detections in %.0f commits and %d statements"
+                        + " (%.3f commits, %.3f statements per detection)%n",
+                mode, dedup, items, commits, statements,
+                items == 0 ? 0.0 : commits / items, items == 0 ? 0.0 : statements / items);
+        context.close();
+    }
+
+    @Benchmark
+    public DetectionProcessingResult ingest() {
+        return ingestService.submit(BenchmarkFixtures.envelope(frames.incrementAndGet(), streamCount, boxCount)).join();
+    }
+}
@@ -0,0 +1,59 @@
+package com.pestvisionai.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.pestvisionai.backend.dto.DetectionEnvelopeDto;
+import com.pestvisionai.backend.dto.LiveEventDto;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Jackson decoding of ingest payloads and encoding of live events, using the mapper settings WebFlux uses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonCodecBenchmark {
+
+    @Param({"1", "8", "64"})
+    public int boxCount;
+
+    private ObjectReader envelopeReader;
+    private ObjectWriter liveEventWriter;
+    private byte[] envelopeJson;
+    private LiveEventDto liveEvent;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = BenchmarkFixtures.objectMapper();
+        envelopeReader = mapper.readerFor(DetectionEnvelopeDto.class);
+        liveEventWriter = mapper.writerFor(LiveEventDto.class);
+        envelopeJson = mapper.writeValueAsBytes(BenchmarkFixtures.envelope(42, 4, boxCount));
+        liveEvent = BenchmarkFixtures.liveEvent(42, boxCount);
+    }
+
+    @Benchmark
+    public DetectionEnvelopeDto readEnvelope() throws IOException {
+        return envelopeReader.readValue(envelopeJson);
+    }
+
+    @Benchmark
+    public byte[] writeLiveEvent() throws IOException {
+        return liveEventWriter.writeValueAsBytes(liveEvent);
+    }
+}
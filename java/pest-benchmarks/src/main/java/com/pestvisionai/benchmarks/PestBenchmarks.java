@@ -0,0 +1,57 @@
+package com.pestvisionai.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Accepts the regular JMH command line, always attaches the GC profiler so
+ * every result carries {@code gc.alloc.rate.norm}, and writes JSON results to {@code target/jmh-result.json} unless
+ * {@code -rf}/{@code -rff} say otherwise. When started with {@code -Dbaseline=<file>} the fresh results are compared
+ * against that earlier run.
+ */
+public final class PestBenchmarks {
+
+    static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    private PestBenchmarks() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, IOException, RunnerException {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams()
+                || cli.shouldListProfilers() || cli.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(cli);
+        builder.addProfiler(GCProfiler.class);
+        if (!cli.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        String resultFile = cli.getResult().orElse(DEFAULT_RESULT_FILE);
+        builder.result(resultFile);
+        Path resultPath = Path.of(resultFile).toAbsolutePath();
+        if (resultPath.getParent() != null) {
+            Files.createDirectories(resultPath.getParent());
+        }
+        Options options = builder.build();
+
+        new Runner(options).run();
+
+        String baseline = System.getProperty("baseline");
+        if (baseline != null && !baseline.isBlank()) {
+            BaselineComparison.compare(Path.of(baseline), resultPath, System.out);
+        }
+    }
+}
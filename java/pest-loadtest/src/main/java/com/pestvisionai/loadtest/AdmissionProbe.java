@@ -0,0 +1,162 @@
+package com.pestvisionai.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Drives ingest past its capacity and checks how admission control sheds load.
+ *
+ * <p>Sends {@link EnvelopeFactory} detections open loop at {@code --rate} (default well above what an embedded backend
+ * with a slow {@link StubGeminiServer} absorbs) and reports, separately for detections at or above the spray threshold
+ * ({@code --threshold}, default 0.75) and below it, how many were accepted, answered 429 or failed otherwise, plus
+ * the latency of accepted ones. With admission control working, accepted latency stays bounded and the high-confidence
+ * class keeps a much higher acceptance ratio than the low one. Run once with
+ * {@code --pestvision.ingest.admission.enabled=false} for the unprotected baseline.
+ */
+public final class AdmissionProbe {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestOptions options;
+    private final PrintStream out = System.out;
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private AdmissionProbe(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new AdmissionProbe(LoadTestOptions.parse(args)).run();
+        System.exit(0);
+    }
+
+    private void run() throws IOException {
+        StubGeminiServer gemini = null;
+        EmbeddedBackend backend = null;
+        String target = options.string("target", null);
+        try {
+            if (target == null) {
+                gemini = StubGeminiServer.fromOptions(options).start();
+                backend = EmbeddedBackend.start(gemini.baseUrl(), options.backendArgs());
+                target = backend.baseUrl();
+                out.println("Embedded backend listening on " + target);
+            }
+            double rate = options.decimal("rate", 500);
+            Duration duration = options.duration("duration", Duration.ofSeconds(30));
+            double threshold = options.decimal("threshold", 0.75);
+            Outcomes high = new Outcomes("high-confidence");
+            Outcomes low = new Outcomes("low-confidence");
+            out.printf("Sending %.0f detections/s for %ss%n", rate, duration.toSeconds());
+            long started = System.nanoTime();
+            drive(URI.create(target + "/api/detections"), rate, duration, threshold, high, low);
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            out.println();
+            out.printf("%-16s %8s %9s %8s %8s %10s%n", "class", "sent", "accepted", "429", "other", "accepted %");
+            high.print(out);
+            low.print(out);
+            out.println();
+            LatencyStats.printHeader(out);
+            high.accepted.printSummary(out, seconds);
+            low.accepted.printSummary(out, seconds);
+            if (backend != null) {
+                BackendMetrics.print(backend, out);
+            }
+        } finally {
+            if (backend != null) {
+                backend.close();
+            }
+            if (gemini != null) {
+                gemini.close();
+            }
+        }
+    }
+
+    private void drive(URI ingestUri, double rate, Duration duration, double threshold, Outcomes high, Outcomes low)
+            throws IOException {
+        EnvelopeFactory envelopes = EnvelopeFactory.fromOptions(objectMapper, options);
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + duration.toNanos();
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long intended = startNanos;
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        while (intended < endNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long scheduled = intended;
+            byte[] body = envelopes.next(Instant.now());
+            double confidence = objectMapper.readTree(body).path("payload").path("maxConfidence").asDouble();
+            Outcomes outcomes = confidence >= threshold ? high : low;
+            HttpRequest request = HttpRequest.newBuilder(ingestUri)
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            outcomes.sent.increment();
+            inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, ex) -> outcomes.record(scheduled, response, ex)));
+            if (inFlight.size() >= 4096) {
+                inFlight.removeIf(CompletableFuture::isDone);
+            }
+            intended += interval;
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                .handle((ignored, ex) -> null)
+                .join();
+    }
+
+    private static final class Outcomes {
+
+        private final String name;
+        private final LatencyStats accepted;
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder shed = new LongAdder();
+        private final LongAdder other = new LongAdder();
+
+        private Outcomes(String name) {
+            this.name = name;
+            this.accepted = new LatencyStats(name);
+        }
+
+        private void record(long scheduledNanos, HttpResponse<?> response, Throwable ex) {
+            if (ex == null && response.statusCode() == 201) {
+                accepted.recordNanos(System.nanoTime() - scheduledNanos);
+            } else if (ex == null && response.statusCode() == 429) {
+                shed.increment();
+            } else {
+                other.increment();
+                accepted.recordError();
+            }
+        }
+
+        private void print(PrintStream out) {
+            long total = sent.sum();
+            long ok = accepted.count();
+            out.printf("%-16s %8d %9d %8d %8d %10.1f%n", name, total, ok, shed.sum(), other.sum(),
+                    total == 0 ? 0.0 : 100.0 * ok / total);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.pestvisionai.loadtest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.PrintStream;
+import java.util.Comparator;
+
+/**
+ * Prints the backend's own {@code pestvision.*} counters and gauges after a run against the embedded backend, so
+ * the client-side latency can be read next to what the server did (Gemini outcomes, breaker state, ...).
+ */
+final class BackendMetrics {
+
+    private BackendMetrics() {
+    }
+
+    static void print(EmbeddedBackend backend, PrintStream out) {
+        MeterRegistry registry = backend.context().getBean(MeterRegistry.class);
+        out.println();
+        out.println("Backend metrics");
+        registry.getMeters().stream()
+                .filter(meter -> meter.getId().getName().startsWith("pestvision."))
+                .filter(meter -> meter instanceof Counter || meter instanceof Gauge)
+                .sorted(Comparator.comparing(meter -> meter.getId().toString()))
+                .forEach(meter -> out.printf("  %-70s %12.1f%n", describe(meter), value(meter)));
+    }
+
+    private static String describe(Meter meter) {
+        StringBuilder builder = new StringBuilder(meter.getId().getName());
+        meter.getId().getTags().forEach(tag -> builder.append(' ').append(tag.getKey()).append('=').append(tag.getValue()));
+        return builder.toString();
+    }
+
+    private static double value(Meter meter) {
+        return meter instanceof Counter counter ? counter.count() : ((Gauge) meter).value();
+    }
+}
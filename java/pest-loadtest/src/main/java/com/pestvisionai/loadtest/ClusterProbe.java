@@ -0,0 +1,276 @@
+package com.pestvisionai.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pestvisionai.backend.model.Detection;
+import com.pestvisionai.backend.model.SprayEvent;
+import com.pestvisionai.backend.repository.DetectionRepository;
+import com.pestvisionai.backend.repository.SprayEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Multi-instance check for cluster mode.
+ *
+ * <p>Runs the same high-confidence workload twice: once against a single backend with in-JVM cooldowns, then against
+ * {@code --nodes} backends that share one in-memory database and a loopback event bus. For the cluster run it verifies
+ * that no two sprays for the same stream fall inside one cooldown window even though detections for that stream
+ * arrive on every node, and that an SSE client on each node sees the detections ingested on all the others. The
+ * difference in ingest latency and in {@code pestvision.spray.cooldown.check} between the two runs is the cost of
+ * coordinating cooldowns through the database.
+ *
+ * <p>Exits with status 1 when a check fails.
+ */
+public final class ClusterProbe {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestOptions options;
+    private final PrintStream out = System.out;
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private ClusterProbe(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        boolean passed = new ClusterProbe(options).run();
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        int nodes = Math.max(2, options.integer("nodes", 2));
+        int cooldownSeconds = options.integer("cooldown-seconds", 1);
+        Duration duration = options.duration("duration", Duration.ofSeconds(10));
+        int concurrency = options.integer("concurrency", 32);
+
+        List<String> common = new ArrayList<>(options.backendArgs());
+        common.add("--pestvision.spray.cooldown-seconds=" + cooldownSeconds);
+        common.add("--pestvision.spray.cooldown-scope=stream");
+
+        out.printf("Single node: %d outstanding requests for %ss%n", concurrency, duration.toSeconds());
+        RunResult single;
+        try (EmbeddedBackend backend = EmbeddedBackend.start(null, common)) {
+            single = drive("ingest-single", List.of(backend), concurrency, duration);
+        }
+
+        out.printf("%d nodes on a shared database: %d outstanding requests for %ss%n",
+                nodes, concurrency, duration.toSeconds());
+        String database = "cluster-" + UUID.randomUUID();
+        String channel = "probe-" + UUID.randomUUID();
+        List<EmbeddedBackend> backends = new ArrayList<>();
+        List<SseCounter> counters = new ArrayList<>();
+        boolean passed;
+        try {
+            for (int i = 1; i <= nodes; i++) {
+                List<String> args = new ArrayList<>(common);
+                args.add("--pestvision.cluster.enabled=true");
+                args.add("--pestvision.cluster.node-id=node-" + i);
+                args.add("--pestvision.cluster.bus=loopback");
+                args.add("--pestvision.cluster.loopback-channel=" + channel);
+                // Started one after another so only the first replica creates the schema.
+                backends.add(EmbeddedBackend.start(database, null, args));
+            }
+            for (EmbeddedBackend backend : backends) {
+                counters.add(new SseCounter(backend.baseUrl()).connect());
+            }
+            Thread.sleep(500);
+            RunResult cluster = drive("ingest-cluster", backends, concurrency, duration);
+
+            report(single, cluster);
+            passed = checkCooldowns(backends.get(0), cooldownSeconds);
+            passed &= checkFanOut(counters, cluster.ingested());
+        } finally {
+            backends.forEach(EmbeddedBackend::close);
+        }
+        out.println(passed ? "PASS" : "FAIL");
+        return passed;
+    }
+
+    private RunResult drive(String name, List<EmbeddedBackend> backends, int concurrency, Duration duration) {
+        EnvelopeFactory envelopes = new EnvelopeFactory(objectMapper, options.integer("cameras", 4), 1, 4, 1.0);
+        List<URI> targets = backends.stream().map(backend -> URI.create(backend.baseUrl() + "/api/detections")).toList();
+        LatencyStats ingest = new LatencyStats(name);
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong ingested = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        long started = System.nanoTime();
+        CompletableFuture<?>[] lanes = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            lanes[i] = lane(targets, next, envelopes, ingest, ingested, deadline);
+        }
+        CompletableFuture.allOf(lanes).join();
+        ingest.stop();
+        double seconds = (System.nanoTime() - started) / 1e9;
+        Timer cooldownCheck = backends.get(0).context().getBean(MeterRegistry.class)
+                .find("pestvision.spray.cooldown.check").timer();
+        return new RunResult(ingest, seconds, ingested.get(), cooldownCheck);
+    }
+
+    private CompletableFuture<Void> lane(List<URI> targets, AtomicInteger next, EnvelopeFactory envelopes,
+            LatencyStats ingest, AtomicLong ingested, long deadline) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // Round robin across nodes, so consecutive detections of one camera land on different replicas.
+        URI target = targets.get(Math.floorMod(next.getAndIncrement(), targets.size()));
+        HttpRequest request = HttpRequest.newBuilder(target)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(envelopes.next(Instant.now())))
+                .build();
+        long scheduled = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, ex) -> {
+                    if (ex != null || response.statusCode() != 201) {
+                        ingest.recordError();
+                    } else {
+                        ingest.recordNanos(System.nanoTime() - scheduled);
+                        ingested.incrementAndGet();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> lane(targets, next, envelopes, ingest, ingested, deadline));
+    }
+
+    private void report(RunResult single, RunResult cluster) {
+        out.println();
+        LatencyStats.printHeader(out);
+        single.ingest().printSummary(out, single.seconds());
+        cluster.ingest().printSummary(out, cluster.seconds());
+        out.println();
+        out.printf("%-28s %10s %10s %10s%n", "cooldown check", "count", "mean ms", "max ms");
+        printTimer("single (in-JVM)", single.cooldownCheck());
+        printTimer("cluster (lease, node-1)", cluster.cooldownCheck());
+    }
+
+    private void printTimer(String label, Timer timer) {
+        if (timer == null) {
+            out.printf("%-28s %10s%n", label, "-");
+            return;
+        }
+        out.printf("%-28s %10d %10.3f %10.3f%n", label, timer.count(),
+                timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Every pair of consecutive sprays for one stream must be at least one cooldown apart, whichever node fired them.
+     */
+    private boolean checkCooldowns(EmbeddedBackend backend, int cooldownSeconds) {
+        Map<Long, String> streamByDetection = backend.context().getBean(DetectionRepository.class).findAll().stream()
+                .collect(Collectors.toMap(Detection::getId, detection -> Objects.toString(detection.getStreamId(), "?")));
+        Map<String, List<SprayEvent>> sprays = backend.context().getBean(SprayEventRepository.class).findAll().stream()
+                .sorted(Comparator.comparing(SprayEvent::getTriggeredAt))
+                .collect(Collectors.groupingBy(event -> streamByDetection.getOrDefault(event.getDetectionId(), "?")));
+        Duration cooldown = Duration.ofSeconds(cooldownSeconds);
+        boolean passed = true;
+        out.println();
+        for (Map.Entry<String, List<SprayEvent>> entry : sprays.entrySet()) {
+            List<SprayEvent> events = entry.getValue();
+            int violations = 0;
+            for (int i = 1; i < events.size(); i++) {
+                Duration gap = Duration.between(events.get(i - 1).getTriggeredAt(), events.get(i).getTriggeredAt());
+                if (gap.compareTo(cooldown) < 0) {
+                    violations++;
+                }
+            }
+            out.printf("stream %-12s %4d sprays, %d inside a cooldown window%n", entry.getKey(), events.size(), violations);
+            passed &= violations == 0;
+        }
+        return passed;
+    }
+
+    private boolean checkFanOut(List<SseCounter> counters, long ingested) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline && counters.stream().anyMatch(counter -> counter.seen() < ingested)) {
+            Thread.sleep(100);
+        }
+        boolean passed = true;
+        for (int i = 0; i < counters.size(); i++) {
+            long seen = counters.get(i).seen();
+            out.printf("SSE on node-%d saw %d of %d detections%n", i + 1, seen, ingested);
+            passed &= seen >= ingested;
+        }
+        return passed;
+    }
+
+    private record RunResult(LatencyStats ingest, double seconds, long ingested, Timer cooldownCheck) {
+    }
+
+    /**
+     * Counts distinct detection ids arriving on one node's SSE stream.
+     */
+    private final class SseCounter {
+
+        private final URI streamUri;
+        private final Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        SseCounter(String baseUrl) {
+            this.streamUri = URI.create(baseUrl + "/api/detections/stream");
+        }
+
+        SseCounter connect() {
+            HttpRequest request = HttpRequest.newBuilder(streamUri).header("Accept", "text/event-stream").GET().build();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofLines())
+                    .thenAcceptAsync(response -> consume(response.body()))
+                    .exceptionally(ex -> null);
+            return this;
+        }
+
+        private void consume(Stream<String> lines) {
+            try (lines) {
+                lines.filter(line -> line.startsWith("data:"))
+                        .map(line -> line.substring("data:".length()))
+                        .map(parseId())
+                        .filter(id -> id > 0)
+                        .forEach(ids::add);
+            }
+        }
+
+        private Function<String, Long> parseId() {
+            return json -> {
+                try {
+                    JsonNode node = objectMapper.readTree(json);
+                    return node.path("detection").path("id").asLong();
+                } catch (Exception ex) {
+                    return -1L;
+                }
+            };
+        }
+
+        long seen() {
+            return ids.size();
+        }
+    }
+}
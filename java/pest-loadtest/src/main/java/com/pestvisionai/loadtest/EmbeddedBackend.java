@@ -0,0 +1,64 @@
+package com.pestvisionai.loadtest;
+
+import com.pestvisionai.backend.PestBackendApplication;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs {@code pest-backend} inside the load-test JVM on a random port with its own in-memory database.
+ */
+final class EmbeddedBackend implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+
+    private EmbeddedBackend(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Starts a backend. {@code geminiBaseUrl} may be {@code null} to run without AI enrichment; {@code extraArgs} are
+     * additional {@code --property=value} overrides.
+     */
+    static EmbeddedBackend start(String geminiBaseUrl, List<String> extraArgs) {
+        return start("loadtest-" + UUID.randomUUID(), geminiBaseUrl, extraArgs);
+    }
+
+    /**
+     * Starts a backend on the named in-memory database. Backends started in the same JVM with the same
+     * {@code databaseName} share their tables, like replicas behind one database server.
+     */
+    static EmbeddedBackend start(String databaseName, String geminiBaseUrl, List<String> extraArgs) {
+        List<String> args = new ArrayList<>();
+        args.add("--server.port=0");
+        args.add("--spring.datasource.url=jdbc:h2:mem:" + databaseName
+                + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        args.add("--spring.jpa.properties.hibernate.format_sql=false");
+        args.add("--logging.level.com.pestvisionai=INFO");
+        if (geminiBaseUrl != null) {
+            args.add("--pestvision.ai.gemini.api-key=loadtest");
+            args.add("--pestvision.ai.gemini.base-url=" + geminiBaseUrl);
+        } else {
+            args.add("--pestvision.ai.gemini.api-key=");
+        }
+        args.addAll(extraArgs);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PestBackendApplication.class)
+                .run(args.toArray(String[]::new));
+        return new EmbeddedBackend(context);
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    ConfigurableApplicationContext context() {
+        return context;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,101 @@
+package com.pestvisionai.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Produces detection envelopes shaped like the ones {@code DetectionPublisher} in {@code python/vision_service}
+ * posts: camel-case keys, a per-camera increasing {@code frameId}, {@code pestType} "general", one box per pest and
+ * {@code maxConfidence} equal to the best box.
+ */
+final class EnvelopeFactory {
+
+    private static final int FRAME_WIDTH = 1280;
+    private static final int FRAME_HEIGHT = 720;
+
+    private final ObjectMapper objectMapper;
+    private final int cameras;
+    private final int minBoxes;
+    private final int maxBoxes;
+    private final double highConfidenceRatio;
+    private final AtomicLongArray frameCounters;
+
+    EnvelopeFactory(ObjectMapper objectMapper, int cameras, int minBoxes, int maxBoxes, double highConfidenceRatio) {
+        this.objectMapper = objectMapper;
+        this.cameras = Math.max(1, cameras);
+        this.minBoxes = Math.max(1, minBoxes);
+        this.maxBoxes = Math.max(this.minBoxes, maxBoxes);
+        this.highConfidenceRatio = highConfidenceRatio;
+        this.frameCounters = new AtomicLongArray(this.cameras);
+        // Like the vision service, start frame ids from the clock so that a second factory or a rerun against the
+        // same backend sends new frames rather than duplicates the backend would answer with the originals.
+        long firstFrame = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        for (int i = 0; i < this.cameras; i++) {
+            frameCounters.set(i, firstFrame);
+        }
+    }
+
+    static EnvelopeFactory fromOptions(ObjectMapper objectMapper, LoadTestOptions options) {
+        return new EnvelopeFactory(
+                objectMapper,
+                options.integer("cameras", 4),
+                options.integer("min-boxes", 1),
+                options.integer("max-boxes", 8),
+                options.decimal("high-confidence-ratio", 0.3));
+    }
+
+    /**
+     * Builds the next envelope for a randomly chosen camera, stamped with {@code detectedAt}.
+     */
+    byte[] next(Instant detectedAt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int camera = random.nextInt(cameras);
+        // The vision service only publishes every 5th frame by default.
+        long frameId = frameCounters.addAndGet(camera, 5);
+        int boxCount = minBoxes + random.nextInt(maxBoxes - minBoxes + 1);
+        boolean actionable = random.nextDouble() < highConfidenceRatio;
+
+        ArrayNode boxes = objectMapper.createArrayNode();
+        double maxConfidence = 0.0;
+        for (int i = 0; i < boxCount; i++) {
+            double confidence = actionable && i == 0
+                    ? 0.8 + random.nextDouble() * 0.19
+                    : 0.6 + random.nextDouble() * 0.14;
+            maxConfidence = Math.max(maxConfidence, confidence);
+            int width = 24 + random.nextInt(160);
+            int height = 24 + random.nextInt(160);
+            boxes.addObject()
+                    .put("x", random.nextInt(FRAME_WIDTH - width))
+                    .put("y", random.nextInt(FRAME_HEIGHT - height))
+                    .put("width", width)
+                    .put("height", height)
+                    .put("confidence", confidence)
+                    .put("label", "pest")
+                    .put("trackId", random.nextInt(1, 500));
+        }
+
+        ObjectNode payload = objectMapper.createObjectNode()
+                .put("frameId", frameId)
+                .put("streamId", "camera-" + camera)
+                .put("detectedAt", detectedAt.toString())
+                .put("pestType", "general")
+                .put("pestCount", boxCount)
+                .put("maxConfidence", maxConfidence)
+                .put("snapshotPath", String.format("storage/snapshots/frame_%07d.jpg", frameId));
+        payload.set("boxes", boxes);
+
+        ObjectNode envelope = objectMapper.createObjectNode().put("serviceName", "vision-service");
+        envelope.set("payload", payload);
+        try {
+            return objectMapper.writeValueAsBytes(envelope);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to encode detection envelope", ex);
+        }
+    }
+}
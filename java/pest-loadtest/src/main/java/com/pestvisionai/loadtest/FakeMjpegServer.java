@@ -0,0 +1,143 @@
+package com.pestvisionai.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Local stand-in for the vision service's {@code /video/feed}: an endless {@code multipart/x-mixed-replace} stream of
+ * fake JPEGs at a fixed frame rate, framed like the Python service does it (boundary {@code frame}, no
+ * {@code Content-Length}).
+ *
+ * <p>Every frame starts with the JPEG SOI marker followed by its sequence number and the {@link System#nanoTime()} at
+ * which it was written, so a client in the same JVM can tell how old a frame is and how many it missed
+ * ({@link #sequenceOf}, {@link #sentAtNanosOf}). Connections are counted to check that a relay opens only one.
+ */
+final class FakeMjpegServer implements AutoCloseable {
+
+    static final String PATH = "/video/feed";
+    private static final byte[] PART_HEADER = "--frame\r\nContent-Type: image/jpeg\r\n\r\n"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final double fps;
+    private final int frameBytes;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicLong framesSent = new AtomicLong();
+    private volatile boolean closed;
+
+    FakeMjpegServer(double fps, int frameBytes) throws IOException {
+        this.fps = fps;
+        this.frameBytes = Math.max(32, frameBytes);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fake-mjpeg");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext(PATH, this::handle);
+        server.setExecutor(executor);
+    }
+
+    static FakeMjpegServer fromOptions(LoadTestOptions options) throws IOException {
+        return new FakeMjpegServer(options.decimal("fps", 30), options.integer("frame-kb", 100) * 1024);
+    }
+
+    FakeMjpegServer start() {
+        server.start();
+        return this;
+    }
+
+    String streamUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + PATH;
+    }
+
+    double fps() {
+        return fps;
+    }
+
+    /**
+     * Connections accepted since start.
+     */
+    int connections() {
+        return connections.get();
+    }
+
+    /**
+     * Connections currently streaming.
+     */
+    int openConnections() {
+        return open.get();
+    }
+
+    long framesSent() {
+        return framesSent.get();
+    }
+
+    static long sequenceOf(byte[] jpeg) {
+        return ByteBuffer.wrap(jpeg, 2, 8).getLong();
+    }
+
+    static long sentAtNanosOf(byte[] jpeg) {
+        return ByteBuffer.wrap(jpeg, 10, 8).getLong();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        connections.incrementAndGet();
+        open.incrementAndGet();
+        byte[] frame = new byte[frameBytes];
+        // Filler that can never contain the boundary.
+        Arrays.fill(frame, (byte) 0x55);
+        frame[0] = (byte) 0xFF;
+        frame[1] = (byte) 0xD8;
+        frame[frameBytes - 2] = (byte) 0xFF;
+        frame[frameBytes - 1] = (byte) 0xD9;
+        ByteBuffer stamp = ByteBuffer.wrap(frame);
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / fps);
+        exchange.getResponseHeaders().add("Content-Type", "multipart/x-mixed-replace; boundary=frame");
+        exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.sendResponseHeaders(200, 0);
+            long next = System.nanoTime();
+            for (long sequence = 1; !closed; sequence++) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                stamp.putLong(2, sequence).putLong(10, System.nanoTime());
+                out.write(PART_HEADER);
+                out.write(frame);
+                out.write(CRLF);
+                out.flush();
+                framesSent.incrementAndGet();
+                next += interval;
+            }
+        } catch (IOException ex) {
+            // The client went away.
+        } finally {
+            open.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,164 @@
+package com.pestvisionai.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.management.OperatingSystemMXBean;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Compares the ingest capacity of {@code POST /api/detections} with the {@code /ws/detections} stream.
+ *
+ * <p>Both phases send the same {@link EnvelopeFactory} payloads as fast as the transport allows: REST with
+ * {@code --rest-concurrency} outstanding requests, the stream with {@code --ws-connections} producers that each send
+ * whatever the backend has granted. Throughput is reported per core ({@code --server-cores}, default all cores of this
+ * machine) and, for the embedded backend, as CPU time per thousand detections. The embedded backend shares the JVM
+ * with the load generator, so its CPU figures include client work; use {@code --target} against a separate process
+ * for server-only numbers.
+ */
+public final class IngestCapacityProbe {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestOptions options;
+    private final PrintStream out = System.out;
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private IngestCapacityProbe(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new IngestCapacityProbe(LoadTestOptions.parse(args)).run();
+        System.exit(0);
+    }
+
+    private void run() {
+        String target = options.string("target", null);
+        EmbeddedBackend backend = null;
+        try {
+            if (target == null) {
+                backend = EmbeddedBackend.start(null, options.backendArgs());
+                target = backend.baseUrl();
+                out.println("Embedded backend listening on " + target);
+            }
+            Duration warmup = options.duration("warmup", Duration.ofSeconds(5));
+            Duration duration = options.duration("duration", Duration.ofSeconds(20));
+            int restConcurrency = options.integer("rest-concurrency", 64);
+            int wsConnections = options.integer("ws-connections", 4);
+
+            out.printf("Warming up both transports for %ss each%n", warmup.toSeconds());
+            rest(target, restConcurrency, warmup, new LatencyStats("warmup"));
+            stream(target, wsConnections, warmup, new LatencyStats("warmup"));
+
+            LatencyStats restStats = new LatencyStats("rest");
+            LatencyStats streamStats = new LatencyStats("websocket");
+            out.printf("REST: %d outstanding requests for %ss%n", restConcurrency, duration.toSeconds());
+            Phase restPhase = rest(target, restConcurrency, duration, restStats);
+            out.printf("WebSocket: %d connections for %ss%n", wsConnections, duration.toSeconds());
+            Phase streamPhase = stream(target, wsConnections, duration, streamStats);
+
+            out.println();
+            LatencyStats.printHeader(out);
+            restStats.printSummary(out, restPhase.seconds());
+            streamStats.printSummary(out, streamPhase.seconds());
+            int cores = options.integer("server-cores", Runtime.getRuntime().availableProcessors());
+            out.printf("%n%-12s %14s %16s %22s%n", "transport", "detections/s", "per core (" + cores + ")",
+                    "cpu ms / 1000 ok");
+            print("rest", restPhase, cores, backend != null);
+            print("websocket", streamPhase, cores, backend != null);
+        } finally {
+            if (backend != null) {
+                backend.close();
+            }
+        }
+    }
+
+    private void print(String name, Phase phase, int cores, boolean cpuMeasured) {
+        double perSecond = phase.completed() / phase.seconds();
+        String cpu = cpuMeasured && phase.completed() > 0
+                ? String.format("%.1f", phase.cpuNanos() / 1e6 / (phase.completed() / 1000.0))
+                : "-";
+        out.printf("%-12s %14.1f %16.1f %22s%n", name, perSecond, perSecond / cores, cpu);
+    }
+
+    private Phase rest(String target, int concurrency, Duration duration, LatencyStats stats) {
+        EnvelopeFactory envelopes = EnvelopeFactory.fromOptions(objectMapper, options);
+        URI ingestUri = URI.create(target + "/api/detections");
+        AtomicLong completed = new AtomicLong();
+        long cpuStarted = processCpuNanos();
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        CompletableFuture<?>[] lanes = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            lanes[i] = lane(ingestUri, envelopes, stats, completed, deadline);
+        }
+        CompletableFuture.allOf(lanes).join();
+        stats.stop();
+        return new Phase((System.nanoTime() - started) / 1e9, completed.get(), processCpuNanos() - cpuStarted);
+    }
+
+    private CompletableFuture<Void> lane(URI ingestUri, EnvelopeFactory envelopes, LatencyStats stats,
+            AtomicLong completed, long deadline) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        HttpRequest request = HttpRequest.newBuilder(ingestUri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(envelopes.next(Instant.now())))
+                .build();
+        long sent = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, ex) -> {
+                    if (ex != null || response.statusCode() != 201) {
+                        stats.recordError();
+                    } else {
+                        stats.recordNanos(System.nanoTime() - sent);
+                        completed.incrementAndGet();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> lane(ingestUri, envelopes, stats, completed, deadline));
+    }
+
+    private Phase stream(String target, int connections, Duration duration, LatencyStats stats) {
+        EnvelopeFactory envelopes = EnvelopeFactory.fromOptions(objectMapper, options);
+        AtomicLong completed = new AtomicLong();
+        long cpuStarted = processCpuNanos();
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        CompletableFuture<?>[] producers = new CompletableFuture<?>[connections];
+        for (int i = 0; i < connections; i++) {
+            producers[i] = StreamIngestClient.run(client, target, objectMapper, envelopes, stats, completed, deadline);
+        }
+        CompletableFuture.allOf(producers).join();
+        stats.stop();
+        return new Phase((System.nanoTime() - started) / 1e9, completed.get(), processCpuNanos() - cpuStarted);
+    }
+
+    private static long processCpuNanos() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof OperatingSystemMXBean os) {
+            return os.getProcessCpuTime();
+        }
+        return 0;
+    }
+
+    private record Phase(double seconds, long completed, long cpuNanos) {
+    }
+}
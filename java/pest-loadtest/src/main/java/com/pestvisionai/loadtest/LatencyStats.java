@@ -0,0 +1,88 @@
+package com.pestvisionai.loadtest;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Thread-safe latency histogram in microseconds plus success and error counters for one measured operation.
+ */
+final class LatencyStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final String name;
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private volatile boolean recording = true;
+
+    LatencyStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void recordNanos(long nanos) {
+        if (recording) {
+            histogram.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos))));
+        }
+    }
+
+    void recordError() {
+        if (recording) {
+            errors.increment();
+        }
+    }
+
+    void reset() {
+        histogram.reset();
+        errors.reset();
+    }
+
+    void stop() {
+        recording = false;
+    }
+
+    long count() {
+        return histogram.getTotalCount();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    void printSummary(PrintStream out, double seconds) {
+        if (histogram.getTotalCount() == 0) {
+            out.printf("%-22s %10s %10s %10s %10s %10s %10s %10s %8s%n",
+                    name, 0, "-", "-", "-", "-", "-", "-", errors.sum());
+            return;
+        }
+        out.printf("%-22s %10d %10.1f %10.2f %10.2f %10.2f %10.2f %10.2f %8d%n",
+                name,
+                histogram.getTotalCount(),
+                seconds > 0 ? histogram.getTotalCount() / seconds : 0.0,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0,
+                errors.sum());
+    }
+
+    static void printHeader(PrintStream out) {
+        out.printf("%-22s %10s %10s %10s %10s %10s %10s %10s %8s%n",
+                "operation", "count", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+    }
+
+    void writeDistribution(Path directory) throws FileNotFoundException {
+        try (PrintStream out = new PrintStream(directory.resolve(name + ".hgrm").toFile())) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.pestvisionai.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Offline load test for the backend ingest path.
+ *
+ * <p>Replays detection envelopes at an open-loop rate (optionally with bursts) against either an external backend or
+ * an embedded one wired to {@link StubGeminiServer}, while polling {@code /api/detections/recent} and listening on the
+ * SSE stream. Ingest latency is measured from the time each request was scheduled, not sent, so queueing inside the
+ * generator is not hidden (coordinated omission). An optional closed-loop phase then finds saturation throughput.
+ */
+public final class LoadTest {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestOptions options;
+    private final PrintStream out = System.out;
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final LatencyStats ingest = new LatencyStats("ingest");
+    private final LatencyStats recent = new LatencyStats("recent");
+    private final LatencyStats sseLag = new LatencyStats("sse-delivery-lag");
+    private final LatencyStats saturation = new LatencyStats("ingest-saturation");
+
+    private LoadTest(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if (options.has("help")) {
+            System.out.println(LoadTestOptions.usage());
+            return;
+        }
+        new LoadTest(options).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        StubGeminiServer gemini = null;
+        EmbeddedBackend backend = null;
+        String target = options.string("target", null);
+        try {
+            if (target == null) {
+                if (options.flag("gemini", true)) {
+                    gemini = StubGeminiServer.fromOptions(options).start();
+                    out.println("Stub Gemini listening on " + gemini.baseUrl());
+                }
+                backend = EmbeddedBackend.start(gemini == null ? null : gemini.baseUrl(), options.backendArgs());
+                target = backend.baseUrl();
+                out.println("Embedded backend listening on " + target);
+            }
+            execute(target, gemini);
+            if (backend != null) {
+                BackendMetrics.print(backend, out);
+            }
+        } finally {
+            if (backend != null) {
+                backend.close();
+            }
+            if (gemini != null) {
+                gemini.close();
+            }
+        }
+    }
+
+    private void execute(String target, StubGeminiServer gemini) throws IOException {
+        EnvelopeFactory envelopes = EnvelopeFactory.fromOptions(objectMapper, options);
+        URI ingestUri = URI.create(target + "/api/detections");
+        URI recentUri = URI.create(target + "/api/detections/recent");
+
+        try (SseLagMonitor monitor = new SseLagMonitor(client, objectMapper, target, sseLag)) {
+            monitor.connect(options.integer("sse-clients", 1));
+            ScheduledExecutorService poller = startRecentPoller(recentUri, options.decimal("recent-poll-rate", 2));
+
+            Duration warmup = options.duration("warmup", Duration.ofSeconds(10));
+            if (!warmup.isZero()) {
+                out.printf("Warming up for %ss%n", warmup.toSeconds());
+                runOpenLoop(ingestUri, envelopes, warmup);
+                ingest.reset();
+                recent.reset();
+                sseLag.reset();
+            }
+
+            Duration duration = options.duration("duration", Duration.ofSeconds(60));
+            out.printf("Measuring for %ss at %.1f detections/s over %d cameras%n",
+                    duration.toSeconds(), options.decimal("rate", 20), options.integer("cameras", 4));
+            long started = System.nanoTime();
+            runOpenLoop(ingestUri, envelopes, duration);
+            double measuredSeconds = (System.nanoTime() - started) / 1e9;
+            ingest.stop();
+            recent.stop();
+            sseLag.stop();
+            if (poller != null) {
+                poller.shutdownNow();
+            }
+
+            double saturationSeconds = 0;
+            long saturationCompleted = 0;
+            if (options.flag("saturation", true)) {
+                Duration saturationDuration = options.duration("saturation-duration", Duration.ofSeconds(30));
+                int concurrency = options.integer("saturation-concurrency", 64);
+                out.printf("Saturating with %d outstanding requests for %ss%n", concurrency, saturationDuration.toSeconds());
+                long saturationStarted = System.nanoTime();
+                saturationCompleted = runClosedLoop(ingestUri, envelopes, concurrency, saturationDuration);
+                saturationSeconds = (System.nanoTime() - saturationStarted) / 1e9;
+            }
+
+            report(measuredSeconds, saturationSeconds, saturationCompleted, gemini);
+        }
+    }
+
+    private ScheduledExecutorService startRecentPoller(URI recentUri, double pollsPerSecond) {
+        if (pollsPerSecond <= 0) {
+            return null;
+        }
+        ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "recent-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / pollsPerSecond);
+        poller.scheduleAtFixedRate(() -> {
+            long scheduled = System.nanoTime();
+            HttpRequest request = HttpRequest.newBuilder(recentUri).timeout(REQUEST_TIMEOUT).GET().build();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, ex) -> record(recent, scheduled, response, ex, 200));
+        }, 0, periodNanos, TimeUnit.NANOSECONDS);
+        return poller;
+    }
+
+    /**
+     * Sends at the configured rate for {@code duration}, multiplying the rate by {@code burst-factor} for
+     * {@code burst-duration} every {@code burst-every}.
+     */
+    private void runOpenLoop(URI ingestUri, EnvelopeFactory envelopes, Duration duration) {
+        double baseRate = options.decimal("rate", 20);
+        long burstEvery = options.duration("burst-every", Duration.ZERO).toNanos();
+        long burstLength = options.duration("burst-duration", Duration.ofSeconds(2)).toNanos();
+        double burstFactor = options.decimal("burst-factor", 5);
+
+        long startNanos = System.nanoTime();
+        Instant startWall = Instant.now();
+        long endNanos = startNanos + duration.toNanos();
+        long intended = startNanos;
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        while (intended < endNanos) {
+            long elapsed = intended - startNanos;
+            boolean bursting = burstEvery > 0 && elapsed % burstEvery < burstLength;
+            double rate = bursting ? baseRate * burstFactor : baseRate;
+
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long scheduled = intended;
+            byte[] body = envelopes.next(startWall.plusNanos(scheduled - startNanos));
+            inFlight.add(send(ingestUri, body)
+                    .whenComplete((response, ex) -> record(ingest, scheduled, response, ex, 201)));
+            if (inFlight.size() >= 4096) {
+                inFlight.removeIf(CompletableFuture::isDone);
+            }
+            intended += (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                .handle((ignored, ex) -> null)
+                .join();
+    }
+
+    /**
+     * Keeps {@code concurrency} requests outstanding for {@code duration} and returns how many completed successfully.
+     */
+    private long runClosedLoop(URI ingestUri, EnvelopeFactory envelopes, int concurrency, Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong completed = new AtomicLong();
+        CompletableFuture<?>[] lanes = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            lanes[i] = lane(ingestUri, envelopes, deadline, completed);
+        }
+        CompletableFuture.allOf(lanes).join();
+        return completed.get();
+    }
+
+    private CompletableFuture<Void> lane(URI ingestUri, EnvelopeFactory envelopes, long deadline, AtomicLong completed) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long scheduled = System.nanoTime();
+        return send(ingestUri, envelopes.next(Instant.now()))
+                .handle((response, ex) -> {
+                    if (record(saturation, scheduled, response, ex, 201)) {
+                        completed.incrementAndGet();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> lane(ingestUri, envelopes, deadline, completed));
+    }
+
+    private CompletableFuture<HttpResponse<Void>> send(URI ingestUri, byte[] body) {
+        HttpRequest request = HttpRequest.newBuilder(ingestUri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static boolean record(LatencyStats stats, long scheduledNanos, HttpResponse<?> response, Throwable ex,
+            int expectedStatus) {
+        if (ex != null || response == null || response.statusCode() != expectedStatus) {
+            stats.recordError();
+            return false;
+        }
+        stats.recordNanos(System.nanoTime() - scheduledNanos);
+        return true;
+    }
+
+    private void report(double measuredSeconds, double saturationSeconds, long saturationCompleted,
+            StubGeminiServer gemini) throws IOException {
+        out.println();
+        LatencyStats.printHeader(out);
+        ingest.printSummary(out, measuredSeconds);
+        recent.printSummary(out, measuredSeconds);
+        sseLag.printSummary(out, measuredSeconds);
+        if (saturationSeconds > 0) {
+            saturation.printSummary(out, saturationSeconds);
+            out.printf("%nSaturation throughput: %.1f detections/s (%d ok, %d errors)%n",
+                    saturationCompleted / saturationSeconds, saturationCompleted, saturation.errors());
+        }
+        if (gemini != null) {
+            out.printf("Stub Gemini: %d calls, %d errors injected, %d hangs injected%n",
+                    gemini.requests(), gemini.errors(), gemini.hangs());
+        }
+
+        String histogramDir = options.string("histogram-dir", null);
+        if (histogramDir != null) {
+            Path directory = Files.createDirectories(Path.of(histogramDir));
+            for (LatencyStats stats : List.of(ingest, recent, sseLag, saturation)) {
+                stats.writeDistribution(directory);
+            }
+            out.println("Percentile distributions written to " + directory.toAbsolutePath());
+        }
+    }
+}
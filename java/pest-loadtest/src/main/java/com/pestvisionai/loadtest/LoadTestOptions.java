@@ -0,0 +1,143 @@
+package com.pestvisionai.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options of the load test. Every option is written as {@code --name=value}.
+ */
+final class LoadTestOptions {
+
+    private final Map<String, String> values;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        return new LoadTestOptions(values);
+    }
+
+    /**
+     * Options written as Spring property names ({@code --pestvision.ai.gemini.timeout-millis=500}) are passed through
+     * to the embedded backend unchanged.
+     */
+    List<String> backendArgs() {
+        List<String> args = new ArrayList<>();
+        values.forEach((name, value) -> {
+            if (name.indexOf('.') > 0) {
+                args.add("--" + name + "=" + value);
+            }
+        });
+        return args;
+    }
+
+    boolean has(String name) {
+        return values.containsKey(name);
+    }
+
+    String string(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    int integer(String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    double decimal(String name, double defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    boolean flag(String name, boolean defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Parses durations written either in ISO-8601 ({@code PT30S}) or with a unit suffix ({@code 250ms}, {@code 30s},
+     * {@code 2m}).
+     */
+    Duration duration(String name, Duration defaultValue) {
+        String value = values.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        return parseDuration(value);
+    }
+
+    static Duration parseDuration(String value) {
+        String trimmed = value.trim().toLowerCase();
+        if (trimmed.startsWith("pt")) {
+            return Duration.parse(trimmed.toUpperCase());
+        }
+        if (trimmed.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+        }
+        if (trimmed.endsWith("s")) {
+            return Duration.ofMillis((long) (Double.parseDouble(trimmed.substring(0, trimmed.length() - 1)) * 1000));
+        }
+        if (trimmed.endsWith("m")) {
+            return Duration.ofSeconds(Long.parseLong(trimmed.substring(0, trimmed.length() - 1)) * 60);
+        }
+        return Duration.ofMillis(Long.parseLong(trimmed));
+    }
+
+    static String usage() {
+        return """
+                Usage: java -jar pest-loadtest.jar [options]
+
+                Target
+                  --target=<url>               Backend base URL. When omitted an embedded backend is started.
+
+                Traffic shape
+                  --cameras=4                  Number of simulated camera streams
+                  --rate=20                    Detections per second across all cameras
+                  --duration=60s               Length of the measured open-loop phase
+                  --warmup=10s                 Unmeasured warm-up phase at the same rate
+                  --min-boxes=1 --max-boxes=8  Bounding boxes per detection
+                  --high-confidence-ratio=0.3  Share of detections above the spray threshold
+                  --burst-every=0s             Interval between bursts (0 disables bursts)
+                  --burst-duration=2s          Length of each burst
+                  --burst-factor=5             Rate multiplier during a burst
+
+                Readers
+                  --recent-poll-rate=2         GET /api/detections/recent per second (0 disables)
+                  --sse-clients=1              Concurrent subscribers on /api/detections/stream
+
+                Gemini stand-in
+                  --gemini=true                Start the stub Gemini server (embedded backend only)
+                  --gemini-latency=300ms       Base response latency
+                  --gemini-jitter=200ms        Uniform random latency added on top
+                  --gemini-error-rate=0.0      Share of calls answered with HTTP 503
+                  --gemini-hang-rate=0.0       Share of calls held open for --gemini-hang
+                  --gemini-hang=60s            How long hanging calls are held
+
+                Saturation
+                  --saturation=true            Run a closed-loop saturation phase after the open-loop phase
+                  --saturation-concurrency=64  Outstanding requests during saturation
+                  --saturation-duration=30s    Length of the saturation phase
+
+                Output
+                  --histogram-dir=<dir>        Write full .hgrm percentile distributions to this directory
+
+                Any --some.spring.property=value option is passed to the embedded backend.
+                """;
+    }
+}
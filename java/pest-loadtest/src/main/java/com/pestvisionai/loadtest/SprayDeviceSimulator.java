@@ -0,0 +1,191 @@
+package com.pestvisionai.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local spray device that speaks the backend's HTTP, TCP and UDP spray protocols, for exercising the network
+ * transports, acknowledgement timeouts and retries without hardware.
+ *
+ * <p>Usage: {@code java -cp pest-loadtest.jar com.pestvisionai.loadtest.SprayDeviceSimulator --port=7070
+ * --latency=80ms --drop-rate=0.1 --reject-rate=0.0}. HTTP listens on {@code port}, TCP and UDP on {@code port + 1}.
+ */
+public final class SprayDeviceSimulator implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration latency;
+    private final double dropRate;
+    private final double rejectRate;
+    private final HttpServer httpServer;
+    private final ServerSocket tcpServer;
+    private final DatagramSocket udpSocket;
+    private final ExecutorService workers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "spray-device");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    SprayDeviceSimulator(int httpPort, int tcpPort, int udpPort, Duration latency, double dropRate, double rejectRate)
+            throws IOException {
+        this.latency = latency;
+        this.dropRate = dropRate;
+        this.rejectRate = rejectRate;
+        this.httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", httpPort), 64);
+        this.httpServer.createContext("/commands", this::handleHttp);
+        this.httpServer.setExecutor(workers);
+        this.tcpServer = new ServerSocket(tcpPort, 64, InetAddress.getLoopbackAddress());
+        this.udpSocket = new DatagramSocket(new InetSocketAddress("127.0.0.1", udpPort));
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        int port = options.integer("port", 7070);
+        try (SprayDeviceSimulator device = new SprayDeviceSimulator(
+                options.integer("http-port", port),
+                options.integer("tcp-port", port + 1),
+                options.integer("udp-port", port + 1),
+                options.duration("latency", Duration.ofMillis(80)),
+                options.decimal("drop-rate", 0.0),
+                options.decimal("reject-rate", 0.0)).start()) {
+            System.out.printf("Spray device simulator: http://127.0.0.1:%d/commands, tcp 127.0.0.1:%d, udp 127.0.0.1:%d%n",
+                    device.httpServer.getAddress().getPort(), device.tcpServer.getLocalPort(), device.udpSocket.getLocalPort());
+            Thread.currentThread().join();
+        }
+    }
+
+    SprayDeviceSimulator start() {
+        httpServer.start();
+        workers.execute(this::acceptTcp);
+        workers.execute(this::serveUdp);
+        return this;
+    }
+
+    long received() {
+        return received.get();
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+
+    private void handleHttp(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        byte[] reply = reply(body, 0, body.length);
+        if (reply == null) {
+            // Emulate a device that never answers; the backend times out.
+            sleep(Duration.ofMinutes(1));
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, reply.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(reply);
+        }
+    }
+
+    private void acceptTcp() {
+        while (!tcpServer.isClosed()) {
+            try {
+                Socket socket = tcpServer.accept();
+                workers.execute(() -> serveTcp(socket));
+            } catch (IOException ex) {
+                return;
+            }
+        }
+    }
+
+    private void serveTcp(Socket socket) {
+        try (socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             OutputStream out = socket.getOutputStream()) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                byte[] command = line.getBytes(StandardCharsets.UTF_8);
+                byte[] reply = reply(command, 0, command.length);
+                if (reply != null) {
+                    out.write(reply);
+                    out.write('\n');
+                    out.flush();
+                }
+            }
+        } catch (IOException ignored) {
+            // Connection closed by the backend.
+        }
+    }
+
+    private void serveUdp() {
+        byte[] buffer = new byte[2048];
+        while (!udpSocket.isClosed()) {
+            try {
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                udpSocket.receive(packet);
+                byte[] reply = reply(packet.getData(), packet.getOffset(), packet.getLength());
+                if (reply != null) {
+                    udpSocket.send(new DatagramPacket(reply, reply.length, packet.getSocketAddress()));
+                }
+            } catch (IOException ex) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the reply for one command, or {@code null} when the command is dropped.
+     */
+    private byte[] reply(byte[] payload, int offset, int length) throws IOException {
+        received.incrementAndGet();
+        JsonNode command = objectMapper.readTree(payload, offset, length);
+        sleep(latency);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < dropRate) {
+            dropped.incrementAndGet();
+            return null;
+        }
+        boolean reject = random.nextDouble() < rejectRate;
+        return objectMapper.writeValueAsBytes(objectMapper.createObjectNode()
+                .put("commandId", command.path("commandId").asText())
+                .put("status", reject ? "NACK" : "ACK")
+                .put("message", reject ? "interlock engaged" : null));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        try {
+            tcpServer.close();
+        } catch (IOException ignored) {
+            // Shutting down.
+        }
+        udpSocket.close();
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,80 @@
+package com.pestvisionai.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Subscribes to the live SSE stream and records, for every received detection, the time between its
+ * {@code detectedAt} stamp (set by the generator when the request was scheduled) and its arrival.
+ */
+final class SseLagMonitor implements AutoCloseable {
+
+    private static final String DATA_PREFIX = "data:";
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final URI streamUri;
+    private final LatencyStats stats;
+    private final ExecutorService readers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "sse-reader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    SseLagMonitor(HttpClient client, ObjectMapper objectMapper, String baseUrl, LatencyStats stats) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.streamUri = URI.create(baseUrl + "/api/detections/stream");
+        this.stats = stats;
+    }
+
+    void connect(int subscribers) {
+        for (int i = 0; i < subscribers; i++) {
+            HttpRequest request = HttpRequest.newBuilder(streamUri)
+                    .header("Accept", "text/event-stream")
+                    .GET()
+                    .build();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofLines())
+                    .thenAcceptAsync(response -> consume(response.body()), readers)
+                    .exceptionally(ex -> {
+                        System.err.println("SSE subscriber failed: " + ex.getMessage());
+                        return null;
+                    });
+        }
+    }
+
+    private void consume(Stream<String> lines) {
+        try (lines) {
+            lines.filter(line -> line.startsWith(DATA_PREFIX)).forEach(this::record);
+        }
+    }
+
+    private void record(String line) {
+        Instant received = Instant.now();
+        try {
+            JsonNode detectedAt = objectMapper.readTree(line.substring(DATA_PREFIX.length()))
+                    .path("detection")
+                    .path("detectedAt");
+            Instant sent = detectedAt.isNumber()
+                    ? Instant.ofEpochMilli((long) (detectedAt.asDouble() * 1000))
+                    : Instant.parse(detectedAt.asText());
+            stats.recordNanos(Duration.between(sent, received).toNanos());
+        } catch (Exception ex) {
+            stats.recordError();
+        }
+    }
+
+    @Override
+    public void close() {
+        readers.shutdownNow();
+    }
+}
@@ -0,0 +1,250 @@
+package com.pestvisionai.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Startup cost of {@code pest-backend} in the standard mode and in the fast-start mode built by
+ * {@code mvn -Pfast-start package}.
+ *
+ * <p>Each run starts the backend as a separate JVM and posts a detection every few milliseconds from the moment the
+ * process is launched until one is answered {@code 201}. That time to the first accepted detection is what an edge box
+ * loses on every reboot. Also reported: the startup time Spring Boot logs, and the process's resident set size right
+ * after the first detection was accepted ({@code VmRSS}, Linux only).
+ *
+ * <ul>
+ *     <li>{@code standard}: {@code java -jar pest-backend-*-exec.jar}, no AOT, no CDS archive, Hibernate
+ *     {@code ddl-auto: update};</li>
+ *     <li>{@code fast-start}: the extracted jar in {@code target/fast-start} with its CDS archive, Spring AOT and the
+ *     {@code fast-start} profile (schema script, no schema inspection).</li>
+ * </ul>
+ * Modes alternate run by run so that disk caches and machine noise affect both alike. Exits with status 1 when a run
+ * fails to accept a detection within {@code --timeout}.
+ */
+public final class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(5);
+
+    private final LoadTestOptions options;
+    private final PrintStream out = System.out;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(500))
+            .build();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final EnvelopeFactory envelopes = new EnvelopeFactory(objectMapper, 1, 1, 4, 0.0);
+
+    private StartupBenchmark(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        boolean passed = new StartupBenchmark(options).run();
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        Path backendTarget = Path.of(options.string("backend-target", "java/pest-backend/target"));
+        Path executableJar = options.has("backend-jar")
+                ? Path.of(options.string("backend-jar", ""))
+                : findExecutableJar(backendTarget);
+        Path fastStartDir = backendTarget.resolve("fast-start");
+        int runs = Math.max(1, options.integer("runs", 5));
+        Duration timeout = options.duration("timeout", Duration.ofSeconds(120));
+        List<String> jvmArgs = splitArgs(options.string("jvm-args", ""));
+
+        Map<String, Mode> modes = new LinkedHashMap<>();
+        modes.put("standard", new Mode(executableJar.toAbsolutePath().getParent(),
+                List.of(), executableJar.getFileName().toString(), List.of()));
+        if (!options.flag("skip-fast-start", false)) {
+            if (!Files.isRegularFile(fastStartDir.resolve(executableJar.getFileName()))
+                    || !Files.isRegularFile(fastStartDir.resolve("application.jsa"))) {
+                throw new IllegalStateException("No fast-start build in " + fastStartDir
+                        + "; run mvn -Pfast-start package in java/pest-backend first");
+            }
+            modes.put("fast-start", new Mode(fastStartDir.toAbsolutePath(),
+                    List.of("-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true"),
+                    executableJar.getFileName().toString(),
+                    List.of("--spring.profiles.active=fast-start")));
+        }
+
+        out.printf("%d runs per mode of %s%n", runs, executableJar);
+        Map<String, List<RunResult>> results = new LinkedHashMap<>();
+        modes.keySet().forEach(name -> results.put(name, new ArrayList<>()));
+        boolean passed = true;
+        for (int run = 1; run <= runs; run++) {
+            for (Map.Entry<String, Mode> mode : modes.entrySet()) {
+                RunResult result = launch(mode.getValue(), jvmArgs, timeout);
+                results.get(mode.getKey()).add(result);
+                out.printf("  %-10s run %d: %s%n", mode.getKey(), run, result.describe());
+                passed &= result.accepted();
+            }
+        }
+
+        out.println();
+        out.printf("%-12s %22s %22s %22s %14s%n",
+                "mode", "first detection ms", "boot log ms", "rss at first MiB", "failed runs");
+        out.printf("%-12s %22s %22s %22s%n", "", "p50 / min / max", "p50 / min / max", "p50 / min / max");
+        for (Map.Entry<String, List<RunResult>> entry : results.entrySet()) {
+            List<RunResult> accepted = entry.getValue().stream().filter(RunResult::accepted).toList();
+            out.printf("%-12s %22s %22s %22s %14d%n",
+                    entry.getKey(),
+                    summary(accepted.stream().mapToDouble(RunResult::firstDetectionMillis).toArray()),
+                    summary(accepted.stream().mapToDouble(RunResult::bootLogMillis).filter(v -> v >= 0).toArray()),
+                    summary(accepted.stream().mapToDouble(RunResult::rssMebibytes).filter(v -> v >= 0).toArray()),
+                    entry.getValue().size() - accepted.size());
+        }
+        out.println();
+        out.println(passed ? "PASS" : "FAIL");
+        return passed;
+    }
+
+    private RunResult launch(Mode mode, List<String> jvmArgs, Duration timeout) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.addAll(mode.jvmArgs());
+        command.add("-jar");
+        command.add(mode.jar());
+        command.add("--server.port=" + port);
+        command.add("--pestvision.ai.gemini.api-key=");
+        command.addAll(mode.appArgs());
+        command.addAll(options.backendArgs());
+        Path log = Files.createTempFile("pest-backend-startup", ".log");
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .directory(mode.directory().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+
+        URI ingest = URI.create("http://127.0.0.1:" + port + "/api/detections");
+        long started = System.nanoTime();
+        Process process = builder.start();
+        try {
+            long deadline = started + timeout.toNanos();
+            while (System.nanoTime() < deadline && process.isAlive()) {
+                if (tryIngest(ingest)) {
+                    double firstDetectionMillis = (System.nanoTime() - started) / 1e6;
+                    double rss = residentMebibytes(process.pid());
+                    return new RunResult(true, firstDetectionMillis, bootLogMillis(log), rss, null);
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            String reason = process.isAlive() ? "no detection accepted within " + timeout.toSeconds() + "s"
+                    : "exited with status " + process.exitValue() + ", see " + log;
+            return new RunResult(false, -1, -1, -1, reason);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private boolean tryIngest(URI ingest) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(ingest)
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(envelopes.next(Instant.now())))
+                .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 201;
+        } catch (IOException ex) {
+            // Not listening yet, or the connection was accepted before the server could answer.
+            return false;
+        }
+    }
+
+    private static double bootLogMillis(Path log) {
+        try {
+            Matcher matcher = STARTED.matcher(Files.readString(log));
+            return matcher.find() ? Double.parseDouble(matcher.group(1)) * 1000 : -1;
+        } catch (IOException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Resident set size of {@code pid} from {@code /proc}, or -1 where that is not available.
+     */
+    private static double residentMebibytes(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    String[] parts = line.substring(6).trim().split("\\s+");
+                    return Long.parseLong(parts[0]) / 1024.0;
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            // Not Linux, or the process is already gone.
+        }
+        return -1;
+    }
+
+    private static Path findExecutableJar(Path backendTarget) throws IOException {
+        try (var files = Files.list(backendTarget)) {
+            return files.filter(file -> file.getFileName().toString().matches("pest-backend-.*-exec\\.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No pest-backend-*-exec.jar in " + backendTarget
+                            + "; run mvn -Pfast-start package in java/pest-backend first"));
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static List<String> splitArgs(String value) {
+        return value.isBlank() ? List.of() : Arrays.asList(value.trim().split("\\s+"));
+    }
+
+    private static String summary(double[] values) {
+        if (values.length == 0) {
+            return "-";
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return String.format("%.0f / %.0f / %.0f", sorted[sorted.length / 2], sorted[0], sorted[sorted.length - 1]);
+    }
+
+    private record Mode(Path directory, List<String> jvmArgs, String jar, List<String> appArgs) {
+    }
+
+    private record RunResult(boolean accepted, double firstDetectionMillis, double bootLogMillis, double rssMebibytes,
+            String failure) {
+
+        String describe() {
+            if (!accepted) {
+                return "FAILED, " + failure;
+            }
+            return String.format("first detection after %.0f ms, boot log %.0f ms, RSS %.0f MiB",
+                    firstDetectionMillis, bootLogMillis, rssMebibytes);
+        }
+    }
+}
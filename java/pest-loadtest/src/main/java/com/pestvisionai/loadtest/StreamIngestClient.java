@@ -0,0 +1,126 @@
+package com.pestvisionai.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One producer on the backend's {@code /ws/detections} stream. Sends as many envelopes as the backend has granted
+ * until {@code deadline}, records the time from send to ack, and completes once every sent detection was answered.
+ */
+final class StreamIngestClient implements WebSocket.Listener {
+
+    private final ObjectMapper objectMapper;
+    private final EnvelopeFactory envelopes;
+    private final LatencyStats stats;
+    private final AtomicLong completed;
+    private final long deadlineNanos;
+    private final Map<Long, Long> sentAt = new ConcurrentHashMap<>();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private final StringBuilder partial = new StringBuilder();
+    private CompletableFuture<WebSocket> sendChain;
+    private int credits;
+    private long seq;
+
+    private StreamIngestClient(ObjectMapper objectMapper, EnvelopeFactory envelopes, LatencyStats stats,
+            AtomicLong completed, long deadlineNanos) {
+        this.objectMapper = objectMapper;
+        this.envelopes = envelopes;
+        this.stats = stats;
+        this.completed = completed;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Connects to {@code baseUrl} and streams until {@code deadlineNanos}; the returned future completes when the
+     * connection has drained.
+     */
+    static CompletableFuture<Void> run(HttpClient client, String baseUrl, ObjectMapper objectMapper,
+            EnvelopeFactory envelopes, LatencyStats stats, AtomicLong completed, long deadlineNanos) {
+        StreamIngestClient listener = new StreamIngestClient(objectMapper, envelopes, stats, completed, deadlineNanos);
+        URI uri = URI.create(baseUrl.replaceFirst("^http", "ws") + "/ws/detections");
+        return client.newWebSocketBuilder()
+                .buildAsync(uri, listener)
+                .thenCompose(webSocket -> listener.done
+                        .thenCompose(ignored -> webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "done"))
+                        .thenApply(ignored -> (Void) null));
+    }
+
+    @Override
+    public synchronized void onOpen(WebSocket webSocket) {
+        sendChain = CompletableFuture.completedFuture(webSocket);
+        webSocket.request(1);
+    }
+
+    @Override
+    public synchronized CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        partial.append(data);
+        if (last) {
+            handle(partial.toString());
+            partial.setLength(0);
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        done.completeExceptionally(error);
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        done.complete(null);
+        return null;
+    }
+
+    private void handle(String text) {
+        JsonNode reply;
+        try {
+            reply = objectMapper.readTree(text);
+        } catch (Exception ex) {
+            stats.recordError();
+            return;
+        }
+        switch (reply.path("type").asText()) {
+            case "demand" -> credits += reply.path("n").asInt();
+            case "ack" -> {
+                Long started = sentAt.remove(reply.path("seq").asLong());
+                if (started != null) {
+                    stats.recordNanos(System.nanoTime() - started);
+                    completed.incrementAndGet();
+                }
+            }
+            case "nack" -> {
+                sentAt.remove(reply.path("seq").asLong());
+                stats.recordError();
+            }
+            default -> stats.recordError();
+        }
+        pump();
+    }
+
+    private void pump() {
+        while (credits > 0 && System.nanoTime() < deadlineNanos) {
+            credits--;
+            long next = ++seq;
+            String envelope = new String(envelopes.next(Instant.now()), StandardCharsets.UTF_8);
+            String frame = "{\"seq\":" + next + ",\"envelope\":" + envelope + "}";
+            sentAt.put(next, System.nanoTime());
+            // The JDK client allows one outstanding send per socket, so sends are chained.
+            sendChain = sendChain.thenCompose(webSocket -> webSocket.sendText(frame, true));
+        }
+        if (System.nanoTime() >= deadlineNanos && sentAt.isEmpty()) {
+            done.complete(null);
+        }
+    }
+}
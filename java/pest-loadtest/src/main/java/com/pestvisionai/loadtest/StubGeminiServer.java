@@ -0,0 +1,130 @@
+package com.pestvisionai.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Gemini {@code generateContent} API with configurable latency and fault injection.
+ *
+ * <p>Every request under {@code /v1beta/models/} is answered with a fixed summary after {@code latency} plus a random
+ * share of {@code jitter}. A fraction of calls can be answered with HTTP 503 or held open for {@code hang} to emulate
+ * an overloaded or unresponsive upstream.
+ */
+final class StubGeminiServer implements AutoCloseable {
+
+    private static final byte[] RESPONSE = """
+            {"candidates":[{"content":{"parts":[{"text":"Aphid pressure is moderate on this row. Inspect leaf undersides and schedule a targeted spray within 24 hours."}],"role":"model"},"finishReason":"STOP"}]}
+            """.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR = """
+            {"error":{"code":503,"message":"The model is overloaded. Please try again later.","status":"UNAVAILABLE"}}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Duration latency;
+    private final Duration jitter;
+    private final double errorRate;
+    private final double hangRate;
+    private final Duration hang;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong hangs = new AtomicLong();
+
+    StubGeminiServer(Duration latency, Duration jitter, double errorRate, double hangRate, Duration hang) throws IOException {
+        this.latency = latency;
+        this.jitter = jitter;
+        this.errorRate = errorRate;
+        this.hangRate = hangRate;
+        this.hang = hang;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        // Latency is emulated by parking the handler thread, so every in-flight call needs its own thread.
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-gemini");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext("/v1beta/models/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    static StubGeminiServer fromOptions(LoadTestOptions options) throws IOException {
+        return new StubGeminiServer(
+                options.duration("gemini-latency", Duration.ofMillis(300)),
+                options.duration("gemini-jitter", Duration.ofMillis(200)),
+                options.decimal("gemini-error-rate", 0.0),
+                options.decimal("gemini-hang-rate", 0.0),
+                options.duration("gemini-hang", Duration.ofSeconds(60)));
+    }
+
+    StubGeminiServer start() {
+        server.start();
+        return this;
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    long hangs() {
+        return hangs.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (InputStream body = exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            if (random.nextDouble() < hangRate) {
+                hangs.incrementAndGet();
+                Thread.sleep(hang.toMillis());
+            } else {
+                long jitterMillis = jitter.isZero() ? 0 : random.nextLong(jitter.toMillis() + 1);
+                Thread.sleep(latency.toMillis() + jitterMillis);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        boolean fail = random.nextDouble() < errorRate;
+        byte[] payload = fail ? ERROR : RESPONSE;
+        if (fail) {
+            errors.incrementAndGet();
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        try {
+            exchange.sendResponseHeaders(fail ? 503 : 200, payload.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(payload);
+            }
+        } catch (IOException ex) {
+            // The backend gave up on the call (timeout); nothing left to answer.
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,325 @@
+package com.pestvisionai.loadtest;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Check for the backend's MJPEG relay ({@code GET /api/video/{cameraId}}) against a local fake camera.
+ *
+ * <p>Points the embedded backend's default camera at a {@link FakeMjpegServer} and opens three kinds of viewers on it
+ * for {@code --duration}: fast viewers that read as quickly as they can, slow viewers that pause
+ * {@code --slow-read-interval} after every frame behind a small socket receive buffer, and viewers that ask for
+ * {@code ?fps=--cap-fps}. It verifies that all of them share one upstream connection, that fast viewers keep the
+ * source frame rate, that capped viewers stay under their cap, that slow viewers skip to recent frames instead of
+ * falling further behind, and that the upstream connection closes once everyone has left. Frame age is the time
+ * from the fake camera writing a frame to a viewer finishing reading it.
+ *
+ * <p>Exits with status 1 when a check fails.
+ */
+public final class VideoRelayProbe {
+
+    private static final int RECEIVE_BUFFER_BYTES = 64 * 1024;
+
+    private final LoadTestOptions options;
+    private final PrintStream out = System.out;
+
+    private VideoRelayProbe(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        boolean passed = new VideoRelayProbe(options).run();
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        int fastViewers = options.integer("viewers", 8);
+        int slowViewers = options.integer("slow-viewers", 2);
+        int cappedViewers = options.integer("capped-viewers", 2);
+        double capFps = options.decimal("cap-fps", 5);
+        Duration slowReadInterval = options.duration("slow-read-interval", Duration.ofMillis(500));
+        Duration maxSlowLag = options.duration("max-slow-lag", Duration.ofSeconds(2));
+        Duration duration = options.duration("duration", Duration.ofSeconds(20));
+        int idleSeconds = 1;
+
+        try (FakeMjpegServer camera = FakeMjpegServer.fromOptions(options).start()) {
+            List<String> args = new ArrayList<>(options.backendArgs());
+            args.add("--pestvision.vision.stream-url=" + camera.streamUrl());
+            args.add("--pestvision.vision.relay.idle-seconds=" + idleSeconds);
+            try (EmbeddedBackend backend = EmbeddedBackend.start(null, args)) {
+                URI feed = URI.create(backend.baseUrl() + "/api/video/default");
+                URI capped = URI.create(feed + "?fps=" + capFps);
+                out.printf("Fake camera at %.0f fps, %d KiB frames; %d fast, %d slow and %d capped viewers for %ss%n",
+                        camera.fps(), options.integer("frame-kb", 100), fastViewers, slowViewers, cappedViewers,
+                        duration.toSeconds());
+
+                List<Watcher> watchers = new ArrayList<>();
+                LatencyStats fastAge = new LatencyStats("frame-age-fast");
+                LatencyStats slowAge = new LatencyStats("frame-age-slow");
+                LatencyStats cappedAge = new LatencyStats("frame-age-capped");
+                for (int i = 0; i < fastViewers; i++) {
+                    watchers.add(new Watcher(feed, fastAge, Duration.ZERO));
+                }
+                for (int i = 0; i < slowViewers; i++) {
+                    watchers.add(new Watcher(feed, slowAge, slowReadInterval));
+                }
+                for (int i = 0; i < cappedViewers; i++) {
+                    watchers.add(new Watcher(capped, cappedAge, Duration.ZERO));
+                }
+
+                ExecutorService executor = Executors.newFixedThreadPool(watchers.size(), runnable -> {
+                    Thread thread = new Thread(runnable, "video-viewer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                long deadline = System.nanoTime() + duration.toNanos();
+                List<Future<?>> running = new ArrayList<>();
+                for (Watcher watcher : watchers) {
+                    running.add(executor.submit(() -> watcher.watch(deadline)));
+                }
+                for (Future<?> future : running) {
+                    future.get();
+                }
+                executor.shutdownNow();
+                double seconds = duration.toNanos() / 1e9;
+
+                out.println();
+                LatencyStats.printHeader(out);
+                fastAge.printSummary(out, seconds);
+                slowAge.printSummary(out, seconds);
+                cappedAge.printSummary(out, seconds);
+
+                out.println();
+                out.printf("%-22s %10s %10s %10s %10s%n", "viewer", "frames", "fps", "skipped", "max age ms");
+                for (Watcher watcher : watchers) {
+                    out.printf("%-22s %10d %10.1f %10d %10.1f%n", watcher.label(), watcher.frames,
+                            watcher.frames / seconds, watcher.skipped, watcher.maxAgeNanos / 1e6);
+                }
+
+                int connectionsWhileWatching = camera.connections();
+                // Give the relay its idle period plus a margin to drop the upstream connection.
+                long idleDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(idleSeconds + 5);
+                while (camera.openConnections() > 0 && System.nanoTime() < idleDeadline) {
+                    Thread.sleep(100);
+                }
+
+                boolean passed = true;
+                out.println();
+                passed &= check(connectionsWhileWatching == 1,
+                        "upstream connections while watching: %d (expected 1)", connectionsWhileWatching);
+                passed &= check(camera.openConnections() == 0,
+                        "upstream connections open after viewers left: %d (expected 0)", camera.openConnections());
+                double minFastFps = camera.fps() * 0.9;
+                for (Watcher watcher : watchers) {
+                    double fps = watcher.frames / seconds;
+                    if (watcher.error != null) {
+                        passed &= check(false, "%s failed: %s", watcher.label(), watcher.error);
+                    } else if (watcher.age == fastAge) {
+                        passed &= check(fps >= minFastFps, "%s: %.1f fps (expected >= %.1f)",
+                                watcher.label(), fps, minFastFps);
+                    } else if (watcher.age == cappedAge) {
+                        passed &= check(fps <= capFps * 1.1 && fps >= capFps * 0.5,
+                                "%s: %.1f fps (expected about %.1f)", watcher.label(), fps, capFps);
+                    } else {
+                        passed &= check(watcher.maxAgeNanos <= maxSlowLag.toNanos() && watcher.frames > 0,
+                                "%s: oldest frame %.0f ms (expected <= %d)", watcher.label(),
+                                watcher.maxAgeNanos / 1e6, maxSlowLag.toMillis());
+                    }
+                }
+                BackendMetrics.print(backend, out);
+                out.println();
+                out.println(passed ? "PASS" : "FAIL");
+                return passed;
+            }
+        }
+    }
+
+    private boolean check(boolean ok, String format, Object... args) {
+        out.printf("%s %s%n", ok ? "ok  " : "FAIL", String.format(Locale.ROOT, format, args));
+        return ok;
+    }
+
+    /**
+     * One viewer on a raw socket, so the receive buffer stays small and a slow reader really is slow at the TCP
+     * level.
+     */
+    private static final class Watcher {
+
+        private final URI uri;
+        private final LatencyStats age;
+        private final Duration pause;
+        private long frames;
+        private long skipped;
+        private long maxAgeNanos;
+        private volatile String error;
+
+        private Watcher(URI uri, LatencyStats age, Duration pause) {
+            this.uri = uri;
+            this.age = age;
+            this.pause = pause;
+        }
+
+        private String label() {
+            return age.name().substring("frame-age-".length()) + "@" + Integer.toHexString(hashCode());
+        }
+
+        private void watch(long deadline) {
+            try (Socket socket = new Socket()) {
+                socket.setReceiveBufferSize(RECEIVE_BUFFER_BYTES);
+                socket.connect(new InetSocketAddress(uri.getHost(), uri.getPort()), 5_000);
+                socket.setSoTimeout(10_000);
+                OutputStream request = socket.getOutputStream();
+                String target = uri.getRawQuery() == null ? uri.getRawPath() : uri.getRawPath() + "?" + uri.getRawQuery();
+                request.write(("GET " + target + " HTTP/1.1\r\nHost: " + uri.getHost() + ":" + uri.getPort()
+                        + "\r\nAccept: multipart/x-mixed-replace\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                request.flush();
+
+                InputStream raw = new BufferedInputStream(socket.getInputStream());
+                String status = readLine(raw);
+                if (!status.startsWith("HTTP/1.1 200")) {
+                    throw new IOException("unexpected status: " + status);
+                }
+                boolean chunked = false;
+                for (String line = readLine(raw); !line.isEmpty(); line = readLine(raw)) {
+                    String lower = line.toLowerCase(Locale.ROOT);
+                    if (lower.startsWith("transfer-encoding:") && lower.contains("chunked")) {
+                        chunked = true;
+                    }
+                }
+                InputStream body = chunked ? new ChunkedInputStream(raw) : raw;
+
+                long lastSequence = 0;
+                while (System.nanoTime() < deadline) {
+                    byte[] jpeg = readPart(body);
+                    long now = System.nanoTime();
+                    long sequence = FakeMjpegServer.sequenceOf(jpeg);
+                    long ageNanos = now - FakeMjpegServer.sentAtNanosOf(jpeg);
+                    age.recordNanos(ageNanos);
+                    maxAgeNanos = Math.max(maxAgeNanos, ageNanos);
+                    if (lastSequence > 0 && sequence > lastSequence + 1) {
+                        skipped += sequence - lastSequence - 1;
+                    }
+                    lastSequence = sequence;
+                    frames++;
+                    if (!pause.isZero()) {
+                        Thread.sleep(pause.toMillis());
+                    }
+                }
+            } catch (Exception ex) {
+                error = ex.toString();
+                age.recordError();
+            }
+        }
+
+        /**
+         * Reads one {@code --frame} part with a {@code Content-Length} header and returns its body.
+         */
+        private static byte[] readPart(InputStream in) throws IOException {
+            String delimiter = readLine(in);
+            while (delimiter.isEmpty()) {
+                delimiter = readLine(in);
+            }
+            if (!delimiter.equals("--frame")) {
+                throw new IOException("unexpected delimiter: " + delimiter);
+            }
+            int length = -1;
+            for (String line = readLine(in); !line.isEmpty(); line = readLine(in)) {
+                if (line.toLowerCase(Locale.ROOT).startsWith("content-length:")) {
+                    length = Integer.parseInt(line.substring("content-length:".length()).trim());
+                }
+            }
+            if (length < 0) {
+                throw new IOException("part without Content-Length");
+            }
+            byte[] jpeg = in.readNBytes(length);
+            if (jpeg.length < length) {
+                throw new EOFException("stream ended inside a frame");
+            }
+            return jpeg;
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b < 0) {
+                    throw new EOFException("stream ended");
+                }
+                if (b != '\r') {
+                    line.write(b);
+                }
+            }
+            return line.toString(StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Decodes an HTTP/1.1 chunked body.
+     */
+    private static final class ChunkedInputStream extends InputStream {
+
+        private final InputStream in;
+        private int remaining;
+
+        private ChunkedInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!nextChunk()) {
+                return -1;
+            }
+            remaining--;
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!nextChunk()) {
+                return -1;
+            }
+            int read = in.read(buffer, offset, Math.min(length, remaining));
+            if (read < 0) {
+                throw new EOFException("stream ended inside a chunk");
+            }
+            remaining -= read;
+            return read;
+        }
+
+        private boolean nextChunk() throws IOException {
+            if (remaining > 0) {
+                return true;
+            }
+            String size = Watcher.readLine(in);
+            if (size.isEmpty()) {
+                // CRLF that ends the previous chunk.
+                size = Watcher.readLine(in);
+            }
+            int semicolon = size.indexOf(';');
+            remaining = Integer.parseInt((semicolon < 0 ? size : size.substring(0, semicolon)).trim(), 16);
+            return remaining > 0;
+        }
+    }
+}
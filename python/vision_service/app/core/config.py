@@ -16,6 +16,14 @@ class Settings(BaseModel):
         default="/api/detections",
         description="Endpoint receiving detection payloads",
     )
+    backend_transport: str = Field(
+        default="http",
+        description="How detections reach the backend: 'http' (one POST each) or 'ws' (persistent stream)",
+    )
+    backend_stream_endpoint: str = Field(
+        default="/ws/detections",
+        description="WebSocket endpoint used when backend_transport is 'ws'",
+    )
     frame_width: int = Field(default=1280, ge=320, le=3840)
     frame_height: int = Field(default=720, ge=240, le=2160)
     detection_interval_frames: int = Field(default=5, ge=1, le=30)
@@ -43,6 +51,8 @@ def get_settings() -> Settings:
         "camera_source": os.getenv("PV_CAMERA_SOURCE", "0"),
     "backend_base_url": os.getenv("PV_BACKEND_BASE_URL", "http://localhost:8082"),
         "backend_detection_endpoint": os.getenv("PV_BACKEND_DETECTION_ENDPOINT", "/api/detections"),
+        "backend_transport": os.getenv("PV_BACKEND_TRANSPORT", "http").lower(),
+        "backend_stream_endpoint": os.getenv("PV_BACKEND_STREAM_ENDPOINT", "/ws/detections"),
         "frame_width": int(os.getenv("PV_FRAME_WIDTH", "1280")),
         "frame_height": int(os.getenv("PV_FRAME_HEIGHT", "720")),
         "detection_interval_frames": int(os.getenv("PV_DETECTION_INTERVAL", "5")),
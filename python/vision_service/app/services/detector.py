@@ -1,6 +1,7 @@
 from __future__ import annotations
 
 import itertools
+import time
 from dataclasses import dataclass
 from typing import List, Tuple
 
@@ -27,7 +28,9 @@ class PestDetector:
         self._confidence_threshold = settings.confidence_threshold
         self._bg_subtractor = cv2.createBackgroundSubtractorMOG2(detectShadows=True)
         self._min_area = 600  # pixels
-        self._frame_id = itertools.count()
+        # Frame ids start from the clock (microseconds) so they keep growing across restarts; the backend treats a
+        # repeated (service, stream, frame id) as a resend of the same detection.
+        self._frame_id = itertools.count(time.time_ns() // 1_000)
 
     def detect(self, frame: NDArray[np.uint8]) -> Tuple[int, List[BoundingBox], DetectorMetrics]:
         frame_id = next(self._frame_id)
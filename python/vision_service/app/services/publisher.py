@@ -1,16 +1,20 @@
 from __future__ import annotations
 
 import asyncio
+import json
 import logging
-from typing import Optional
+from typing import Any, Awaitable, Callable, Dict, Optional, Set, Tuple
 
 import httpx
+import websockets
 
 from app.core.config import get_settings
 from app.schemas.detections import DetectionEnvelope
 
 logger = logging.getLogger(__name__)
 
+_SEND_TIMEOUT_SECONDS = 10.0
+
 
 class DetectionPublisher:
     def __init__(self) -> None:
@@ -19,26 +23,160 @@ class DetectionPublisher:
         self._url = f"{settings.backend_base_url}{settings.backend_detection_endpoint}"
         self._client: Optional[httpx.AsyncClient] = None
         self._lock = asyncio.Lock()
+        self._stream: Optional[_DetectionStream] = None
+        if settings.backend_transport == "ws":
+            ws_base = settings.backend_base_url.replace("https://", "wss://", 1).replace("http://", "ws://", 1)
+            self._stream = _DetectionStream(f"{ws_base}{settings.backend_stream_endpoint}", self._post)
 
     async def _get_client(self) -> httpx.AsyncClient:
         async with self._lock:
             if self._client is None:
-                self._client = httpx.AsyncClient(timeout=10.0)
+                self._client = httpx.AsyncClient(timeout=_SEND_TIMEOUT_SECONDS)
             return self._client
 
     async def publish(self, envelope: DetectionEnvelope) -> None:
         if self._skip_push:
             logger.info("Skipping backend push (PV_SKIP_BACKEND=true)")
             return
-        client = await self._get_client()
         payload = envelope.model_dump(by_alias=True, mode="json")
+        if self._stream is not None and await self._stream.send(payload):
+            return
+        await self._post(payload)
+
+    async def _post(self, payload: Dict[str, Any]) -> None:
+        client = await self._get_client()
         try:
             response = await client.post(self._url, json=payload)
+            if response.status_code == 429:
+                # Shed by the backend's admission control; detections above the spray threshold are still admitted.
+                logger.warning(
+                    "Backend overloaded, detection dropped (retry after %ss)", response.headers.get("retry-after", "?")
+                )
+                return
             response.raise_for_status()
         except httpx.HTTPError as exc:
             logger.error("Failed to push detection to backend: %s", exc)
 
     async def close(self) -> None:
+        if self._stream:
+            await self._stream.close()
         if self._client:
             await self._client.aclose()
             self._client = None
+
+
+class _DetectionStream:
+    """Persistent WebSocket channel to the backend's /ws/detections endpoint.
+
+    The backend grants credits with ``demand`` messages; one credit is spent per detection sent, and ``ack``/``nack``
+    replies arrive asynchronously. ``send`` returns False when the channel is unusable so the caller can fall back
+    to a plain POST. Detections the backend nacks, and those still unanswered when the connection drops, are handed
+    to ``fallback``; ingest is idempotent on the frame id, so one that was stored after all is not stored twice.
+    """
+
+    def __init__(self, url: str, fallback: Callable[[Dict[str, Any]], Awaitable[None]]) -> None:
+        self._url = url
+        self._fallback = fallback
+        self._socket: Optional[Any] = None
+        # Detections sent on the current socket and not yet acked or nacked, by seq.
+        self._pending: Dict[int, Dict[str, Any]] = {}
+        self._reader: Optional[asyncio.Task[None]] = None
+        self._resends: Set[asyncio.Task[None]] = set()
+        self._connect_lock = asyncio.Lock()
+        self._credits = 0
+        self._credit_available = asyncio.Condition()
+        self._seq = 0
+        self._closed = False
+
+    async def send(self, payload: Dict[str, Any]) -> bool:
+        socket: Optional[Any] = None
+        try:
+            socket, pending = await self._connect()
+            async with self._credit_available:
+                await asyncio.wait_for(
+                    self._credit_available.wait_for(lambda: self._credits > 0 or self._socket is not socket),
+                    timeout=_SEND_TIMEOUT_SECONDS,
+                )
+                if self._socket is not socket:
+                    return False
+                self._credits -= 1
+                self._seq += 1
+                seq = self._seq
+            pending[seq] = payload
+            try:
+                await socket.send(json.dumps({"seq": seq, "envelope": payload}))
+            except BaseException:
+                pending.pop(seq, None)
+                raise
+            return True
+        except (OSError, asyncio.TimeoutError, websockets.WebSocketException) as exc:
+            logger.warning("Detection stream unavailable, falling back to HTTP: %s", exc)
+            if socket is not None:
+                await self._reset(socket)
+            return False
+
+    async def _connect(self) -> Tuple[Any, Dict[int, Dict[str, Any]]]:
+        async with self._connect_lock:
+            if self._socket is None:
+                socket = await asyncio.wait_for(websockets.connect(self._url), timeout=_SEND_TIMEOUT_SECONDS)
+                self._socket = socket
+                self._pending = {}
+                self._reader = asyncio.create_task(self._read(socket, self._pending))
+            return self._socket, self._pending
+
+    async def _read(self, socket: Any, pending: Dict[int, Dict[str, Any]]) -> None:
+        try:
+            async for message in socket:
+                reply = json.loads(message)
+                kind = reply.get("type")
+                if kind == "demand":
+                    async with self._credit_available:
+                        self._credits += int(reply.get("n", 0))
+                        self._credit_available.notify_all()
+                elif kind == "nack":
+                    payload = pending.pop(reply.get("seq"), None)
+                    logger.warning(
+                        "Backend rejected detection %s on the stream, retrying over HTTP: %s",
+                        reply.get("seq"),
+                        reply.get("error"),
+                    )
+                    if payload is not None:
+                        self._resend(payload)
+                elif kind == "ack":
+                    pending.pop(reply.get("seq"), None)
+                    if reply.get("sprayed"):
+                        logger.info(
+                            "Detection %s stored as %s triggered a spray", reply.get("seq"), reply.get("detectionId")
+                        )
+        except websockets.WebSocketException as exc:
+            logger.warning("Detection stream closed: %s", exc)
+        finally:
+            await self._reset(socket)
+            if pending and not self._closed:
+                logger.warning("Resending %d unanswered detection(s) over HTTP", len(pending))
+                for seq in sorted(pending):
+                    self._resend(pending.pop(seq))
+
+    def _resend(self, payload: Dict[str, Any]) -> None:
+        # In the background, so a slow POST does not hold up acks and demand for the stream.
+        task = asyncio.create_task(self._fallback(payload))
+        self._resends.add(task)
+        task.add_done_callback(self._resends.discard)
+
+    async def _reset(self, socket: Any) -> None:
+        """Drops ``socket``; a connection opened since it was current is left alone."""
+        if self._socket is socket:
+            self._socket = None
+            async with self._credit_available:
+                self._credits = 0
+                self._credit_available.notify_all()
+        await socket.close()
+
+    async def close(self) -> None:
+        self._closed = True
+        reader = self._reader
+        socket = self._socket
+        if socket is not None:
+            await self._reset(socket)
+        if reader is not None:
+            reader.cancel()